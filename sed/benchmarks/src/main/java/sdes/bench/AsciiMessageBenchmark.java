@@ -0,0 +1,59 @@
+package sdes.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 整条ASCII消息加密：原GUI的字符串流水线与预处理密钥的字节批量接口对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsciiMessageBenchmark {
+    @Param({"64", "65536"})
+    public int length;
+
+    private final int[] key = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+    private String message;
+    private Object preparedKey;
+
+    @Setup
+    public void setup() throws Throwable {
+        message = Messages.ascii(length);
+        preparedKey = SDes.KEY_OF.invokeExact(0b1111111111);
+    }
+
+    /**
+     * 原流水线：asciiToBinary → 每8位binaryStrToIntArray → encrypt → 拼接 → binaryToAscii
+     */
+    @Benchmark
+    public String stringPipeline() throws Throwable {
+        String inputBinary = (String) SDes.ASCII_TO_BINARY.invokeExact(message);
+        StringBuilder binaryResult = new StringBuilder(inputBinary.length());
+        for (int i = 0; i < inputBinary.length(); i += 8) {
+            int[] block = (int[]) SDes.BINARY_STR_TO_INT_ARRAY.invokeExact(inputBinary.substring(i, i + 8));
+            int[] processed = (int[]) SDes.ENCRYPT.invokeExact(block, key);
+            binaryResult.append((String) SDes.INT_ARRAY_TO_BINARY_STR.invokeExact(processed));
+        }
+        return (String) SDes.BINARY_TO_ASCII.invokeExact(binaryResult.toString());
+    }
+
+    /**
+     * 字节流水线：getBytes → SDesKey原地批量加密 → new String
+     */
+    @Benchmark
+    public String preparedKeyBytes() throws Throwable {
+        byte[] data = message.getBytes(StandardCharsets.ISO_8859_1);
+        SDes.KEY_ENCRYPT.invokeExact(preparedKey, data, 0, data.length, data, 0);
+        return new String(data, StandardCharsets.ISO_8859_1);
+    }
+}
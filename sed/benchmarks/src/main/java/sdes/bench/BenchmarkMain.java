@@ -0,0 +1,32 @@
+package sdes.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准入口：在JMH命令行参数的基础上固定开启GC/分配统计，并把结果保存为JSON
+ * <p>
+ * 用法：java -jar benchmarks/target/benchmarks.jar [JMH参数]，
+ * 默认结果写入 jmh-result.json，可用 -rff 指定其他路径（如 benchmarks/baseline/jmh-baseline.json）。
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(commandLine.getResult().orElse("jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
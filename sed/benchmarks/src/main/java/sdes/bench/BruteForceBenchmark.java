@@ -0,0 +1,97 @@
+package sdes.bench;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 1024密钥暴力破解的三条路径
+ * <p>
+ * 单个明密文对查反向码本索引（index），多个明密文对做一次位切片搜索（bitsliced），两者都只占一个线程；
+ * 逐密钥分块搜索（chunked）才把工作分给线程池，因此只有它随线程数变化。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BruteForceBenchmark {
+    /** README第四关的明密文对 */
+    private static final int[] ONE_PLAINTEXT = {0b10101010};
+    private static final int[] ONE_CIPHERTEXT = {0b11111111};
+    /** 密钥0b1010000010下的两个明密文对 */
+    private static final int[] TWO_PLAINTEXTS = {0b10101010, 0b01010101};
+    private static final int[] TWO_CIPHERTEXTS = new int[2];
+
+    static {
+        try {
+            for (int i = 0; i < 2; i++) {
+                TWO_CIPHERTEXTS[i] = (int) SDes.ENCRYPT_BYTE.invokeExact(TWO_PLAINTEXTS[i], 0b1010000010);
+            }
+        } catch (Throwable e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 单线程线程池：查索引与位切片搜索都只提交一个任务
+     */
+    @State(Scope.Benchmark)
+    public static class SingleThread {
+        ForkJoinPool pool;
+        Object engine;
+
+        @Setup(Level.Trial)
+        public void setup() throws Throwable {
+            pool = new ForkJoinPool(threads());
+            engine = SDes.NEW_ENGINE.invokeExact(pool);
+        }
+
+        int threads() {
+            return 1;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 使用指定线程数的独立线程池
+     */
+    @State(Scope.Benchmark)
+    public static class Pool extends SingleThread {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        @Override
+        int threads() {
+            return threads;
+        }
+    }
+
+    @Benchmark
+    public int[] index(SingleThread state) throws Throwable {
+        return (int[]) SDes.ENGINE_CRACK.invokeExact(state.engine, ONE_PLAINTEXT, ONE_CIPHERTEXT);
+    }
+
+    @Benchmark
+    public int[] bitsliced(SingleThread state) throws Throwable {
+        return (int[]) SDes.ENGINE_CRACK.invokeExact(state.engine, TWO_PLAINTEXTS, TWO_CIPHERTEXTS);
+    }
+
+    @Benchmark
+    public Object chunked(Pool state) throws Throwable {
+        return ((CompletableFuture<?>) SDes.ENGINE_SEARCH_CHUNKED.invokeExact(state.engine, TWO_PLAINTEXTS,
+                TWO_CIPHERTEXTS)).join();
+    }
+}
@@ -0,0 +1,48 @@
+package sdes.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 批量ECB：密钥查表顺序处理与SDesMode.ECB（fork/join自适应拆分）对比
+ * <p>
+ * 小消息两者应持平（低于并行阈值不拆分），多MB缓冲区的吞吐量应随核数增长。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BulkEcbBenchmark {
+    @Param({"64", "65536", "4194304"})
+    public int length;
+
+    private byte[] data;
+    private Object preparedKey;
+
+    @Setup
+    public void setup() throws Throwable {
+        data = new byte[length];
+        ThreadLocalRandom.current().nextBytes(data);
+        preparedKey = SDes.KEY_OF.invokeExact(0b1010000010);
+    }
+
+    @Benchmark
+    public byte[] sequential() throws Throwable {
+        SDes.KEY_ENCRYPT.invokeExact(preparedKey, data, 0, data.length, data, 0);
+        return data;
+    }
+
+    @Benchmark
+    public byte[] forkJoin() throws Throwable {
+        int chain = (int) SDes.MODE_ENCRYPT.invokeExact(SDes.MODE_ECB, preparedKey, 0, data, 0, data.length, data, 0);
+        return data;
+    }
+}
@@ -0,0 +1,50 @@
+package sdes.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 单分组加解密与密钥扩展
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CipherBenchmark {
+    private final int[] plaintext = {0, 1, 0, 0, 0, 0, 0, 1};
+    private final int[] ciphertext = {0, 1, 1, 1, 0, 1, 0, 0};
+    private final int[] key = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+    private int block = 0b01000001;
+    private int packedKey = 0b1111111111;
+
+    @Benchmark
+    public int[] encrypt() throws Throwable {
+        return (int[]) SDes.ENCRYPT.invokeExact(plaintext, key);
+    }
+
+    @Benchmark
+    public int[] decrypt() throws Throwable {
+        return (int[]) SDes.DECRYPT.invokeExact(ciphertext, key);
+    }
+
+    @Benchmark
+    public int[][] generateSubkeys() throws Throwable {
+        return (int[][]) SDes.GENERATE_SUBKEYS.invokeExact(key);
+    }
+
+    @Benchmark
+    public int encryptByte() throws Throwable {
+        return (int) SDes.ENCRYPT_BYTE.invokeExact(block, packedKey);
+    }
+
+    /** 编译后的CipherSpec：子密钥、置换与合并轮函数均为查表 */
+    @Benchmark
+    public int specEncrypt() throws Throwable {
+        return (int) SDes.SPEC_ENCRYPT.invokeExact(SDes.STANDARD_SPEC, block, packedKey);
+    }
+}
@@ -0,0 +1,64 @@
+package sdes.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 文本编解码：ASCII与'0'/'1'二进制字符串之间的转换，以及TextCodec的UTF-8与十六进制
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodecBenchmark {
+    @Param({"16", "4096"})
+    public int length;
+
+    private String text;
+    private String binary;
+    private String hex;
+    private byte[] utf8;
+    private byte[] hexBuffer;
+
+    @Setup
+    public void setup() throws Throwable {
+        text = Messages.ascii(length);
+        binary = (String) SDes.ASCII_TO_BINARY.invokeExact(text);
+        utf8 = new byte[length * 3];
+        hexBuffer = new byte[length * 2];
+        int n = (int) SDes.ENCODE_HEX.invokeExact(text.getBytes(), 0, length, hexBuffer, 0);
+        hex = new String(hexBuffer, 0, n);
+    }
+
+    @Benchmark
+    public String asciiToBinary() throws Throwable {
+        return (String) SDes.ASCII_TO_BINARY.invokeExact(text);
+    }
+
+    @Benchmark
+    public String binaryToAscii() throws Throwable {
+        return (String) SDes.BINARY_TO_ASCII.invokeExact(binary);
+    }
+
+    @Benchmark
+    public int encodeUtf8() throws Throwable {
+        return (int) SDes.ENCODE_UTF8.invokeExact((CharSequence) text, utf8, 0);
+    }
+
+    @Benchmark
+    public int encodeHex() throws Throwable {
+        return (int) SDes.ENCODE_HEX.invokeExact(utf8, 0, length, hexBuffer, 0);
+    }
+
+    @Benchmark
+    public byte[] fromHex() throws Throwable {
+        return (byte[]) SDes.FROM_HEX.invokeExact((CharSequence) hex);
+    }
+}
@@ -0,0 +1,22 @@
+package sdes.bench;
+
+/**
+ * 基准测试用的确定性输入
+ */
+final class Messages {
+    private static final String SAMPLE = "lovecqu S-DES benchmark message 0123456789 ";
+
+    private Messages() {
+    }
+
+    /**
+     * 指定长度的可打印ASCII文本
+     */
+    static String ascii(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(SAMPLE, 0, Math.min(SAMPLE.length(), length - sb.length()));
+        }
+        return sb.toString();
+    }
+}
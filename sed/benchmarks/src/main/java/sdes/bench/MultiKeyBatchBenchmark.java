@@ -0,0 +1,59 @@
+package sdes.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 多密钥批量加密：逐条记录调用encryptByte与SDesBatch按密钥分桶查表对比
+ * <p>
+ * distinctKeys较小时各桶很大，码本行常驻缓存；取1024时密钥完全随机，体现计数排序本身的开销。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultiKeyBatchBenchmark {
+    @Param({"1024", "1048576"})
+    public int records;
+
+    @Param({"8", "1024"})
+    public int distinctKeys;
+
+    private int[] keys;
+    private byte[] blocks;
+    private byte[] out;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        keys = new int[records];
+        for (int i = 0; i < records; i++) {
+            keys[i] = random.nextInt(distinctKeys);
+        }
+        blocks = new byte[records];
+        random.nextBytes(blocks);
+        out = new byte[records];
+    }
+
+    @Benchmark
+    public byte[] perRecord() throws Throwable {
+        for (int i = 0; i < records; i++) {
+            out[i] = (byte) (int) SDes.ENCRYPT_BYTE.invokeExact(blocks[i] & 0xFF, keys[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] bucketed() throws Throwable {
+        SDes.BATCH_ENCRYPT.invokeExact(keys, blocks, out);
+        return out;
+    }
+}
@@ -0,0 +1,143 @@
+package sdes.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 访问默认包中S-DES类的桥接层
+ * <p>
+ * JMH不允许基准类位于默认包，而具名包又无法在编译期引用默认包中的类，因此这里在类初始化时
+ * 解析出static final的MethodHandle；JIT会把它们当作常量内联，调用开销可忽略。
+ */
+final class SDes {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    static final MethodHandle ENCRYPT = util("encrypt", MethodType.methodType(int[].class, int[].class, int[].class));
+    static final MethodHandle DECRYPT = util("decrypt", MethodType.methodType(int[].class, int[].class, int[].class));
+    static final MethodHandle GENERATE_SUBKEYS = util("generateSubkeys", MethodType.methodType(int[][].class, int[].class));
+    static final MethodHandle ENCRYPT_BYTE = util("encryptByte", MethodType.methodType(int.class, int.class, int.class));
+    static final MethodHandle DECRYPT_BYTE = util("decryptByte", MethodType.methodType(int.class, int.class, int.class));
+    static final MethodHandle ASCII_TO_BINARY = util("asciiToBinary", MethodType.methodType(String.class, String.class));
+    static final MethodHandle BINARY_TO_ASCII = util("binaryToAscii", MethodType.methodType(String.class, String.class));
+    static final MethodHandle BINARY_STR_TO_INT_ARRAY =
+            util("binaryStrToIntArray", MethodType.methodType(int[].class, String.class));
+    static final MethodHandle INT_ARRAY_TO_BINARY_STR =
+            util("intArrayToBinaryStr", MethodType.methodType(String.class, int[].class));
+
+    /** TextCodec.encodeUtf8(CharSequence, byte[], int) */
+    static final MethodHandle ENCODE_UTF8 = findStatic("TextCodec", "encodeUtf8",
+            MethodType.methodType(int.class, CharSequence.class, byte[].class, int.class));
+    /** TextCodec.encodeHex(byte[], int, int, byte[], int) */
+    static final MethodHandle ENCODE_HEX = findStatic("TextCodec", "encodeHex",
+            MethodType.methodType(int.class, byte[].class, int.class, int.class, byte[].class, int.class));
+    /** TextCodec.fromHex(CharSequence) */
+    static final MethodHandle FROM_HEX = findStatic("TextCodec", "fromHex",
+            MethodType.methodType(byte[].class, CharSequence.class));
+
+    /** CipherSpec.STANDARD，视为Object */
+    static final Object STANDARD_SPEC = staticField("CipherSpec", "STANDARD");
+    /** CipherSpec#encrypt(int, int) */
+    static final MethodHandle SPEC_ENCRYPT = findVirtual("CipherSpec", "encrypt",
+            MethodType.methodType(int.class, int.class, int.class))
+            .asType(MethodType.methodType(int.class, Object.class, int.class, int.class));
+
+    /** SDesKey.of(int)，返回值视为Object */
+    static final MethodHandle KEY_OF = findStatic("SDesKey", "of", MethodType.methodType(load("SDesKey"), int.class))
+            .asType(MethodType.methodType(Object.class, int.class));
+    /** SDesKey#encrypt(byte[], int, int, byte[], int) */
+    static final MethodHandle KEY_ENCRYPT = findVirtual("SDesKey", "encrypt",
+            MethodType.methodType(void.class, byte[].class, int.class, int.class, byte[].class, int.class))
+            .asType(MethodType.methodType(void.class, Object.class, byte[].class, int.class, int.class, byte[].class, int.class));
+
+    /** SDesMode.ECB，视为Object */
+    static final Object MODE_ECB = modeConstant("ECB");
+    /** SDesMode#encrypt(SDesKey, int, byte[], int, int, byte[], int) */
+    static final MethodHandle MODE_ENCRYPT = findVirtual("SDesMode", "encrypt",
+            MethodType.methodType(int.class, load("SDesKey"), int.class, byte[].class, int.class, int.class,
+                    byte[].class, int.class))
+            .asType(MethodType.methodType(int.class, Object.class, Object.class, int.class, byte[].class, int.class,
+                    int.class, byte[].class, int.class));
+
+    /** SDesBatch.encrypt(int[], byte[], byte[]) */
+    static final MethodHandle BATCH_ENCRYPT = findStatic("SDesBatch", "encrypt",
+            MethodType.methodType(void.class, int[].class, byte[].class, byte[].class));
+
+    /** TripleSDes.of(int, int, int)，返回值视为Object */
+    static final MethodHandle TRIPLE_OF = findStatic("TripleSDes", "of",
+            MethodType.methodType(load("TripleSDes"), int.class, int.class, int.class))
+            .asType(MethodType.methodType(Object.class, int.class, int.class, int.class));
+    /** TripleSDes#encrypt(byte[], int, int, byte[], int) */
+    static final MethodHandle TRIPLE_ENCRYPT = findVirtual("TripleSDes", "encrypt",
+            MethodType.methodType(void.class, byte[].class, int.class, int.class, byte[].class, int.class))
+            .asType(MethodType.methodType(void.class, Object.class, byte[].class, int.class, int.class, byte[].class, int.class));
+
+    /** new BruteForceEngine(ForkJoinPool) */
+    static final MethodHandle NEW_ENGINE = findConstructor("BruteForceEngine",
+            MethodType.methodType(void.class, ForkJoinPool.class))
+            .asType(MethodType.methodType(Object.class, ForkJoinPool.class));
+    /** BruteForceEngine#crack(int[], int[]) */
+    static final MethodHandle ENGINE_CRACK = findVirtual("BruteForceEngine", "crack",
+            MethodType.methodType(int[].class, int[].class, int[].class))
+            .asType(MethodType.methodType(int[].class, Object.class, int[].class, int[].class));
+    /** BruteForceEngine#searchChunked(int[], int[], null)，返回值视为CompletableFuture */
+    static final MethodHandle ENGINE_SEARCH_CHUNKED = MethodHandles.insertArguments(
+            findVirtual("BruteForceEngine", "searchChunked",
+                    MethodType.methodType(load("BruteForceEngine$Search"), int[].class, int[].class,
+                            load("BruteForceEngine$ProgressListener"))), 3, (Object) null)
+            .asType(MethodType.methodType(CompletableFuture.class, Object.class, int[].class, int[].class));
+
+    private SDes() {
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Object staticField(String owner, String name) {
+        try {
+            return load(owner).getField(name).get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object modeConstant(String name) {
+        return Enum.valueOf((Class) load("SDesMode"), name);
+    }
+
+    private static MethodHandle util(String name, MethodType type) {
+        return findStatic("SDesUtil", name, type);
+    }
+
+    private static MethodHandle findStatic(String owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(load(owner), name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle findVirtual(String owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(load(owner), name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle findConstructor(String owner, MethodType type) {
+        try {
+            return LOOKUP.findConstructor(load(owner), type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
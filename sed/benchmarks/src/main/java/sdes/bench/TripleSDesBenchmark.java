@@ -0,0 +1,61 @@
+package sdes.bench;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 三重S-DES（EDE）：逐层encryptByte/decryptByte与TripleSDes融合表对比，以及命中缓存时准备密钥组的开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TripleSDesBenchmark {
+    private static final int K1 = 0b1010000010;
+    private static final int K2 = 0b0111111101;
+    private static final int K3 = 0b1100110011;
+
+    @Param({"64", "65536"})
+    public int length;
+
+    private byte[] data;
+    private byte[] out;
+    private Object prepared;
+
+    @Setup
+    public void setup() throws Throwable {
+        data = new byte[length];
+        ThreadLocalRandom.current().nextBytes(data);
+        out = new byte[length];
+        prepared = SDes.TRIPLE_OF.invokeExact(K1, K2, K3);
+    }
+
+    @Benchmark
+    public byte[] naiveComposition() throws Throwable {
+        for (int i = 0; i < length; i++) {
+            int block = (int) SDes.ENCRYPT_BYTE.invokeExact(data[i] & 0xFF, K1);
+            block = (int) SDes.DECRYPT_BYTE.invokeExact(block, K2);
+            out[i] = (byte) (int) SDes.ENCRYPT_BYTE.invokeExact(block, K3);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] fusedTable() throws Throwable {
+        SDes.TRIPLE_ENCRYPT.invokeExact(prepared, data, 0, length, out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public Object prepareCached() throws Throwable {
+        return SDes.TRIPLE_OF.invokeExact(K1, K2, K3);
+    }
+}
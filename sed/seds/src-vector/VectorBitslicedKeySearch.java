@@ -0,0 +1,132 @@
+import java.util.Arrays;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于jdk.incubator.vector的位切片密钥搜索：每个向量通道是一个64密钥的long切片，
+ * 一次向量运算处理64 × 通道数个密钥（AVX2下256个，AVX-512下512个）
+ * <p>
+ * 本文件位于独立源码目录，需以 --add-modules jdk.incubator.vector 编译和运行；
+ * 由{@link BitslicedKeySearch#best()}反射加载，模块不可用时自动回退到标量实现。
+ */
+public class VectorBitslicedKeySearch extends BitslicedKeySearch {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    /** 每轮处理的密钥数 */
+    private static final int KEYS_PER_PASS = 64 * SPECIES.length();
+
+    @Override
+    public int lanes() {
+        return KEYS_PER_PASS;
+    }
+
+    @Override
+    public int[] search(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        BruteForceEngine.validatePairs(plaintexts, ciphertexts);
+        int width = SPECIES.length();
+        LongVector[] key = new LongVector[10];
+        LongVector[] k1 = new LongVector[8];
+        LongVector[] k2 = new LongVector[8];
+        LongVector[] ip = new LongVector[8];
+        LongVector[] pre = new LongVector[8];
+        LongVector[] f = new LongVector[4];
+        long[] laneBits = new long[width];
+        int[] found = new int[KEY_COUNT];
+        int count = 0;
+
+        for (int base = 0; base < KEY_COUNT; base += KEYS_PER_PASS) {
+            // 第l个通道负责密钥 base + 64*l ~ base + 64*l + 63
+            for (int j = 0; j < 10; j++) {
+                int valueBit = 9 - j;
+                if (valueBit < 6) {
+                    key[j] = LongVector.broadcast(SPECIES, LANE_PATTERNS[valueBit]);
+                } else {
+                    for (int lane = 0; lane < width; lane++) {
+                        laneBits[lane] = -(((base + 64 * lane) >>> valueBit) & 1L);
+                    }
+                    key[j] = LongVector.fromArray(SPECIES, laneBits, 0);
+                }
+            }
+            for (int i = 0; i < 8; i++) {
+                k1[i] = key[K1_SOURCE[i]];
+                k2[i] = key[K2_SOURCE[i]];
+            }
+            LongVector mask = LongVector.broadcast(SPECIES, -1L);
+            for (int i = 0; i < plaintexts.length; i++) {
+                mask = mask.and(matchLanes(plaintexts[i], ciphertexts[i], k1, k2, ip, pre, f));
+            }
+            mask.intoArray(laneBits, 0);
+            for (int lane = 0; lane < width; lane++) {
+                int laneBase = base + 64 * lane;
+                if (laneBase >= KEY_COUNT) {
+                    break;
+                }
+                for (long bits = laneBits[lane]; bits != 0; bits &= bits - 1) {
+                    found[count++] = laneBase | Long.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+        Arrays.sort(found, 0, count);
+        return Arrays.copyOf(found, count);
+    }
+
+    private static LongVector matchLanes(int plaintext, int ciphertext, LongVector[] k1, LongVector[] k2,
+                                         LongVector[] ip, LongVector[] pre, LongVector[] f) {
+        for (int i = 0; i < 8; i++) {
+            ip[i] = LongVector.broadcast(SPECIES, -((plaintext >>> (7 - IP_SOURCE[i])) & 1L));
+        }
+        roundF(ip, 4, k1, f);
+        for (int i = 0; i < 4; i++) {
+            pre[4 + i] = ip[i].lanewise(VectorOperators.XOR, f[i]);
+        }
+        roundF(pre, 4, k2, f);
+        for (int i = 0; i < 4; i++) {
+            pre[i] = ip[4 + i].lanewise(VectorOperators.XOR, f[i]);
+        }
+        LongVector mask = LongVector.broadcast(SPECIES, -1L);
+        for (int i = 0; i < 8; i++) {
+            LongVector bit = pre[IP_INVERSE_SOURCE[i]];
+            mask = mask.and(((ciphertext >>> (7 - i)) & 1) != 0 ? bit : bit.not());
+        }
+        return mask;
+    }
+
+    private static void roundF(LongVector[] state, int offset, LongVector[] subkey, LongVector[] out) {
+        LongVector x0 = state[offset + EP_SOURCE[0]].lanewise(VectorOperators.XOR, subkey[0]);
+        LongVector x1 = state[offset + EP_SOURCE[1]].lanewise(VectorOperators.XOR, subkey[1]);
+        LongVector x2 = state[offset + EP_SOURCE[2]].lanewise(VectorOperators.XOR, subkey[2]);
+        LongVector x3 = state[offset + EP_SOURCE[3]].lanewise(VectorOperators.XOR, subkey[3]);
+        LongVector x4 = state[offset + EP_SOURCE[4]].lanewise(VectorOperators.XOR, subkey[4]);
+        LongVector x5 = state[offset + EP_SOURCE[5]].lanewise(VectorOperators.XOR, subkey[5]);
+        LongVector x6 = state[offset + EP_SOURCE[6]].lanewise(VectorOperators.XOR, subkey[6]);
+        LongVector x7 = state[offset + EP_SOURCE[7]].lanewise(VectorOperators.XOR, subkey[7]);
+        LongVector s0 = sBox(S1_HIGH, x0, x1, x2, x3);
+        LongVector s1 = sBox(S1_LOW, x0, x1, x2, x3);
+        LongVector s2 = sBox(S2_HIGH, x4, x5, x6, x7);
+        LongVector s3 = sBox(S2_LOW, x4, x5, x6, x7);
+        for (int i = 0; i < 4; i++) {
+            int source = SP_SOURCE[i];
+            out[i] = source == 0 ? s0 : source == 1 ? s1 : source == 2 ? s2 : s3;
+        }
+    }
+
+    private static LongVector sBox(int table, LongVector a, LongVector b, LongVector c, LongVector d) {
+        return mux(a, mux(b, mux(c, mux2(table, d), mux2(table >>> 2, d)),
+                        mux(c, mux2(table >>> 4, d), mux2(table >>> 6, d))),
+                mux(b, mux(c, mux2(table >>> 8, d), mux2(table >>> 10, d)),
+                        mux(c, mux2(table >>> 12, d), mux2(table >>> 14, d))));
+    }
+
+    /** sel为0的位取whenZero，为1的位取whenOne */
+    private static LongVector mux(LongVector sel, LongVector whenZero, LongVector whenOne) {
+        return whenZero.and(sel.not()).or(whenOne.and(sel));
+    }
+
+    private static LongVector mux2(int table, LongVector d) {
+        LongVector zero = LongVector.zero(SPECIES);
+        LongVector low = (table & 1) != 0 ? d.not() : zero;
+        LongVector high = (table & 2) != 0 ? d : zero;
+        return low.or(high);
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.Arrays;
+
+/**
+ * 位切片（bitslice）S-DES密钥搜索的公共部分
+ * <p>
+ * 位切片把同一位位置上多个密钥的取值放进一个long：第j个long的第l位是第l个候选密钥的第j位。
+ * 这样一次按位运算即同时对64个密钥执行同一步S-DES，置换只是重新连线，S-Box按真值表用选择器
+ * （mux）树求值。搜索1024个密钥只需16轮（向量版本更少）。
+ * <p>
+ * 子类负责具体的通道宽度；{@link #best()}优先加载基于jdk.incubator.vector的实现，
+ * 模块不可用或自检失败时回退到64位标量实现。两种实现都以{@link SDesUtil#encrypt}为参考自检，
+ * {@link BruteForceEngine}经{@link #best()}搜索明密文对。
+ */
+public abstract class BitslicedKeySearch {
+    /** 密钥空间大小 */
+    public static final int KEY_COUNT = 1 << 10;
+
+    /** k1的第i位来自密钥的第K1_SOURCE[i]位（0-based，最高位为0） */
+    static final int[] K1_SOURCE;
+    /** k2的第i位来自密钥的第K2_SOURCE[i]位 */
+    static final int[] K2_SOURCE;
+    /** 0-based的IP、IP-1、EP、SP置换表 */
+    static final int[] IP_SOURCE = toZeroBased(SDesUtil.IP);
+    static final int[] IP_INVERSE_SOURCE = toZeroBased(SDesUtil.IP_INVERSE);
+    static final int[] EP_SOURCE = toZeroBased(SDesUtil.EP_BOX);
+    static final int[] SP_SOURCE = toZeroBased(SDesUtil.SP_BOX);
+    /** S-Box输出位的16项真值表（第n位为4位输入n对应的输出位） */
+    static final int S1_HIGH;
+    static final int S1_LOW;
+    static final int S2_HIGH;
+    static final int S2_LOW;
+    /**
+     * 64个连续密钥的低6位切片：LANE_PATTERNS[b]的第l位等于l的第b位
+     */
+    static final long[] LANE_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    static {
+        // 用下标数组走一遍int[]版密钥扩展，得到子密钥各位的来源位置
+        int[] identity = new int[10];
+        for (int i = 0; i < 10; i++) {
+            identity[i] = i;
+        }
+        int[] p10 = SDesUtil.permutate(identity, SDesUtil.P10);
+        int[] left1 = SDesUtil.leftShift(Arrays.copyOfRange(p10, 0, 5), 1);
+        int[] right1 = SDesUtil.leftShift(Arrays.copyOfRange(p10, 5, 10), 1);
+        K1_SOURCE = SDesUtil.permutate(concat(left1, right1), SDesUtil.P8);
+        int[] left2 = SDesUtil.leftShift(left1, 1);
+        int[] right2 = SDesUtil.leftShift(right1, 1);
+        K2_SOURCE = SDesUtil.permutate(concat(left2, right2), SDesUtil.P8);
+
+        S1_HIGH = truthTable(SDesUtil.S_BOX1, 1);
+        S1_LOW = truthTable(SDesUtil.S_BOX1, 0);
+        S2_HIGH = truthTable(SDesUtil.S_BOX2, 1);
+        S2_LOW = truthTable(SDesUtil.S_BOX2, 0);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static int[] toZeroBased(int[] table) {
+        int[] result = new int[table.length];
+        for (int i = 0; i < table.length; i++) {
+            result[i] = table[i] - 1;
+        }
+        return result;
+    }
+
+    /**
+     * S-Box某个输出位的真值表，输入n的四位依次为b1b2b3b4（行=b1b4，列=b2b3）
+     */
+    private static int truthTable(int[][] sBox, int outputBit) {
+        int table = 0;
+        for (int n = 0; n < 16; n++) {
+            int row = ((n >>> 2) & 0b10) | (n & 1);
+            int col = (n >>> 1) & 0b11;
+            if (((sBox[row][col] >>> outputBit) & 1) != 0) {
+                table |= 1 << n;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 搜索满足全部明密文对的密钥
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @return 升序排列的10位密钥
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     */
+    public abstract int[] search(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException;
+
+    /**
+     * 一次位运算并行处理的密钥数
+     */
+    public abstract int lanes();
+
+    /**
+     * 与参考实现{@link SDesUtil#encrypt}的逐密钥搜索结果比对，奇数号样本使用两个明密文对以覆盖求交集
+     * @param samples 抽样的明密文对数量
+     * @return 全部一致返回true
+     */
+    public boolean selfCheck(int samples) {
+        for (int s = 0; s < samples; s++) {
+            int key = (s * 389 + 7) & 0x3FF;
+            int pairs = 1 + (s & 1);
+            int[] plaintexts = new int[pairs];
+            int[] ciphertexts = new int[pairs];
+            for (int i = 0; i < pairs; i++) {
+                plaintexts[i] = (s * 97 + i * 151 + 13) & 0xFF;
+                ciphertexts[i] = referenceEncrypt(plaintexts[i], key);
+            }
+
+            int[] expected = new int[KEY_COUNT];
+            int count = 0;
+            for (int k = 0; k < KEY_COUNT; k++) {
+                boolean matches = true;
+                for (int i = 0; i < pairs && matches; i++) {
+                    matches = referenceEncrypt(plaintexts[i], k) == ciphertexts[i];
+                }
+                if (matches) {
+                    expected[count++] = k;
+                }
+            }
+            if (!Arrays.equals(Arrays.copyOf(expected, count), search(plaintexts, ciphertexts))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int referenceEncrypt(int plaintext, int key) {
+        return SDesUtil.bitsToInt(SDesUtil.encrypt(SDesUtil.intToBits(plaintext, 8), SDesUtil.intToBits(key, 10)));
+    }
+
+    /**
+     * 可用的最快实现：优先使用向量版本，不可用或自检失败时回退到标量版本；两者都经过自检，
+     * 标量版本也未通过时返回null，调用方应改用逐密钥搜索。结果在首次调用时确定并缓存。
+     */
+    public static BitslicedKeySearch best() {
+        return Best.INSTANCE;
+    }
+
+    /**
+     * 延迟选择实现，避免只用到常量的类加载时执行自检
+     */
+    private static final class Best {
+        /** 自检样本数 */
+        private static final int SELF_CHECK_SAMPLES = 8;
+        static final BitslicedKeySearch INSTANCE = select();
+
+        private static BitslicedKeySearch select() {
+            try {
+                BitslicedKeySearch vector = (BitslicedKeySearch) Class.forName("VectorBitslicedKeySearch")
+                        .getDeclaredConstructor().newInstance();
+                if (vector.selfCheck(SELF_CHECK_SAMPLES)) {
+                    return vector;
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 未以--add-modules jdk.incubator.vector编译/运行，使用标量版本
+            }
+            BitslicedKeySearch scalar = new ScalarBitslicedKeySearch();
+            return scalar.selfCheck(SELF_CHECK_SAMPLES) ? scalar : null;
+        }
+    }
+
+    /**
+     * 按真值表对4个输入位切片求值（选择器树，输入位a为最高位）
+     */
+    static long sBox(int table, long a, long b, long c, long d) {
+        return (~a & mux8(table & 0xFF, b, c, d)) | (a & mux8(table >>> 8, b, c, d));
+    }
+
+    private static long mux8(int table, long b, long c, long d) {
+        return (~b & mux4(table & 0xF, c, d)) | (b & mux4(table >>> 4, c, d));
+    }
+
+    private static long mux4(int table, long c, long d) {
+        return (~c & mux2(table & 0b11, d)) | (c & mux2(table >>> 2, d));
+    }
+
+    private static long mux2(int table, long d) {
+        return ((table & 1) != 0 ? ~d : 0L) | ((table & 2) != 0 ? d : 0L);
+    }
+}
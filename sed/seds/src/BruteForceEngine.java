@@ -0,0 +1,253 @@
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * S-DES暴力破解引擎（与界面无关）
+ * <p>
+ * 单个明密文对直接查{@link ReverseCodebookIndex#shared()}反向码本索引，不做试加密；
+ * 多个明密文对优先使用{@link BitslicedKeySearch#best()}（已与参考实现比对）一次位切片搜索全部1024个密钥；
+ * 位切片实现不可用时，1024个候选密钥按固定大小分块提交到共享的工作窃取线程池，每个密钥只做一次密钥扩展，
+ * 依次校验所有明密文对，任一对不匹配立即跳过。搜索结果以{@link Search}返回，
+ * 它是可取消的{@link CompletableFuture}，并可查询进度。
+ */
+public class BruteForceEngine {
+    /** 密钥空间大小 */
+    public static final int KEY_COUNT = 1 << 10;
+    /** 每个任务负责的密钥数量 */
+    static final int KEYS_PER_TASK = 64;
+
+    /** 进程内共享的引擎，线程数与CPU核数一致 */
+    private static final BruteForceEngine SHARED =
+            new BruteForceEngine(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool 执行搜索任务的线程池
+     */
+    public BruteForceEngine(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * 进程内共享的引擎实例
+     */
+    public static BruteForceEngine shared() {
+        return SHARED;
+    }
+
+    /**
+     * 进度监听器
+     */
+    public interface ProgressListener {
+        /**
+         * 每完成一个任务块回调一次（在工作线程中调用）
+         * @param testedKeys 已测试的密钥数
+         * @param totalKeys 密钥总数
+         */
+        void onProgress(int testedKeys, int totalKeys);
+    }
+
+    /**
+     * 异步搜索所有满足全部明密文对的密钥
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @return 可取消的搜索任务，结果为升序排列的10位密钥
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     */
+    public Search search(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        return search(plaintexts, ciphertexts, null);
+    }
+
+    /**
+     * 异步搜索所有满足全部明密文对的密钥
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @param listener 进度监听器，可为null
+     * @return 可取消的搜索任务，结果为升序排列的10位密钥
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     */
+    public Search search(int[] plaintexts, int[] ciphertexts, ProgressListener listener)
+            throws IllegalArgumentException {
+        validatePairs(plaintexts, ciphertexts);
+        if (plaintexts.length == 1) {
+            Search search = new Search(plaintexts.clone(), ciphertexts.clone(), listener);
+            int plaintext = plaintexts[0];
+            int ciphertext = ciphertexts[0];
+            pool.execute(() -> search.runAll(() -> ReverseCodebookIndex.shared().candidates(plaintext, ciphertext),
+                    false));
+            return search;
+        }
+        BitslicedKeySearch bitsliced = BitslicedKeySearch.best();
+        if (bitsliced == null) {
+            return searchChunked(plaintexts, ciphertexts, listener);
+        }
+        Search search = new Search(plaintexts.clone(), ciphertexts.clone(), listener);
+        pool.execute(() -> search.runAll(() -> bitsliced.search(search.plaintexts, search.ciphertexts), true));
+        return search;
+    }
+
+    /**
+     * 逐密钥搜索：不查索引、不用位切片，1024个密钥分块提交到线程池并行试加密
+     * <p>
+     * {@link #search}在位切片实现不可用时走这条路径；单独公开以便与快速路径对比，或测量线程数的影响。
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @param listener 进度监听器，可为null
+     * @return 可取消的搜索任务，结果为升序排列的10位密钥
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     */
+    public Search searchChunked(int[] plaintexts, int[] ciphertexts, ProgressListener listener)
+            throws IllegalArgumentException {
+        validatePairs(plaintexts, ciphertexts);
+        Search search = new Search(plaintexts.clone(), ciphertexts.clone(), listener);
+        for (int start = 0; start < KEY_COUNT; start += KEYS_PER_TASK) {
+            int from = start;
+            pool.execute(() -> search.runChunk(from, from + KEYS_PER_TASK));
+        }
+        return search;
+    }
+
+    /**
+     * 同步搜索（阻塞至完成）
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @return 升序排列的10位密钥
+     */
+    public int[] crack(int[] plaintexts, int[] ciphertexts) {
+        return search(plaintexts, ciphertexts).join();
+    }
+
+    /**
+     * 判断密钥是否满足全部明密文对（不分配对象，任一对不匹配立即返回）
+     */
+    static boolean matchesAll(int key, int[] plaintexts, int[] ciphertexts) {
+        int subkeys = SDesUtil.generateSubkeysPacked(key);
+        int k1 = subkeys >>> 8;
+        int k2 = subkeys & 0xFF;
+        for (int i = 0; i < plaintexts.length; i++) {
+            if (SDesUtil.encryptBlock(plaintexts[i], k1, k2) != ciphertexts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void validatePairs(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        if (plaintexts.length == 0 || plaintexts.length != ciphertexts.length) {
+            throw new IllegalArgumentException("明密文对不能为空，且明文与密文数量必须一致");
+        }
+        for (int i = 0; i < plaintexts.length; i++) {
+            if (((plaintexts[i] | ciphertexts[i]) & ~0xFF) != 0) {
+                throw new IllegalArgumentException("明密文必须为8位");
+            }
+        }
+    }
+
+    /**
+     * 一次搜索任务：结果为升序密钥数组；调用cancel后尚未开始的任务块直接跳过
+     */
+    public static final class Search extends CompletableFuture<int[]> {
+        private final int[] plaintexts;
+        private final int[] ciphertexts;
+        private final ProgressListener listener;
+        /** 命中密钥位图（1024位） */
+        private final AtomicLongArray found = new AtomicLongArray(KEY_COUNT / 64);
+        private final AtomicInteger testedKeys = new AtomicInteger();
+        private final AtomicInteger remainingChunks = new AtomicInteger(KEY_COUNT / KEYS_PER_TASK);
+        private final long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+
+        private Search(int[] plaintexts, int[] ciphertexts, ProgressListener listener) {
+            this.plaintexts = plaintexts;
+            this.ciphertexts = ciphertexts;
+            this.listener = listener;
+        }
+
+        /** 已测试的密钥数 */
+        public int getTestedKeys() {
+            return testedKeys.get();
+        }
+
+        /** 搜索进度（0.0~1.0） */
+        public double getProgress() {
+            return testedKeys.get() / (double) KEY_COUNT;
+        }
+
+        /**
+         * 一次得出全部密钥（查索引或位切片搜索），完成后报告一次进度
+         * @param trialEncrypts 是否真的试加密了全部密钥（位切片为true；查索引为false，只记为一次索引查询）
+         */
+        private void runAll(Supplier<int[]> searchAll, boolean trialEncrypts) {
+            try {
+                if (isDone()) {
+                    return;
+                }
+                int[] keys = searchAll.get();
+                testedKeys.set(KEY_COUNT);
+                if (SDesMetrics.ENABLED) {
+                    if (trialEncrypts) {
+                        SDesMetrics.recordKeysTested(KEY_COUNT);
+                    } else {
+                        SDesMetrics.recordIndexLookup();
+                    }
+                    SDesMetrics.recordSearch(startTime);
+                }
+                if (listener != null) {
+                    listener.onProgress(KEY_COUNT, KEY_COUNT);
+                }
+                complete(keys);
+            } catch (Throwable e) {
+                // 包括监听器或搜索抛出的Error，否则等待结果的线程会永远阻塞
+                completeExceptionally(e);
+            }
+        }
+
+        private void runChunk(int from, int to) {
+            try {
+                if (isDone()) {
+                    return;
+                }
+                for (int key = from; key < to; key++) {
+                    if (matchesAll(key, plaintexts, ciphertexts)) {
+                        found.getAndAccumulate(key >>> 6, 1L << (key & 63), (a, b) -> a | b);
+                    }
+                }
+                int tested = testedKeys.addAndGet(to - from);
+                if (SDesMetrics.ENABLED) {
+                    SDesMetrics.recordKeysTested(to - from);
+                }
+                if (listener != null) {
+                    listener.onProgress(tested, KEY_COUNT);
+                }
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                if (remainingChunks.decrementAndGet() == 0) {
+                    if (SDesMetrics.ENABLED) {
+                        SDesMetrics.recordSearch(startTime);
+                    }
+                    complete(collectKeys());
+                }
+            }
+        }
+
+        private int[] collectKeys() {
+            int count = 0;
+            for (int i = 0; i < found.length(); i++) {
+                count += Long.bitCount(found.get(i));
+            }
+            int[] keys = new int[count];
+            int index = 0;
+            for (int i = 0; i < found.length(); i++) {
+                for (long word = found.get(i); word != 0; word &= word - 1) {
+                    keys[index++] = (i << 6) | Long.numberOfTrailingZeros(word);
+                }
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * S-DES算法变体（置换盒、S-Box与移位规则），编译为专用查找表后使用（不可变，可多个并存）
+ * <p>
+ * 创建时校验各表，并由{@link SDesTables}预先计算：全部1024个密钥的打包子密钥、以字节为下标的IP/IP-1置换表、
+ * 以及把EP扩展、S-Box与SP置换合并在一起的轮函数表 round[(子密钥 &lt;&lt; 4) | 右半4位]。
+ * 之后每个分组只需5次查表，与手工优化的标准实现一样快，不同变体之间互不影响。
+ * <p>
+ * 规格文件为properties格式，未给出的表沿用标准S-DES（{@link SDesUtil}中的表），例如：
+ * <pre>
+ * # 其他小组的变体：只替换S-Box2
+ * S2 = 0 1 2 3 / 2 0 1 3 / 3 0 1 0 / 2 1 0 3
+ * </pre>
+ * 可用的键：P10、P8、IP、IP_INVERSE、EP、S1、S2、SP、SHIFTS（两轮循环左移位数），
+ * 数值之间用空白、逗号或斜杠分隔，置换表均为1-based、最高位为第1位。
+ */
+public final class CipherSpec {
+    /** 标准S-DES（创建时复制SDesUtil中的表） */
+    public static final CipherSpec STANDARD = new CipherSpec("standard", SDesUtil.P10, SDesUtil.P8, SDesUtil.IP,
+            SDesUtil.IP_INVERSE, SDesUtil.EP_BOX, SDesUtil.S_BOX1, SDesUtil.S_BOX2, SDesUtil.SP_BOX, new int[]{1, 1});
+
+    private final String name;
+    private final int[] p10;
+    private final int[] p8;
+    private final int[] ip;
+    private final int[] ipInverse;
+    private final int[] ep;
+    private final int[][] sBox1;
+    private final int[][] sBox2;
+    private final int[] sp;
+    private final int[] shifts;
+
+    /** 打包子密钥：subkeys[key] = (k1 &lt;&lt; 8) | k2 */
+    private final int[] subkeys;
+    /** 初始置换表 */
+    private final byte[] ipTable;
+    /** 最终置换表 */
+    private final byte[] ipInverseTable;
+    /** 合并的轮函数表：round[(subkey8 &lt;&lt; 4) | right4] = F(right4, subkey8) */
+    private final byte[] roundTable;
+
+    private CipherSpec(String name, int[] p10, int[] p8, int[] ip, int[] ipInverse, int[] ep,
+                       int[][] sBox1, int[][] sBox2, int[] sp, int[] shifts) {
+        this.name = name;
+        this.p10 = checkPermutation("P10", p10, 10);
+        this.p8 = checkSelection("P8", p8, 8, 10);
+        this.ip = checkPermutation("IP", ip, 8);
+        this.ipInverse = checkPermutation("IP_INVERSE", ipInverse, 8);
+        this.ep = checkSelection("EP", ep, 8, 4);
+        this.sBox1 = checkSBox("S1", sBox1);
+        this.sBox2 = checkSBox("S2", sBox2);
+        this.sp = checkPermutation("SP", sp, 4);
+        this.shifts = checkShifts(shifts);
+        SDesTables tables = new SDesTables(this.p10, this.p8, this.ip, this.ipInverse, this.ep,
+                this.sBox1, this.sBox2, this.sp, this.shifts);
+        this.subkeys = tables.subkeys;
+        this.ipTable = tables.ip;
+        this.ipInverseTable = tables.ipInverse;
+        this.roundTable = tables.round;
+        for (int block = 0; block < 256; block++) {
+            if ((ipInverseTable[ipTable[block] & 0xFF] & 0xFF) != block) {
+                throw new IllegalArgumentException("IP_INVERSE必须是IP的逆置换");
+            }
+        }
+    }
+
+    /**
+     * 由各表创建变体（参数均会复制）
+     * @param name 变体名称
+     * @param p10 10位密钥置换
+     * @param p8 8位子密钥选择置换
+     * @param ip 初始置换
+     * @param ipInverse 最终置换（必须是ip的逆置换）
+     * @param ep 扩展置换（4位→8位）
+     * @param sBox1 4×4 S-Box1（元素0~3）
+     * @param sBox2 4×4 S-Box2（元素0~3）
+     * @param sp S-Box输出置换
+     * @param shifts 两轮子密钥的循环左移位数（1~4）
+     * @return 编译后的变体
+     * @throws IllegalArgumentException 任一表不合法时抛出
+     */
+    public static CipherSpec of(String name, int[] p10, int[] p8, int[] ip, int[] ipInverse, int[] ep,
+                                int[][] sBox1, int[][] sBox2, int[] sp, int[] shifts) throws IllegalArgumentException {
+        return new CipherSpec(name, p10, p8, ip, ipInverse, ep, sBox1, sBox2, sp, shifts);
+    }
+
+    /**
+     * 从properties格式的规格文件加载变体，名称为文件名
+     * @param file 规格文件（UTF-8）
+     * @return 编译后的变体
+     * @throws IOException 读取失败时抛出
+     * @throws IllegalArgumentException 键未知或表不合法时抛出
+     */
+    public static CipherSpec load(Path file) throws IOException, IllegalArgumentException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(String.valueOf(file.getFileName()), properties);
+    }
+
+    /**
+     * 由properties创建变体，未给出的表沿用标准S-DES
+     * @param name 变体名称
+     * @param properties 规格
+     * @return 编译后的变体
+     * @throws IllegalArgumentException 键未知或表不合法时抛出
+     */
+    public static CipherSpec fromProperties(String name, Properties properties) throws IllegalArgumentException {
+        for (String key : properties.stringPropertyNames()) {
+            if (!Arrays.asList("P10", "P8", "IP", "IP_INVERSE", "EP", "S1", "S2", "SP", "SHIFTS").contains(key)) {
+                throw new IllegalArgumentException("未知的规格项: " + key);
+            }
+        }
+        CipherSpec base = STANDARD;
+        return new CipherSpec(name,
+                numbers(properties, "P10", base.p10),
+                numbers(properties, "P8", base.p8),
+                numbers(properties, "IP", base.ip),
+                numbers(properties, "IP_INVERSE", base.ipInverse),
+                numbers(properties, "EP", base.ep),
+                sBox(properties, "S1", base.sBox1),
+                sBox(properties, "S2", base.sBox2),
+                numbers(properties, "SP", base.sp),
+                numbers(properties, "SHIFTS", base.shifts));
+    }
+
+    private static int[] numbers(Properties properties, String key, int[] fallback) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        String[] parts = value.trim().split("[\\s,/]+");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                result[i] = Integer.parseInt(parts[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(key + "含有非数字: " + parts[i]);
+            }
+        }
+        return result;
+    }
+
+    private static int[][] sBox(Properties properties, String key, int[][] fallback) {
+        if (properties.getProperty(key) == null) {
+            return fallback;
+        }
+        int[] flat = numbers(properties, key, null);
+        if (flat.length != 16) {
+            throw new IllegalArgumentException(key + "必须为4×4共16个数");
+        }
+        int[][] box = new int[4][];
+        for (int row = 0; row < 4; row++) {
+            box[row] = Arrays.copyOfRange(flat, row * 4, row * 4 + 4);
+        }
+        return box;
+    }
+
+    // -------------------------- 校验 --------------------------
+    /** 1~width的置换，每个位置恰好出现一次 */
+    private static int[] checkPermutation(String label, int[] table, int width) {
+        int[] copy = checkSelection(label, table, width, width);
+        boolean[] seen = new boolean[width + 1];
+        for (int position : copy) {
+            if (seen[position]) {
+                throw new IllegalArgumentException(label + "必须是1~" + width + "的置换，位置" + position + "重复");
+            }
+            seen[position] = true;
+        }
+        return copy;
+    }
+
+    /** 长度为length、元素在1~inputWidth之间的选择表（允许重复，如EP） */
+    private static int[] checkSelection(String label, int[] table, int length, int inputWidth) {
+        if (table == null || table.length != length) {
+            throw new IllegalArgumentException(label + "长度必须为" + length);
+        }
+        for (int position : table) {
+            if (position < 1 || position > inputWidth) {
+                throw new IllegalArgumentException(label + "的元素必须在1~" + inputWidth + "之间: " + position);
+            }
+        }
+        return table.clone();
+    }
+
+    private static int[][] checkSBox(String label, int[][] box) {
+        if (box == null || box.length != 4) {
+            throw new IllegalArgumentException(label + "必须为4×4");
+        }
+        int[][] copy = new int[4][];
+        for (int row = 0; row < 4; row++) {
+            if (box[row] == null || box[row].length != 4) {
+                throw new IllegalArgumentException(label + "必须为4×4");
+            }
+            for (int value : box[row]) {
+                if (value < 0 || value > 3) {
+                    throw new IllegalArgumentException(label + "的元素必须在0~3之间: " + value);
+                }
+            }
+            copy[row] = box[row].clone();
+        }
+        return copy;
+    }
+
+    private static int[] checkShifts(int[] shifts) {
+        if (shifts == null || shifts.length != 2) {
+            throw new IllegalArgumentException("SHIFTS必须为两个数");
+        }
+        for (int shift : shifts) {
+            if (shift < 1 || shift > 4) {
+                throw new IllegalArgumentException("SHIFTS的元素必须在1~4之间: " + shift);
+            }
+        }
+        return shifts.clone();
+    }
+
+    // -------------------------- 加解密 --------------------------
+    /** 变体名称 */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 打包子密钥
+     * @param key 10位密钥（低10位有效）
+     * @return 高8位为k1，低8位为k2
+     */
+    public int subkeys(int key) {
+        return subkeys[key & 0x3FF];
+    }
+
+    /**
+     * 使用已展开的子密钥加密一个分组
+     * @param block 8位明文
+     * @param k1 子密钥k1
+     * @param k2 子密钥k2
+     * @return 8位密文
+     */
+    public int encryptBlock(int block, int k1, int k2) {
+        return feistel(block & 0xFF, k1 & 0xFF, k2 & 0xFF);
+    }
+
+    /**
+     * 使用已展开的子密钥解密一个分组
+     * @param block 8位密文
+     * @param k1 子密钥k1
+     * @param k2 子密钥k2
+     * @return 8位明文
+     */
+    public int decryptBlock(int block, int k1, int k2) {
+        return feistel(block & 0xFF, k2 & 0xFF, k1 & 0xFF);
+    }
+
+    /**
+     * 加密一个分组
+     * @param block 8位明文（低8位有效）
+     * @param key 10位密钥（低10位有效）
+     * @return 8位密文
+     */
+    public int encrypt(int block, int key) {
+        int packed = subkeys[key & 0x3FF];
+        return feistel(block & 0xFF, packed >>> 8, packed & 0xFF);
+    }
+
+    /**
+     * 解密一个分组
+     * @param block 8位密文（低8位有效）
+     * @param key 10位密钥（低10位有效）
+     * @return 8位明文
+     */
+    public int decrypt(int block, int key) {
+        int packed = subkeys[key & 0x3FF];
+        return feistel(block & 0xFF, packed & 0xFF, packed >>> 8);
+    }
+
+    /**
+     * IP → f(first) → SW → f(second) → IP-1，全部为查表
+     */
+    private int feistel(int block, int first, int second) {
+        int ipResult = ipTable[block] & 0xFF;
+        int left = ipResult >>> 4;
+        int right = ipResult & 0xF;
+        int swRight = left ^ roundTable[(first << 4) | right];
+        int newLeft = right ^ roundTable[(second << 4) | swRight];
+        return ipInverseTable[(newLeft << 4) | swRight] & 0xFF;
+    }
+
+    @Override
+    public String toString() {
+        return "CipherSpec[" + name + "]";
+    }
+}
@@ -0,0 +1,463 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 唯密文破解：只有ECB密文（如GUI文本加密的结果）时，按语言模型给1024个密钥的解密结果打分
+ * <p>
+ * 打分表为预先计算的字节二元组（前一字节, 当前字节）对数概率，定点化为整数，解密与打分都只做查表。
+ * 搜索分多轮进行：第一轮所有密钥只解密密文开头的一小段，每轮保留得分靠前的候选并把样本放大
+ * {@value #SAMPLE_GROWTH}倍，直到样本达到上限，因此几MB的密文也只需看前面很短的一段。
+ * 每轮内各密钥并行打分；某个密钥当前得分加上剩余字节的最高可能得分仍低于已知第N名时立即放弃。
+ * <p>
+ * 仅适用于标准S-DES的ECB密文（CBC/OFB/CTR的密文需另外知道IV）。
+ */
+public final class CiphertextOnlyCracker {
+    /** 密钥空间大小 */
+    public static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+    /** 默认返回的候选密钥数 */
+    public static final int DEFAULT_TOP_N = 5;
+    /** 默认最多参与打分的密文字节数 */
+    public static final int DEFAULT_MAX_SAMPLE_BYTES = 64 * 1024;
+    /** 第一轮的样本字节数 */
+    static final int INITIAL_SAMPLE_BYTES = 64;
+    /** 每轮样本放大的倍数 */
+    static final int SAMPLE_GROWTH = 4;
+    /** 中间轮次保留的候选为上一轮的1/8（不少于N个） */
+    static final int SURVIVOR_DIVISOR = 8;
+    /** 每个任务负责的密钥数量 */
+    static final int KEYS_PER_TASK = 64;
+    /** 打分时每隔多少字节检查一次能否提前放弃 */
+    private static final int ABANDON_CHECK_INTERVAL = 16;
+    /** 对数概率的定点放大倍数 */
+    private static final double SCALE = 16.0;
+
+    private final ForkJoinPool pool;
+    private final Language language;
+    private final int maxSampleBytes;
+
+    /**
+     * 使用公共线程池与默认样本上限
+     * @param language 明文的语言模型
+     */
+    public CiphertextOnlyCracker(Language language) {
+        this(language, ForkJoinPool.commonPool(), DEFAULT_MAX_SAMPLE_BYTES);
+    }
+
+    /**
+     * @param language 明文的语言模型
+     * @param pool 执行打分任务的线程池
+     * @param maxSampleBytes 最多参与打分的密文字节数
+     * @throws IllegalArgumentException 样本上限不为正数时抛出
+     */
+    public CiphertextOnlyCracker(Language language, ForkJoinPool pool, int maxSampleBytes)
+            throws IllegalArgumentException {
+        if (maxSampleBytes <= 0) {
+            throw new IllegalArgumentException("样本上限必须为正数");
+        }
+        this.language = Objects.requireNonNull(language, "language");
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.maxSampleBytes = maxSampleBytes;
+    }
+
+    /**
+     * 明文语言模型：字节二元组打分表
+     */
+    public enum Language {
+        /** 只看可打印ASCII比例，适用于未知语言 */
+        PRINTABLE("可打印字符", null),
+        /** 英文字母与二元组统计 */
+        ENGLISH("英文", "the quick brown fox jumps over the lazy dog. it was the best of times, it was the worst "
+                + "of times, it was the age of wisdom, it was the age of foolishness. in the beginning of the "
+                + "course we learned how a block cipher works: the key is expanded into two subkeys, and each "
+                + "block of plaintext passes through an initial permutation, two rounds of a feistel network "
+                + "and a final permutation. there is nothing more difficult to take in hand, more perilous to "
+                + "conduct, or more uncertain in its success, than to take the lead in the introduction of a "
+                + "new order of things. when you have eliminated the impossible, whatever remains, however "
+                + "improbable, must be the truth. please send the report to the office before the meeting on "
+                + "monday, and let me know if you have any questions about the results of this experiment."),
+        /** 无声调汉语拼音统计（音节之间以空格分隔） */
+        PINYIN("拼音", "wo men de xue xiao zai chong qing, xue sheng men mei tian dou hen nu li de xue xi. "
+                + "jin tian tian qi hen hao, wo he peng you yi qi qu gong yuan san bu, kan dao le hen duo hua. "
+                + "zhe ge suan fa shi yi zhong fen zu mi ma, mi yao chang du shi shi wei, ming wen he mi wen "
+                + "dou shi ba wei. ru guo ni you shen me wen ti, qing ji shi gen wo lian xi. zhong guo you "
+                + "chang jiang he huang he, ren min sheng huo yue lai yue hao. xian zai wo men kai shi shang "
+                + "ke, qing da jia ba shu da kai, kan di yi zhang de nei rong, ran hou hui da xia mian de wen "
+                + "ti. shi jian guo de zhen kuai, yi nian you yao jie shu le, xi wang da jia xin nian kuai le.");
+
+        private final String label;
+        /** 打分表：TABLE[(prev << 8) | cur] */
+        private final int[] table;
+        /** 表中的最高分，用于估算剩余字节的得分上界 */
+        private final int maxByteScore;
+
+        Language(String label, String corpus) {
+            this.label = label;
+            this.table = corpus == null ? printableTable() : bigramTable(corpus);
+            int max = Integer.MIN_VALUE;
+            for (int score : table) {
+                max = Math.max(max, score);
+            }
+            this.maxByteScore = max;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+
+        /**
+         * 按名称解析（不区分大小写）
+         * @throws IllegalArgumentException 名称不是printable、english或pinyin时抛出
+         */
+        public static Language parse(String name) throws IllegalArgumentException {
+            try {
+                return valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("语言必须为printable、english或pinyin: " + name);
+            }
+        }
+    }
+
+    /**
+     * 一个候选密钥及其得分
+     */
+    public static final class Candidate {
+        private final int key;
+        private final long score;
+        private final int sampleBytes;
+
+        Candidate(int key, long score, int sampleBytes) {
+            this.key = key;
+            this.score = score;
+            this.sampleBytes = sampleBytes;
+        }
+
+        /** 10位密钥 */
+        public int getKey() {
+            return key;
+        }
+
+        /** 平均每字节的对数概率（越接近0越像自然语言） */
+        public double getScore() {
+            return score / SCALE / sampleBytes;
+        }
+
+        /** 最后一轮打分使用的密文字节数 */
+        public int getSampleBytes() {
+            return sampleBytes;
+        }
+
+        @Override
+        public String toString() {
+            return SDesUtil.toBinaryString(key, 10) + String.format(" (%.3f)", getScore());
+        }
+    }
+
+    /**
+     * 破解整段密文
+     * @see #crack(byte[], int, int, int)
+     */
+    public List<Candidate> crack(byte[] ciphertext, int topN) throws InterruptedException {
+        return crack(ciphertext, 0, ciphertext.length, topN);
+    }
+
+    /**
+     * 按语言模型找出最可能的N个密钥
+     * @param ciphertext 密文数组
+     * @param off 密文起始下标
+     * @param len 密文字节数
+     * @param topN 返回的候选数（1~1024）
+     * @return 按得分从高到低排列的候选密钥
+     * @throws IllegalArgumentException 密文为空或N超出范围时抛出
+     * @throws InterruptedException 等待打分任务时被中断（未完成的任务会被取消）
+     */
+    public List<Candidate> crack(byte[] ciphertext, int off, int len, int topN)
+            throws IllegalArgumentException, InterruptedException {
+        Objects.checkFromIndexSize(off, len, ciphertext.length);
+        if (len == 0) {
+            throw new IllegalArgumentException("密文不能为空");
+        }
+        if (topN < 1 || topN > KEY_COUNT) {
+            throw new IllegalArgumentException("候选数必须在1~" + KEY_COUNT + "之间");
+        }
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+
+        int[] candidates = new int[KEY_COUNT];
+        Arrays.setAll(candidates, key -> key);
+        int limit = Math.min(len, maxSampleBytes);
+        int sample = Math.min(limit, INITIAL_SAMPLE_BYTES);
+        while (true) {
+            boolean last = sample == limit;
+            int keep = last ? topN : Math.min(candidates.length, Math.max(topN, candidates.length / SURVIVOR_DIVISOR));
+            long[] ranked = new Round(ciphertext, off, sample, keep).run(candidates);
+            if (last) {
+                if (SDesMetrics.ENABLED) {
+                    SDesMetrics.recordSearch(startTime);
+                }
+                List<Candidate> result = new ArrayList<>(ranked.length);
+                for (long packed : ranked) {
+                    result.add(new Candidate(unpackKey(packed), unpackScore(packed), sample));
+                }
+                return Collections.unmodifiableList(result);
+            }
+            candidates = new int[ranked.length];
+            for (int i = 0; i < ranked.length; i++) {
+                candidates[i] = unpackKey(ranked[i]);
+            }
+            sample = (int) Math.min(limit, (long) sample * SAMPLE_GROWTH);
+        }
+    }
+
+    /**
+     * 用指定密钥解密密文开头的一段并按UTF-8显示（用于展示候选明文）
+     * @param ciphertext 密文数组
+     * @param key 10位密钥
+     * @param maxBytes 最多解密的字节数
+     */
+    public static String preview(byte[] ciphertext, int key, int maxBytes) {
+        byte[] plain = Arrays.copyOf(ciphertext, Math.min(ciphertext.length, maxBytes));
+        SDesKey.of(key).decrypt(plain, 0, plain.length, plain, 0);
+        return TextCodec.decodeUtf8(plain, 0, plain.length);
+    }
+
+    // -------------------------- 单轮打分 --------------------------
+    /**
+     * 一轮打分：候选密钥分块并行，共享一个容量为keep的最小堆；堆满后堆顶即为放弃阈值
+     */
+    private final class Round {
+        private final byte[] ciphertext;
+        private final int off;
+        private final int sample;
+        /** 最小堆，元素为打包后的 (得分, 密钥) */
+        private final long[] heap;
+        private int size;
+        /** 进入前keep名所需的最低得分（堆满之前为最小值） */
+        private volatile long floor = Long.MIN_VALUE;
+
+        Round(byte[] ciphertext, int off, int sample, int keep) {
+            this.ciphertext = ciphertext;
+            this.off = off;
+            this.sample = sample;
+            this.heap = new long[keep];
+        }
+
+        /**
+         * 为全部候选打分
+         * @return 前keep名，按得分从高到低（同分时密钥小者在前）
+         */
+        long[] run(int[] candidates) throws InterruptedException {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int start = 0; start < candidates.length; start += KEYS_PER_TASK) {
+                int from = start;
+                int to = Math.min(candidates.length, start + KEYS_PER_TASK);
+                tasks.add(pool.submit(() -> scoreRange(candidates, from, to)));
+            }
+            try {
+                for (ForkJoinTask<?> task : tasks) {
+                    task.get();
+                }
+            } catch (InterruptedException e) {
+                for (ForkJoinTask<?> task : tasks) {
+                    task.cancel(true);
+                }
+                throw e;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+            }
+            long[] ranked = Arrays.copyOf(heap, size);
+            Arrays.sort(ranked);
+            for (int i = 0, j = ranked.length - 1; i < j; i++, j--) {
+                long tmp = ranked[i];
+                ranked[i] = ranked[j];
+                ranked[j] = tmp;
+            }
+            return ranked;
+        }
+
+        private void scoreRange(int[] candidates, int from, int to) {
+            byte[] decrypt = SDesCodebook.decryptTable();
+            int[] table = language.table;
+            int maxByteScore = language.maxByteScore;
+            for (int i = from; i < to; i++) {
+                int key = candidates[i];
+                int row = SDesCodebook.rowOffset(key);
+                long score = 0;
+                int prev = ' ';
+                boolean abandoned = false;
+                for (int pos = 0; pos < sample; pos++) {
+                    int plain = decrypt[row | (ciphertext[off + pos] & 0xFF)] & 0xFF;
+                    score += table[(prev << 8) | plain];
+                    prev = plain;
+                    if ((pos & (ABANDON_CHECK_INTERVAL - 1)) == ABANDON_CHECK_INTERVAL - 1
+                            && score + (long) (sample - pos - 1) * maxByteScore < floor) {
+                        abandoned = true;
+                        break;
+                    }
+                }
+                if (!abandoned) {
+                    offer(pack(score, key));
+                }
+            }
+            if (SDesMetrics.ENABLED) {
+                SDesMetrics.recordKeysTested(to - from);
+            }
+        }
+
+        private synchronized void offer(long packed) {
+            if (size < heap.length) {
+                heap[size] = packed;
+                siftUp(size++);
+            } else if (packed > heap[0]) {
+                heap[0] = packed;
+                siftDown(0);
+            } else {
+                return;
+            }
+            if (size == heap.length) {
+                floor = unpackScore(heap[0]);
+            }
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                if (left < size && heap[left] < heap[smallest]) {
+                    smallest = left;
+                }
+                if (left + 1 < size && heap[left + 1] < heap[smallest]) {
+                    smallest = left + 1;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+
+    /**
+     * 得分放在高位、(1023 - 密钥)放在低10位：数值越大排名越靠前，同分时密钥小者在前
+     */
+    private static long pack(long score, int key) {
+        return (score << 10) | (KEY_COUNT - 1 - key);
+    }
+
+    private static int unpackKey(long packed) {
+        return KEY_COUNT - 1 - (int) (packed & (KEY_COUNT - 1));
+    }
+
+    private static long unpackScore(long packed) {
+        return packed >> 10;
+    }
+
+    // -------------------------- 打分表构建 --------------------------
+    /** 控制字符（换行、回车、制表符除外）的得分：几乎不可能出现在文本中 */
+    private static final int CONTROL_SCORE = (int) Math.round(SCALE * Math.log(1e-7));
+    /** 0x80及以上字节的得分：可能是UTF-8多字节字符，但在英文/拼音文本中少见 */
+    private static final int HIGH_BYTE_SCORE = (int) Math.round(SCALE * Math.log(1e-3));
+    /** 大写字母相对小写的扣分 */
+    private static final int UPPERCASE_PENALTY = (int) Math.round(SCALE * Math.log(4));
+    /** 二元组概率与一元概率的插值权重 */
+    private static final double BIGRAM_WEIGHT = 0.7;
+
+    /**
+     * 只区分可打印与否的打分表
+     */
+    private static int[] printableTable() {
+        int[] table = new int[1 << 16];
+        for (int prev = 0; prev < 256; prev++) {
+            for (int cur = 0; cur < 256; cur++) {
+                table[(prev << 8) | cur] = isText(cur) ? 0 : cur >= 0x80 ? HIGH_BYTE_SCORE : CONTROL_SCORE;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 由样本语料统计二元组，与一元概率插值并加一平滑后取对数
+     */
+    private static int[] bigramTable(String corpus) {
+        byte[] text = corpus.getBytes(StandardCharsets.US_ASCII);
+        int[] unigram = new int[128];
+        int[][] bigram = new int[128][128];
+        int prev = ' ';
+        for (byte b : text) {
+            unigram[b]++;
+            bigram[prev][b]++;
+            prev = b;
+        }
+        // 语料未出现的可打印字符计0.5次
+        double[] unigramProb = new double[128];
+        double total = 0;
+        for (int c = ' '; c < 0x7F; c++) {
+            total += unigram[c] + 0.5;
+        }
+        for (int c = ' '; c < 0x7F; c++) {
+            unigramProb[c] = (unigram[c] + 0.5) / total;
+        }
+
+        int[] table = new int[1 << 16];
+        for (int p = 0; p < 256; p++) {
+            int foldedPrev = fold(p);
+            for (int c = 0; c < 256; c++) {
+                int score;
+                if (!isText(c)) {
+                    score = c >= 0x80 ? HIGH_BYTE_SCORE : CONTROL_SCORE;
+                } else {
+                    int folded = fold(c);
+                    double prob = unigramProb[folded];
+                    if (foldedPrev < 128 && unigram[foldedPrev] > 0) {
+                        prob = BIGRAM_WEIGHT * bigram[foldedPrev][folded] / unigram[foldedPrev]
+                                + (1 - BIGRAM_WEIGHT) * prob;
+                    }
+                    score = (int) Math.round(SCALE * Math.log(prob));
+                    if (c >= 'A' && c <= 'Z') {
+                        score -= UPPERCASE_PENALTY;
+                    }
+                }
+                table[(p << 8) | c] = score;
+            }
+        }
+        return table;
+    }
+
+    /** 可打印ASCII或常见空白 */
+    private static boolean isText(int c) {
+        return (c >= ' ' && c < 0x7F) || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /** 大写转小写、空白统一为空格，其余不变 */
+    private static int fold(int c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c + ('a' - 'A');
+        }
+        return c == '\n' || c == '\r' || c == '\t' ? ' ' : c;
+    }
+}
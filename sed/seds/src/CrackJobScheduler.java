@@ -0,0 +1,535 @@
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 多租户的破解/分析任务调度器
+ * <p>
+ * 所有任务由固定数量的工作线程执行，排队总量与每个租户的排队量都有上限，超出时
+ * {@code submit*}直接抛出{@link RejectedExecutionException}，由调用方决定重试或向客户端报忙。
+ * 取任务时先按优先级从高到低，同一优先级内各租户轮流取一个，某个租户提交再多也只占自己的份额。
+ * 明密文对集合相同的破解任务（与顺序、重复无关）在排队或运行期间只执行一次，每个提交者得到各自的结果副本；
+ * 合并进来的提交优先级更高时，尚未开始的任务移到更高优先级的队列。
+ * <p>
+ * 每次提交返回一个{@link Job}，可查询状态或取消；同一任务的全部提交者都取消后，尚未开始的任务出队。
+ * 运行中的任务不会被打断（破解只需十几次位图运算），结果直接丢弃。
+ */
+public final class CrackJobScheduler implements Closeable {
+    /** 默认排队总量上限 */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    /** 默认每个租户的排队上限 */
+    public static final int DEFAULT_TENANT_QUEUE_LIMIT = 256;
+    /** 相同分析任务的去重键 */
+    private static final Object ANALYSIS_KEY = new Object();
+    private static final int KEY_WORDS = SDesCodebook.KEY_COUNT / 64;
+
+    /**
+     * 任务优先级（数值越小越优先，高优先级有任务排队时低优先级不会被调度）
+     */
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        QUEUED("排队中"),
+        RUNNING("运行中"),
+        DONE("已完成"),
+        FAILED("失败"),
+        CANCELLED("已取消");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final int queueCapacity;
+    private final int tenantQueueLimit;
+    private final Thread[] workers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /** 各优先级中有排队任务的租户（轮转顺序） */
+    private final List<ArrayDeque<Tenant>> ready = new ArrayList<>();
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    /** 去重键 -> 排队或运行中的任务 */
+    private final Map<Object, Task<?>> inFlight = new HashMap<>();
+    private int queued;
+    private int runningCount;
+    private boolean closed;
+
+    /** 未结束的提交，供按编号查询与取消 */
+    private final Map<Long, Job<?>> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong nextJobId = new AtomicLong(1);
+
+    /**
+     * 创建调度器并启动工作线程（守护线程）
+     * @param workerCount 工作线程数
+     * @param queueCapacity 排队总量上限
+     * @param tenantQueueLimit 每个租户的排队上限
+     * @throws IllegalArgumentException 参数不为正数时抛出
+     */
+    public CrackJobScheduler(int workerCount, int queueCapacity, int tenantQueueLimit)
+            throws IllegalArgumentException {
+        if (workerCount <= 0 || queueCapacity <= 0 || tenantQueueLimit <= 0) {
+            throw new IllegalArgumentException("工作线程数与队列上限必须为正数");
+        }
+        this.queueCapacity = queueCapacity;
+        this.tenantQueueLimit = tenantQueueLimit;
+        for (int i = 0; i < Priority.values().length; i++) {
+            ready.add(new ArrayDeque<>());
+        }
+        workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(this::workLoop, "sdes-job-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * 进程内共享的调度器，工作线程数与CPU核数一致（首次调用时创建）
+     */
+    public static CrackJobScheduler shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final CrackJobScheduler INSTANCE = new CrackJobScheduler(
+                Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_TENANT_QUEUE_LIMIT);
+    }
+
+    // -------------------------- 提交与查询 --------------------------
+    /**
+     * 提交已知明密文对破解任务
+     * @param tenant 租户（如客户端地址）
+     * @param priority 优先级
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @return 任务句柄，结果为升序排列的10位密钥
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     * @throws RejectedExecutionException 队列已满或调度器已关闭时抛出
+     */
+    public Job<int[]> submitCrack(String tenant, Priority priority, int[] plaintexts, int[] ciphertexts)
+            throws IllegalArgumentException, RejectedExecutionException {
+        BruteForceEngine.validatePairs(plaintexts, ciphertexts);
+        PairSet pairs = new PairSet(plaintexts, ciphertexts);
+        return submit(tenant, priority, pairs, pairs::crack, int[]::clone);
+    }
+
+    /**
+     * 提交全密钥空间等价/碰撞分析任务
+     * @throws RejectedExecutionException 队列已满或调度器已关闭时抛出
+     */
+    public Job<KeyEquivalenceAnalyzer.Report> submitAnalysis(String tenant, Priority priority)
+            throws RejectedExecutionException {
+        // 报告不可变（访问方法均返回副本），各提交者共享同一实例
+        return submit(tenant, priority, ANALYSIS_KEY, KeyEquivalenceAnalyzer::analyze, UnaryOperator.identity());
+    }
+
+    /**
+     * 按编号查询未结束的任务
+     * @return 任务句柄，已结束或不存在时为null
+     */
+    public Job<?> getJob(long id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 按编号取消任务
+     * @return 是否取消成功（已结束或不存在时为false）
+     */
+    public boolean cancel(long id) {
+        Job<?> job = jobs.get(id);
+        return job != null && job.cancel(false);
+    }
+
+    /** 排队中的任务数（去重合并的提交只计一次） */
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 运行中的任务数 */
+    public int getRunningCount() {
+        lock.lock();
+        try {
+            return runningCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止接收新任务，取消全部排队任务，工作线程在当前任务结束后退出
+     */
+    @Override
+    public void close() {
+        List<Task<?>> dropped = new ArrayList<>();
+        List<Job<?>> orphaned = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Tenant tenant : tenants.values()) {
+                for (ArrayDeque<Task<?>> queue : tenant.queues) {
+                    dropped.addAll(queue);
+                    queue.clear();
+                }
+            }
+            for (Task<?> task : dropped) {
+                inFlight.remove(task.key, task);
+                orphaned.addAll(task.jobs);
+            }
+            tenants.clear();
+            ready.forEach(ArrayDeque::clear);
+            queued = 0;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Job<?> job : orphaned) {
+            job.cancel(false);
+        }
+    }
+
+    /**
+     * @param copier 为第二个及之后的提交者复制结果，避免一个提交者修改结果影响其他提交者
+     */
+    private <T> Job<T> submit(String tenantName, Priority priority, Object key, Callable<T> work,
+                              UnaryOperator<T> copier) throws RejectedExecutionException {
+        Objects.requireNonNull(tenantName, "tenant");
+        Objects.requireNonNull(priority, "priority");
+        lock.lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("调度器已关闭");
+            }
+            @SuppressWarnings("unchecked")
+            Task<T> task = (Task<T>) inFlight.get(key);
+            if (task == null) {
+                Tenant tenant = tenants.get(tenantName);
+                if (queued >= queueCapacity) {
+                    throw new RejectedExecutionException("任务队列已满（" + queueCapacity + "），请稍后重试");
+                }
+                if (tenant != null && tenant.queued >= tenantQueueLimit) {
+                    throw new RejectedExecutionException("租户 " + tenantName + " 排队任务过多（" + tenantQueueLimit + "）");
+                }
+                if (tenant == null) {
+                    tenant = new Tenant(tenantName);
+                    tenants.put(tenantName, tenant);
+                }
+                task = new Task<>(key, work, copier, tenant, priority);
+                ArrayDeque<Task<?>> queue = tenant.queues.get(priority.ordinal());
+                if (queue.isEmpty()) {
+                    ready.get(priority.ordinal()).add(tenant);
+                }
+                queue.add(task);
+                tenant.queued++;
+                queued++;
+                inFlight.put(key, task);
+                available.signal();
+            } else if (!task.started && priority.ordinal() < task.priority.ordinal()) {
+                promote(task, priority);
+            }
+            Job<T> job = new Job<>(nextJobId.getAndIncrement(), tenantName, task);
+            task.jobs.add(job);
+            jobs.put(job.id, job);
+            job.whenComplete((result, error) -> jobs.remove(job.id));
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // -------------------------- 工作线程 --------------------------
+    private void workLoop() {
+        while (true) {
+            Task<?> task;
+            lock.lock();
+            try {
+                while (!closed && queued == 0) {
+                    available.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                task = take();
+                task.started = true;
+                runningCount++;
+            } finally {
+                lock.unlock();
+            }
+            task.run();
+        }
+    }
+
+    /**
+     * 按优先级取下一个任务，同一优先级内租户轮转（调用方持有锁，且queued &gt; 0）
+     */
+    private Task<?> take() {
+        for (int p = 0; p < ready.size(); p++) {
+            Tenant tenant = ready.get(p).poll();
+            if (tenant != null) {
+                ArrayDeque<Task<?>> queue = tenant.queues.get(p);
+                Task<?> task = queue.poll();
+                if (!queue.isEmpty()) {
+                    ready.get(p).add(tenant);
+                }
+                dequeued(tenant);
+                return task;
+            }
+        }
+        throw new IllegalStateException("排队计数与队列不一致");
+    }
+
+    private void dequeued(Tenant tenant) {
+        queued--;
+        if (--tenant.queued == 0) {
+            tenants.remove(tenant.name);
+        }
+    }
+
+    /**
+     * 把尚未开始的任务移到更高优先级队列的末尾，租户不变（调用方持有锁）
+     */
+    private void promote(Task<?> task, Priority priority) {
+        int from = task.priority.ordinal();
+        int to = priority.ordinal();
+        ArrayDeque<Task<?>> oldQueue = task.tenant.queues.get(from);
+        oldQueue.remove(task);
+        if (oldQueue.isEmpty()) {
+            ready.get(from).remove(task.tenant);
+        }
+        ArrayDeque<Task<?>> newQueue = task.tenant.queues.get(to);
+        if (newQueue.isEmpty()) {
+            ready.get(to).add(task.tenant);
+        }
+        newQueue.add(task);
+        task.priority = priority;
+    }
+
+    /**
+     * 某个提交被取消：任务的全部提交者都已取消且尚未开始时将其出队
+     */
+    private void detach(Task<?> task, Job<?> job) {
+        lock.lock();
+        try {
+            task.jobs.remove(job);
+            if (!task.jobs.isEmpty() || task.started || !inFlight.remove(task.key, task)) {
+                return;
+            }
+            int p = task.priority.ordinal();
+            ArrayDeque<Task<?>> queue = task.tenant.queues.get(p);
+            if (queue.remove(task)) {
+                if (queue.isEmpty()) {
+                    ready.get(p).remove(task.tenant);
+                }
+                dequeued(task.tenant);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 一个待执行的计算，可能对应多个提交
+     */
+    private final class Task<T> {
+        final Object key;
+        final Callable<T> work;
+        final UnaryOperator<T> copier;
+        final Tenant tenant;
+        /** 当前所在队列的优先级（只在持有锁时修改，合并更高优先级的提交时提升） */
+        volatile Priority priority;
+        /** 提交者（只在持有锁时修改） */
+        final List<Job<T>> jobs = new ArrayList<>(1);
+        volatile boolean started;
+
+        Task(Object key, Callable<T> work, UnaryOperator<T> copier, Tenant tenant, Priority priority) {
+            this.key = key;
+            this.work = work;
+            this.copier = copier;
+            this.tenant = tenant;
+            this.priority = priority;
+        }
+
+        void run() {
+            T result = null;
+            Throwable error = null;
+            try {
+                result = work.call();
+            } catch (Exception | Error e) {
+                error = e;
+            }
+            List<Job<T>> subscribers;
+            lock.lock();
+            try {
+                inFlight.remove(key, this);
+                runningCount--;
+                subscribers = new ArrayList<>(jobs);
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < subscribers.size(); i++) {
+                Job<T> job = subscribers.get(i);
+                if (error == null) {
+                    job.complete(i == 0 ? result : copier.apply(result));
+                } else {
+                    job.completeExceptionally(error);
+                }
+            }
+        }
+    }
+
+    private static final class Tenant {
+        final String name;
+        /** 各优先级的FIFO队列 */
+        final List<ArrayDeque<Task<?>>> queues = new ArrayList<>();
+        int queued;
+
+        Tenant(String name) {
+            this.name = name;
+            for (int i = 0; i < Priority.values().length; i++) {
+                queues.add(new ArrayDeque<>());
+            }
+        }
+    }
+
+    /**
+     * 一次提交：可取消的{@link CompletableFuture}，并可查询状态
+     */
+    public final class Job<T> extends CompletableFuture<T> {
+        private final long id;
+        private final String tenant;
+        private final Task<T> task;
+
+        private Job(long id, String tenant, Task<T> task) {
+            this.id = id;
+            this.tenant = tenant;
+            this.task = task;
+        }
+
+        /** 任务编号（用于{@link CrackJobScheduler#getJob(long)}与{@link CrackJobScheduler#cancel(long)}） */
+        public long getId() {
+            return id;
+        }
+
+        /** 提交者所属租户 */
+        public String getTenant() {
+            return tenant;
+        }
+
+        /** 优先级（去重合并时为各提交者中最高的优先级） */
+        public Priority getPriority() {
+            return task.priority;
+        }
+
+        /** 当前状态 */
+        public Status getStatus() {
+            if (isCancelled()) {
+                return Status.CANCELLED;
+            }
+            if (isCompletedExceptionally()) {
+                return Status.FAILED;
+            }
+            if (isDone()) {
+                return Status.DONE;
+            }
+            return task.started ? Status.RUNNING : Status.QUEUED;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                detach(task, this);
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * 规范化的明密文对集合（排序去重），作为破解任务的去重键
+     */
+    private static final class PairSet {
+        /** 每个元素为 (明文 &lt;&lt; 8) | 密文 */
+        private final int[] cells;
+
+        PairSet(int[] plaintexts, int[] ciphertexts) {
+            int[] cells = new int[plaintexts.length];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = (plaintexts[i] << 8) | ciphertexts[i];
+            }
+            Arrays.sort(cells);
+            int unique = 0;
+            for (int i = 0; i < cells.length; i++) {
+                if (i == 0 || cells[i] != cells[i - 1]) {
+                    cells[unique++] = cells[i];
+                }
+            }
+            this.cells = Arrays.copyOf(cells, unique);
+        }
+
+        /**
+         * 各明密文对的候选密钥位图求交集（掩码表见{@link KeyNarrowingSession}）
+         */
+        int[] crack() {
+            long[] candidates = new long[KEY_WORDS];
+            Arrays.fill(candidates, -1L);
+            for (int cell : cells) {
+                long[] masks = KeyNarrowingSession.masksFor(cell >>> 8);
+                int base = (cell & 0xFF) * KEY_WORDS;
+                long any = 0;
+                for (int w = 0; w < KEY_WORDS; w++) {
+                    candidates[w] &= masks[base + w];
+                    any |= candidates[w];
+                }
+                if (any == 0) {
+                    break;
+                }
+            }
+            if (SDesMetrics.ENABLED) {
+                SDesMetrics.recordIndexLookup();
+            }
+            return ReverseCodebookIndex.keysOf(candidates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PairSet && Arrays.equals(cells, ((PairSet) o).cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(cells);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * 全密钥空间的密钥等价/碰撞分析（README第五关）
+ * <p>
+ * 基于全码本并行遍历256个明文 × 1024个密钥：对每个明文按密文把密钥分组，统计碰撞类大小的直方图；
+ * 并找出在全部明文上加密结果都相同（码本行完全一致）的等价密钥类。全程只使用原始数组。
+ * 默认分析标准S-DES，也可以传入其他{@link CipherSpec}变体重新分析。
+ */
+public final class KeyEquivalenceAnalyzer {
+    private static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+    private static final int BLOCK_COUNT = SDesCodebook.BLOCK_COUNT;
+
+    private KeyEquivalenceAnalyzer() {
+    }
+
+    /**
+     * 分析结果
+     */
+    public static final class Report {
+        /** perPlaintext[p][s]：明文p下大小为s的碰撞类个数 */
+        private final int[][] perPlaintext;
+        /** aggregate[s]：所有明文合计的大小为s的碰撞类个数 */
+        private final long[] aggregate;
+        /** 等价密钥类（每类至少2个密钥，类内升序，类间按首个密钥升序） */
+        private final int[][] equivalentKeys;
+        /** 分析耗时（纳秒） */
+        private final long elapsedNanos;
+
+        private Report(int[][] perPlaintext, long[] aggregate, int[][] equivalentKeys, long elapsedNanos) {
+            this.perPlaintext = perPlaintext;
+            this.aggregate = aggregate;
+            this.equivalentKeys = equivalentKeys;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** 明文plaintext下的碰撞类大小直方图（下标为类大小） */
+        public int[] histogram(int plaintext) {
+            return perPlaintext[plaintext].clone();
+        }
+
+        /** 所有明文合计的碰撞类大小直方图（下标为类大小） */
+        public long[] aggregateHistogram() {
+            return aggregate.clone();
+        }
+
+        /** 在全部明文上等价的密钥类 */
+        public int[][] equivalentKeyClasses() {
+            int[][] copy = new int[equivalentKeys.length][];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = equivalentKeys[i].clone();
+            }
+            return copy;
+        }
+
+        /**
+         * 随机选取明文与密钥时，与该明密文对匹配的密钥数的期望值
+         */
+        public double expectedCandidates() {
+            double weighted = 0;
+            for (int size = 1; size < aggregate.length; size++) {
+                weighted += (double) size * size * aggregate[size];
+            }
+            return weighted / ((double) KEY_COUNT * BLOCK_COUNT);
+        }
+
+        /** 分析耗时（毫秒） */
+        public double elapsedMillis() {
+            return elapsedNanos / 1e6;
+        }
+
+        /**
+         * 写出CSV：plaintext,class_size,class_count（plaintext为all的行为合计）
+         * @param file 目标文件
+         * @throws IOException 写入失败时抛出
+         */
+        public void writeCsv(Path file) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("plaintext,class_size,class_count\n");
+                for (int size = 1; size < aggregate.length; size++) {
+                    if (aggregate[size] != 0) {
+                        writer.write("all," + size + "," + aggregate[size] + "\n");
+                    }
+                }
+                for (int plaintext = 0; plaintext < BLOCK_COUNT; plaintext++) {
+                    int[] histogram = perPlaintext[plaintext];
+                    String block = SDesUtil.toBinaryString(plaintext, 8);
+                    for (int size = 1; size < histogram.length; size++) {
+                        if (histogram[size] != 0) {
+                            writer.write(block + "," + size + "," + histogram[size] + "\n");
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * 写出JSON（合计直方图、各明文直方图、等价密钥类）
+         * @param file 目标文件
+         * @throws IOException 写入失败时抛出
+         */
+        public void writeJson(Path file) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("{\n  \"elapsedMillis\": " + String.format("%.3f", elapsedMillis()) + ",\n");
+                writer.write("  \"expectedCandidates\": " + String.format("%.4f", expectedCandidates()) + ",\n");
+                writer.write("  \"aggregateHistogram\": " + histogramJson(aggregate) + ",\n");
+                writer.write("  \"perPlaintext\": [\n");
+                for (int plaintext = 0; plaintext < BLOCK_COUNT; plaintext++) {
+                    long[] histogram = Arrays.stream(perPlaintext[plaintext]).asLongStream().toArray();
+                    writer.write("    {\"plaintext\": \"" + SDesUtil.toBinaryString(plaintext, 8)
+                            + "\", \"histogram\": " + histogramJson(histogram) + "}"
+                            + (plaintext + 1 < BLOCK_COUNT ? ",\n" : "\n"));
+                }
+                writer.write("  ],\n  \"equivalentKeyClasses\": [\n");
+                for (int i = 0; i < equivalentKeys.length; i++) {
+                    StringBuilder sb = new StringBuilder("    [");
+                    for (int j = 0; j < equivalentKeys[i].length; j++) {
+                        sb.append(j == 0 ? "\"" : ", \"").append(SDesUtil.toBinaryString(equivalentKeys[i][j], 10))
+                                .append('"');
+                    }
+                    writer.write(sb.append(']').append(i + 1 < equivalentKeys.length ? ",\n" : "\n").toString());
+                }
+                writer.write("  ]\n}\n");
+            }
+        }
+
+        private static String histogramJson(long[] histogram) {
+            StringBuilder sb = new StringBuilder("{");
+            for (int size = 1; size < histogram.length; size++) {
+                if (histogram[size] != 0) {
+                    sb.append(sb.length() > 1 ? ", \"" : "\"").append(size).append("\": ").append(histogram[size]);
+                }
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    /**
+     * 对标准S-DES执行完整分析
+     */
+    public static Report analyze() {
+        return analyze(CipherSpec.STANDARD);
+    }
+
+    /**
+     * 对指定算法变体执行完整分析（非标准变体先并行生成该变体的全码本，耗时计入报告）
+     * @param spec 算法变体
+     */
+    public static Report analyze(CipherSpec spec) {
+        Objects.requireNonNull(spec, "spec");
+        long startTime = System.nanoTime();
+        byte[] codebook = spec == CipherSpec.STANDARD ? SDesCodebook.encryptTable() : codebookOf(spec);
+
+        // 各明文并行：按密文计数，再统计计数的分布
+        int[][] perPlaintext = IntStream.range(0, BLOCK_COUNT).parallel()
+                .mapToObj(plaintext -> classSizeHistogram(codebook, plaintext))
+                .toArray(int[][]::new);
+        int maxSize = 0;
+        for (int[] histogram : perPlaintext) {
+            maxSize = Math.max(maxSize, histogram.length - 1);
+        }
+        long[] aggregate = new long[maxSize + 1];
+        for (int[] histogram : perPlaintext) {
+            for (int size = 1; size < histogram.length; size++) {
+                aggregate[size] += histogram[size];
+            }
+        }
+
+        int[][] equivalentKeys = findEquivalentKeys(codebook);
+        return new Report(perPlaintext, aggregate, equivalentKeys, System.nanoTime() - startTime);
+    }
+
+    /**
+     * 变体的全码本，布局与{@link SDesCodebook}相同：下标为 (密钥 &lt;&lt; 8) | 明文
+     */
+    private static byte[] codebookOf(CipherSpec spec) {
+        byte[] codebook = new byte[KEY_COUNT * BLOCK_COUNT];
+        IntStream.range(0, KEY_COUNT).parallel().forEach(key -> {
+            int subkeys = spec.subkeys(key);
+            int k1 = subkeys >>> 8;
+            int k2 = subkeys & 0xFF;
+            int base = key << 8;
+            for (int plaintext = 0; plaintext < BLOCK_COUNT; plaintext++) {
+                codebook[base | plaintext] = (byte) spec.encryptBlock(plaintext, k1, k2);
+            }
+        });
+        return codebook;
+    }
+
+    private static int[] classSizeHistogram(byte[] codebook, int plaintext) {
+        int[] counts = new int[BLOCK_COUNT];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            counts[codebook[(key << 8) | plaintext] & 0xFF]++;
+        }
+        int maxSize = 0;
+        for (int count : counts) {
+            maxSize = Math.max(maxSize, count);
+        }
+        int[] histogram = new int[maxSize + 1];
+        for (int count : counts) {
+            if (count > 0) {
+                histogram[count]++;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * 码本行完全相同的密钥即等价密钥：按行哈希排序（哈希高位 + 密钥低10位打包进long），
+     * 哈希相同的相邻密钥再逐字节比较确认
+     */
+    private static int[][] findEquivalentKeys(byte[] codebook) {
+        long[] tagged = IntStream.range(0, KEY_COUNT).parallel()
+                .mapToLong(key -> (rowHash(codebook, key) & ~0x3FFL) | key)
+                .toArray();
+        Arrays.sort(tagged);
+
+        boolean[] assigned = new boolean[KEY_COUNT];
+        int[][] classes = new int[KEY_COUNT / 2][];
+        int classCount = 0;
+        int[] members = new int[KEY_COUNT];
+        for (int start = 0; start < KEY_COUNT; ) {
+            int end = start + 1;
+            while (end < KEY_COUNT && (tagged[end] >>> 10) == (tagged[start] >>> 10)) {
+                end++;
+            }
+            // 同一哈希组内按行内容再细分
+            for (int i = start; i < end; i++) {
+                int key = (int) (tagged[i] & 0x3FF);
+                if (assigned[key]) {
+                    continue;
+                }
+                int size = 0;
+                members[size++] = key;
+                for (int j = i + 1; j < end; j++) {
+                    int other = (int) (tagged[j] & 0x3FF);
+                    if (!assigned[other] && sameRow(codebook, key, other)) {
+                        assigned[other] = true;
+                        members[size++] = other;
+                    }
+                }
+                assigned[key] = true;
+                if (size > 1) {
+                    int[] sorted = Arrays.copyOf(members, size);
+                    Arrays.sort(sorted);
+                    classes[classCount++] = sorted;
+                }
+            }
+            start = end;
+        }
+        int[][] result = Arrays.copyOf(classes, classCount);
+        Arrays.sort(result, (a, b) -> Integer.compare(a[0], b[0]));
+        return result;
+    }
+
+    private static long rowHash(byte[] codebook, int key) {
+        long hash = 0xCBF29CE484222325L;
+        int base = key << 8;
+        for (int i = 0; i < BLOCK_COUNT; i++) {
+            hash = (hash ^ (codebook[base | i] & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static boolean sameRow(byte[] codebook, int a, int b) {
+        return Arrays.equals(codebook, a << 8, (a + 1) << 8, codebook, b << 8, (b + 1) << 8);
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 增量缩小候选密钥：明密文对逐个到达（如监控数据流），每来一对就排除不可能的密钥
+ * <p>
+ * 候选集是1024位位图（16个long）。每个明文对应一张掩码表：masks[密文]为加密该明文得到该密文的密钥位图，
+ * 由全码本一次扫描生成并在进程内共享，因此每个明密文对只需16次按位与，不重新扫描密钥空间。
+ * 候选只剩一个密钥、或剩下的密钥码本完全相同（等价密钥，后续明密文对无法再区分）时立即停止。
+ * <p>
+ * 线程安全：数据流的消费线程与查询状态的线程可以同时访问。
+ */
+public final class KeyNarrowingSession {
+    private static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+    private static final int BLOCK_COUNT = SDesCodebook.BLOCK_COUNT;
+    /** 位图长度（1024位） */
+    private static final int WORDS = KEY_COUNT / 64;
+
+    /** 各明文的掩码表（首次用到时生成）：MASKS[明文][密文 * WORDS + w] */
+    private static final AtomicReferenceArray<long[]> MASKS = new AtomicReferenceArray<>(BLOCK_COUNT);
+
+    /**
+     * 会话状态
+     */
+    public enum State {
+        /** 仍有多个可区分的候选密钥 */
+        NARROWING("缩小中"),
+        /** 只剩一个密钥 */
+        IDENTIFIED("已唯一确定"),
+        /** 剩余密钥互为等价密钥，继续提供明密文对也无法区分 */
+        EQUIVALENT("仅剩一个等价类"),
+        /** 没有密钥满足全部明密文对（数据有误或不是同一密钥） */
+        CONTRADICTION("无匹配密钥");
+
+        private final String label;
+
+        State(String label) {
+            this.label = label;
+        }
+
+        /** 是否已经可以停止接收明密文对 */
+        public boolean isFinal() {
+            return this != NARROWING;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final long[] candidates = new long[WORDS];
+    private int candidateCount = KEY_COUNT;
+    private long pairsAccepted;
+    private State state = State.NARROWING;
+
+    /**
+     * 以全部1024个密钥为初始候选
+     */
+    public KeyNarrowingSession() {
+        Arrays.fill(candidates, -1L);
+    }
+
+    /**
+     * 接收一个明密文对并排除不匹配的密钥
+     * @param plaintext 8位明文
+     * @param ciphertext 8位密文
+     * @return 接收后的状态
+     * @throws IllegalArgumentException 明密文超出8位时抛出
+     */
+    public synchronized State accept(int plaintext, int ciphertext) throws IllegalArgumentException {
+        if (((plaintext | ciphertext) & ~0xFF) != 0) {
+            throw new IllegalArgumentException("明密文必须为8位");
+        }
+        long[] masks = masksFor(plaintext);
+        int base = ciphertext * WORDS;
+        int count = 0;
+        boolean changed = false;
+        for (int w = 0; w < WORDS; w++) {
+            long narrowed = candidates[w] & masks[base + w];
+            changed |= narrowed != candidates[w];
+            candidates[w] = narrowed;
+            count += Long.bitCount(narrowed);
+        }
+        pairsAccepted++;
+        if (changed) {
+            candidateCount = count;
+            state = classify();
+        }
+        return state;
+    }
+
+    /**
+     * 依次接收多个明密文对，到达最终状态后不再继续
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @return 最后的状态
+     * @throws IllegalArgumentException 数量不一致或超出8位时抛出
+     */
+    public synchronized State acceptAll(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        if (plaintexts.length != ciphertexts.length) {
+            throw new IllegalArgumentException("明文与密文数量必须一致");
+        }
+        for (int i = 0; i < plaintexts.length && !state.isFinal(); i++) {
+            accept(plaintexts[i], ciphertexts[i]);
+        }
+        return state;
+    }
+
+    /**
+     * 从队列中逐个取明密文对，直到到达最终状态
+     * @param pairs 每个元素为 (明文 &lt;&lt; 8) | 密文
+     * @return 最终状态
+     * @throws InterruptedException 等待队列时被中断
+     * @throws IllegalArgumentException 元素超出16位时抛出
+     */
+    public State consume(BlockingQueue<Integer> pairs) throws InterruptedException, IllegalArgumentException {
+        State current = getState();
+        while (!current.isFinal()) {
+            int pair = pairs.take();
+            if ((pair & ~0xFFFF) != 0) {
+                throw new IllegalArgumentException("明密文对必须为16位: " + pair);
+            }
+            current = accept(pair >>> 8, pair & 0xFF);
+        }
+        return current;
+    }
+
+    /**
+     * 从字节流中逐个读明密文对（每对两个字节：明文、密文），直到到达最终状态或流结束
+     * @param in 输入流（不会被关闭，最终状态之后的数据不会被读取）
+     * @return 停止时的状态
+     * @throws IOException 读取失败或流在一对的中间结束时抛出
+     */
+    public State consume(InputStream in) throws IOException {
+        State current = getState();
+        while (!current.isFinal()) {
+            int plaintext = in.read();
+            if (plaintext < 0) {
+                break;
+            }
+            int ciphertext = in.read();
+            if (ciphertext < 0) {
+                throw new EOFException("明密文对不完整：缺少密文字节");
+            }
+            current = accept(plaintext, ciphertext);
+        }
+        return current;
+    }
+
+    /** 当前状态 */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** 剩余候选密钥数 */
+    public synchronized int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /** 已接收的明密文对数 */
+    public synchronized long getPairsAccepted() {
+        return pairsAccepted;
+    }
+
+    /** 剩余候选密钥（升序） */
+    public synchronized int[] getCandidates() {
+        return ReverseCodebookIndex.keysOf(candidates);
+    }
+
+    /** 剩余候选密钥位图的副本（第key位为1表示仍是候选） */
+    public synchronized long[] getCandidateSet() {
+        return candidates.clone();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return state + "（" + pairsAccepted + " 对，剩余 " + candidateCount + " 个密钥）";
+    }
+
+    /**
+     * 按剩余候选判断状态；多个候选时逐个与第一个比较码本行，通常前几个字节就能发现差异
+     */
+    private State classify() {
+        if (candidateCount == 0) {
+            return State.CONTRADICTION;
+        }
+        if (candidateCount == 1) {
+            return State.IDENTIFIED;
+        }
+        byte[] codebook = SDesCodebook.encryptTable();
+        int first = -1;
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = candidates[w]; word != 0; word &= word - 1) {
+                int key = (w << 6) | Long.numberOfTrailingZeros(word);
+                if (first < 0) {
+                    first = key;
+                } else if (Arrays.mismatch(codebook, first << 8, (first + 1) << 8,
+                        codebook, key << 8, (key + 1) << 8) >= 0) {
+                    return State.NARROWING;
+                }
+            }
+        }
+        return State.EQUIVALENT;
+    }
+
+    /**
+     * 某个明文的掩码表，首次使用时由码本生成；并发生成时以先发布的为准
+     */
+    static long[] masksFor(int plaintext) {
+        long[] masks = MASKS.get(plaintext);
+        if (masks == null) {
+            masks = buildMasks(plaintext);
+            if (!MASKS.compareAndSet(plaintext, null, masks)) {
+                masks = MASKS.get(plaintext);
+            }
+        }
+        return masks;
+    }
+
+    private static long[] buildMasks(int plaintext) {
+        byte[] codebook = SDesCodebook.encryptTable();
+        long[] masks = new long[BLOCK_COUNT * WORDS];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            int ciphertext = codebook[(key << 8) | plaintext] & 0xFF;
+            masks[ciphertext * WORDS + (key >>> 6)] |= 1L << (key & 63);
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的对数-线性延迟直方图（纳秒）
+ * <p>
+ * 每个2的幂区间再均分为8个子桶，相对误差不超过12.5%；记录时只做一次原子自增，
+ * 多线程并发记录无需加锁。分位数取所在桶的上界，属于近似值。
+ */
+public final class LatencyHistogram {
+    /** 每个2的幂区间内的子桶位数 */
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 记录一次耗时
+     * @param nanos 纳秒数，负数按0计
+     */
+    public void record(long nanos) {
+        buckets.getAndIncrement(indexOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * 记录数量
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * 近似分位数
+     * @param quantile 0~1之间的分位点
+     * @return 纳秒数，没有记录时为0
+     */
+    public long percentile(double quantile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKET_COUNT - 1);
+    }
+
+    /** 清空全部记录 */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    /**
+     * 小于8的值各占一个桶；更大的值按最高位所在区间与其后3位定位子桶
+     */
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * 桶内的最大值（含）
+     */
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        int sub = index % SUB_COUNT;
+        long lower = (1L << exponent) | ((long) sub << (exponent - SUB_BITS));
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * 以整数为键的有界LRU缓存，{@link SDesKeyCache}与{@link TripleSDes}的密钥组缓存共用
+ * <p>
+ * 按访问顺序淘汰最久未使用的项；未命中时在锁外调用工厂创建，并发未命中同一个键时以先放入的为准。
+ * 所有方法线程安全。
+ * @param <V> 缓存值类型
+ */
+class LruCache<V> {
+    /** 最大缓存数量 */
+    private final int capacity;
+    /** 未命中时创建缓存值 */
+    private final IntFunction<? extends V> factory;
+    /** 访问顺序的LinkedHashMap，超出容量时淘汰最久未使用项 */
+    private final LinkedHashMap<Integer, V> cache;
+
+    /**
+     * @param capacity 最大缓存数量（至少为1）
+     * @param factory 由键创建缓存值，可抛出IllegalArgumentException拒绝非法键
+     * @throws IllegalArgumentException 容量小于1时抛出
+     */
+    LruCache(int capacity, IntFunction<? extends V> factory) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("缓存容量必须至少为1");
+        }
+        this.capacity = capacity;
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.cache = new LinkedHashMap<Integer, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存值，未命中时创建并放入缓存
+     * @param key 键
+     * @return 缓存值
+     * @throws IllegalArgumentException 工厂拒绝该键时抛出
+     */
+    V get(int key) throws IllegalArgumentException {
+        V value;
+        synchronized (cache) {
+            value = cache.get(key);
+        }
+        onLookup(value != null);
+        if (value != null) {
+            return value;
+        }
+        V created = factory.apply(key);
+        synchronized (cache) {
+            V existing = cache.putIfAbsent(key, created);
+            return existing != null ? existing : created;
+        }
+    }
+
+    /**
+     * 每次查找后回调（默认不做任何事），子类可借此记录命中率
+     * @param hit 是否命中
+     */
+    void onLookup(boolean hit) {
+    }
+
+    /** 当前缓存数量 */
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /** 最大缓存数量 */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /** 清空缓存 */
+    void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
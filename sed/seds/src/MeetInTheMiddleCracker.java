@@ -0,0 +1,103 @@
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * 双重S-DES的中间相遇攻击
+ * <p>
+ * 对第一组明密文对，正向在全部1024个k1下加密明文、反向在全部1024个k2下解密密文，
+ * 两半并行计算，并按中间值做计数排序分桶（原始int数组，无装箱）；中间值相同的 (k1, k2)
+ * 组合即候选，再用其余明密文对过滤。工作量约 2·2^10 次加解密加上候选校验，
+ * 而不是逐个尝试2^20个组合密钥。
+ */
+public final class MeetInTheMiddleCracker {
+    private static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+
+    private MeetInTheMiddleCracker() {
+    }
+
+    /**
+     * 恢复满足全部明密文对的20位组合密钥
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应、经双重S-DES加密的8位密文数组
+     * @return 升序排列的组合密钥 (k1 &lt;&lt; 10) | k2；只有一对时约4096个候选，每多一对候选数大幅减少
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     */
+    public static int[] crack(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        BruteForceEngine.validatePairs(plaintexts, ciphertexts);
+        int plaintext = plaintexts[0];
+        int ciphertext = ciphertexts[0];
+
+        // 两半并行：正向按E(k1, P)分桶，反向按D(k2, C)分桶
+        CompletableFuture<int[][]> forward = CompletableFuture.supplyAsync(
+                () -> bucketByMiddle(k1 -> SDesCodebook.encrypt(plaintext, k1)));
+        int[][] backward = bucketByMiddle(k2 -> SDesCodebook.decrypt(ciphertext, k2));
+        int[][] forwardBuckets = forward.join();
+
+        int[] result = IntStream.range(0, 256).parallel()
+                .flatMap(middle -> matchBucket(middle, forwardBuckets, backward, plaintexts, ciphertexts))
+                .toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private interface MiddleFunction {
+        int apply(int key);
+    }
+
+    /**
+     * 对全部密钥计算中间值并计数排序
+     * @return [0]为256+1项的桶偏移，[1]为按中间值排好序的密钥
+     */
+    private static int[][] bucketByMiddle(MiddleFunction function) {
+        int[] middles = new int[KEY_COUNT];
+        int[] offsets = new int[257];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            int middle = function.apply(key);
+            middles[key] = middle;
+            offsets[middle + 1]++;
+        }
+        for (int i = 0; i < 256; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, 256);
+        int[] sortedKeys = new int[KEY_COUNT];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            sortedKeys[next[middles[key]]++] = key;
+        }
+        return new int[][]{offsets, sortedKeys};
+    }
+
+    /**
+     * 同一中间值桶内的 (k1, k2) 组合，用其余明密文对过滤
+     */
+    private static IntStream matchBucket(int middle, int[][] forward, int[][] backward,
+                                         int[] plaintexts, int[] ciphertexts) {
+        int[] forwardOffsets = forward[0];
+        int[] forwardKeys = forward[1];
+        int[] backwardOffsets = backward[0];
+        int[] backwardKeys = backward[1];
+        int[] matches = new int[(forwardOffsets[middle + 1] - forwardOffsets[middle])
+                * (backwardOffsets[middle + 1] - backwardOffsets[middle])];
+        int count = 0;
+        for (int i = forwardOffsets[middle]; i < forwardOffsets[middle + 1]; i++) {
+            int k1 = forwardKeys[i];
+            for (int j = backwardOffsets[middle]; j < backwardOffsets[middle + 1]; j++) {
+                int k2 = backwardKeys[j];
+                if (matchesRemaining(k1, k2, plaintexts, ciphertexts)) {
+                    matches[count++] = (k1 << 10) | k2;
+                }
+            }
+        }
+        return Arrays.stream(matches, 0, count);
+    }
+
+    private static boolean matchesRemaining(int k1, int k2, int[] plaintexts, int[] ciphertexts) {
+        for (int i = 1; i < plaintexts.length; i++) {
+            if (SDesCodebook.encrypt(SDesCodebook.encrypt(plaintexts[i], k1), k2) != ciphertexts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
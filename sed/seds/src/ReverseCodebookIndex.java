@@ -0,0 +1,351 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 反向码本索引：由 (明文, 密文) 直接查出所有满足 E(key, 明文) = 密文 的密钥
+ * <p>
+ * 共65536个 (明文, 密文) 单元、262144个密钥条目，采用CSR压缩格式：
+ * offsets[cell]~offsets[cell+1] 为该单元在密钥序列中的区间，密钥按10位紧凑打包存入long数组，
+ * 单元编号 cell = (明文 &lt;&lt; 8) | 密文。索引可保存到磁盘，启动时直接内存映射，
+ * 多组明密文对的候选集用1024位位图求交集，查询耗时与请求量无关。
+ * <p>
+ * 文件格式（大端）：魔数、版本、offsets[65537]、packedKeys[40960]。
+ * <p>
+ * {@link #shared()}为进程内共享的索引，默认首次使用时在内存中构建，不写任何文件；
+ * 显式指定{@code -Dsdes.index=<文件>}时改为映射该文件，文件不存在时构建并保存。
+ * {@link BruteForceEngine}用它直接回答单个明密文对的搜索。
+ * 保存时先写同目录下的临时文件再原子改名，其他进程已映射的旧文件不会被截断，也不会读到写了一半的文件。
+ */
+public final class ReverseCodebookIndex {
+    /** 文件魔数 "SDIX" */
+    private static final int MAGIC = 0x53444958;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+
+    private static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+    private static final int CELL_COUNT = 256 * 256;
+    private static final int ENTRY_COUNT = KEY_COUNT * 256;
+    private static final int KEY_BITS = 10;
+    private static final int WORD_COUNT = ENTRY_COUNT * KEY_BITS / 64;
+    /** 位图长度（1024位） */
+    private static final int BITSET_WORDS = KEY_COUNT / 64;
+    /** 索引文件总字节数 */
+    static final long FILE_BYTES = HEADER_BYTES + (CELL_COUNT + 1) * 4L + WORD_COUNT * 8L;
+
+    /** 指定共享索引文件位置的系统属性，未设置时共享索引只在内存中构建 */
+    static final String FILE_PROPERTY = "sdes.index";
+
+    private final IntBuffer offsets;
+    private final LongBuffer packedKeys;
+
+    private ReverseCodebookIndex(IntBuffer offsets, LongBuffer packedKeys) {
+        this.offsets = offsets;
+        this.packedKeys = packedKeys;
+    }
+
+    /**
+     * 进程内共享的索引：首次调用时打开或构建{@link #FILE_PROPERTY}指定的文件；未指定或文件无法写入时只在内存中构建
+     */
+    public static ReverseCodebookIndex shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final ReverseCodebookIndex INSTANCE = load();
+
+        private static ReverseCodebookIndex load() {
+            String file = System.getProperty(FILE_PROPERTY);
+            if (file == null || file.isEmpty()) {
+                return build();
+            }
+            try {
+                return openOrBuild(Paths.get(file));
+            } catch (IOException e) {
+                return build();
+            }
+        }
+    }
+
+    /**
+     * 由全码本在内存中构建索引（计数排序，每个单元内密钥升序）
+     */
+    public static ReverseCodebookIndex build() {
+        byte[] codebook = SDesCodebook.encryptTable();
+        int[] offsets = new int[CELL_COUNT + 1];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            int base = key << 8;
+            for (int plaintext = 0; plaintext < 256; plaintext++) {
+                offsets[((plaintext << 8) | (codebook[base | plaintext] & 0xFF)) + 1]++;
+            }
+        }
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            offsets[cell + 1] += offsets[cell];
+        }
+
+        int[] next = new int[CELL_COUNT];
+        System.arraycopy(offsets, 0, next, 0, CELL_COUNT);
+        long[] words = new long[WORD_COUNT];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            int base = key << 8;
+            for (int plaintext = 0; plaintext < 256; plaintext++) {
+                int cell = (plaintext << 8) | (codebook[base | plaintext] & 0xFF);
+                writeKey(words, next[cell]++, key);
+            }
+        }
+        return new ReverseCodebookIndex(IntBuffer.wrap(offsets), LongBuffer.wrap(words));
+    }
+
+    /**
+     * 内存映射打开已保存的索引文件
+     * <p>
+     * 除文件头外还逐项校验内容：offsets从0开始、非递减且总数为262144，每个单元内的密钥严格升序并确实把该明文
+     * 加密为该密文。满足这些条件的索引与{@link #build()}的结果完全相同，损坏或被篡改的文件不会被接受。
+     * @param file 索引文件
+     * @return 索引
+     * @throws IOException 文件不存在、大小、格式或内容不符时抛出
+     */
+    public static ReverseCodebookIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_BYTES) {
+                throw new IOException("索引文件大小不正确: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_BYTES);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("不是有效的S-DES反向码本索引文件: " + file);
+            }
+            map.position(HEADER_BYTES);
+            IntBuffer offsets = map.slice().asIntBuffer();
+            offsets.limit(CELL_COUNT + 1);
+            map.position(HEADER_BYTES + (CELL_COUNT + 1) * 4);
+            LongBuffer packedKeys = map.slice().asLongBuffer();
+            ReverseCodebookIndex index = new ReverseCodebookIndex(offsets, packedKeys);
+            if (!index.isValid()) {
+                throw new IOException("索引文件内容与码本不一致: " + file);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * 校验索引内容：每个明文对应的各单元恰好覆盖全部1024个密钥，且每个条目都满足 E(key, 明文) = 密文
+     */
+    private boolean isValid() {
+        if (offsets.get(0) != 0 || offsets.get(CELL_COUNT) != ENTRY_COUNT) {
+            return false;
+        }
+        byte[] codebook = SDesCodebook.encryptTable();
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            int from = offsets.get(cell);
+            int to = offsets.get(cell + 1);
+            if (to < from || to > ENTRY_COUNT) {
+                return false;
+            }
+            int plaintext = cell >>> 8;
+            int ciphertext = cell & 0xFF;
+            int previous = -1;
+            for (int i = from; i < to; i++) {
+                int key = readKey(i);
+                // 单元内严格升序保证不重复；同一明文下每个密钥只能落在一个密文单元中，再加上总数，保证覆盖完整
+                if (key <= previous || (codebook[SDesCodebook.rowOffset(key) | plaintext] & 0xFF) != ciphertext) {
+                    return false;
+                }
+                previous = key;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 打开索引文件；文件不存在或无效时重新构建并保存
+     * @param file 索引文件
+     * @return 索引
+     * @throws IOException 保存失败时抛出
+     */
+    public static ReverseCodebookIndex openOrBuild(Path file) throws IOException {
+        if (Files.isRegularFile(file)) {
+            try {
+                return open(file);
+            } catch (IOException e) {
+                // 文件损坏或版本不符，重新构建
+            }
+        }
+        ReverseCodebookIndex index = build();
+        index.save(file);
+        return open(file);
+    }
+
+    /**
+     * 保存索引到文件（已存在时替换）：先写入同目录下的临时文件，再原子改名为目标文件
+     * @param file 目标文件，所在目录不存在时自动创建
+     * @throws IOException 写入失败时抛出
+     */
+    public void save(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            write(temp);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            for (int i = 0; i <= CELL_COUNT; i++) {
+                if (buffer.remaining() < 4) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(offsets.get(i));
+            }
+            for (int i = 0; i < WORD_COUNT; i++) {
+                if (buffer.remaining() < 8) {
+                    drain(channel, buffer);
+                }
+                buffer.putLong(packedKeys.get(i));
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 满足 E(key, plaintext) = ciphertext 的密钥数量
+     */
+    public int count(int plaintext, int ciphertext) {
+        int cell = cell(plaintext, ciphertext);
+        return offsets.get(cell + 1) - offsets.get(cell);
+    }
+
+    /**
+     * 满足 E(key, plaintext) = ciphertext 的全部密钥（升序）
+     * @param plaintext 8位明文
+     * @param ciphertext 8位密文
+     * @return 候选密钥
+     */
+    public int[] candidates(int plaintext, int ciphertext) {
+        int cell = cell(plaintext, ciphertext);
+        int from = offsets.get(cell);
+        int[] keys = new int[offsets.get(cell + 1) - from];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = readKey(from + i);
+        }
+        return keys;
+    }
+
+    /**
+     * 满足全部明密文对的密钥：各对候选集按1024位位图求交集
+     * @param plaintexts 8位明文数组
+     * @param ciphertexts 与明文一一对应的8位密文数组
+     * @return 升序排列的10位密钥
+     * @throws IllegalArgumentException 明密文对为空、数量不一致或超出8位时抛出
+     */
+    public int[] candidates(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        BruteForceEngine.validatePairs(plaintexts, ciphertexts);
+        long[] result = candidateSet(plaintexts[0], ciphertexts[0]);
+        long[] other = new long[BITSET_WORDS];
+        for (int i = 1; i < plaintexts.length; i++) {
+            fillCandidateSet(plaintexts[i], ciphertexts[i], other);
+            long any = 0;
+            for (int w = 0; w < BITSET_WORDS; w++) {
+                result[w] &= other[w];
+                any |= result[w];
+            }
+            if (any == 0) {
+                break;
+            }
+        }
+        return keysOf(result);
+    }
+
+    /**
+     * 单个明密文对的候选密钥位图（1024位，第key位为1表示密钥匹配）
+     */
+    public long[] candidateSet(int plaintext, int ciphertext) {
+        long[] bits = new long[BITSET_WORDS];
+        fillCandidateSet(plaintext, ciphertext, bits);
+        return bits;
+    }
+
+    private void fillCandidateSet(int plaintext, int ciphertext, long[] bits) {
+        Arrays.fill(bits, 0L);
+        int cell = cell(plaintext, ciphertext);
+        int to = offsets.get(cell + 1);
+        for (int i = offsets.get(cell); i < to; i++) {
+            int key = readKey(i);
+            bits[key >>> 6] |= 1L << (key & 63);
+        }
+    }
+
+    /**
+     * 位图转升序密钥数组
+     */
+    static int[] keysOf(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        int[] keys = new int[count];
+        int index = 0;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                keys[index++] = (w << 6) | Long.numberOfTrailingZeros(word);
+            }
+        }
+        return keys;
+    }
+
+    private static int cell(int plaintext, int ciphertext) {
+        if (((plaintext | ciphertext) & ~0xFF) != 0) {
+            throw new IllegalArgumentException("明密文必须为8位");
+        }
+        return (plaintext << 8) | ciphertext;
+    }
+
+    private static void writeKey(long[] words, int index, int key) {
+        long bitPos = (long) index * KEY_BITS;
+        int word = (int) (bitPos >>> 6);
+        int shift = (int) (bitPos & 63);
+        words[word] |= (long) key << shift;
+        if (shift > 64 - KEY_BITS) {
+            words[word + 1] |= (long) key >>> (64 - shift);
+        }
+    }
+
+    private int readKey(int index) {
+        long bitPos = (long) index * KEY_BITS;
+        int word = (int) (bitPos >>> 6);
+        int shift = (int) (bitPos & 63);
+        long value = packedKeys.get(word) >>> shift;
+        if (shift > 64 - KEY_BITS) {
+            value |= packedKeys.get(word + 1) << (64 - shift);
+        }
+        return (int) (value & 0x3FF);
+    }
+}
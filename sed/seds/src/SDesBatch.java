@@ -0,0 +1,240 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * 多密钥批量加解密：每条记录使用各自的10位密钥
+ * <p>
+ * 先按密钥做计数排序，把记录分到1024个桶中，每个桶只取一次该密钥的256项码本行（标准S-DES直接用
+ * {@link SDesCodebook}，其他变体按{@link CipherSpec}现场生成），桶内所有记录连续查同一行；
+ * 结果按记录原来的位置写回，调用方看到的顺序不变。记录数较多且有多个核时，各桶按记录数均衡分组并行处理。
+ * <p>
+ * 记录可以是单个分组（keys与blocks一一对应），也可以是列式记录批：offsets[i]~offsets[i+1]为第i条记录在
+ * data中的区间，记录内按ECB逐字节处理。out可以与输入为同一数组（原地处理）。
+ */
+public final class SDesBatch {
+    private static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+    /** 少于该记录数时在调用线程顺序处理 */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+    /** 每个工作线程分到的桶组数，多于1以便负载均衡 */
+    private static final int GROUPS_PER_THREAD = 4;
+    private static final boolean MULTI_CORE = Runtime.getRuntime().availableProcessors() > 1;
+
+    private SDesBatch() {
+    }
+
+    /**
+     * 批量加密单分组记录：out[i] = E(keys[i], blocks[i])
+     * @param keys 每条记录的10位密钥
+     * @param blocks 每条记录的8位明文
+     * @param out 输出数组，长度不小于记录数
+     * @throws IllegalArgumentException 长度不一致或密钥超出10位时抛出
+     */
+    public static void encrypt(int[] keys, byte[] blocks, byte[] out) throws IllegalArgumentException {
+        transform(CipherSpec.STANDARD, true, keys, null, blocks, out);
+    }
+
+    /**
+     * 批量解密单分组记录：out[i] = D(keys[i], blocks[i])
+     * @see #encrypt(int[], byte[], byte[])
+     */
+    public static void decrypt(int[] keys, byte[] blocks, byte[] out) throws IllegalArgumentException {
+        transform(CipherSpec.STANDARD, false, keys, null, blocks, out);
+    }
+
+    /**
+     * 批量加密列式记录批（每条记录ECB）
+     * @param keys 每条记录的10位密钥
+     * @param offsets 记录边界，长度为记录数 + 1，非递减
+     * @param data 全部记录的明文
+     * @param out 输出数组，记录写回与输入相同的位置
+     * @throws IllegalArgumentException 长度不一致、边界非法或密钥超出10位时抛出
+     */
+    public static void encryptRecords(int[] keys, int[] offsets, byte[] data, byte[] out)
+            throws IllegalArgumentException {
+        transform(CipherSpec.STANDARD, true, keys, offsets, data, out);
+    }
+
+    /**
+     * 批量解密列式记录批（每条记录ECB）
+     * @see #encryptRecords(int[], int[], byte[], byte[])
+     */
+    public static void decryptRecords(int[] keys, int[] offsets, byte[] data, byte[] out)
+            throws IllegalArgumentException {
+        transform(CipherSpec.STANDARD, false, keys, offsets, data, out);
+    }
+
+    /**
+     * 通用入口
+     * @param spec 算法变体
+     * @param isEncrypt true为加密
+     * @param keys 每条记录的10位密钥
+     * @param offsets 记录边界（长度为记录数 + 1），为null时每条记录是data中的一个字节
+     * @param data 输入数据
+     * @param out 输出数组
+     * @throws IllegalArgumentException 长度不一致、边界非法或密钥超出10位时抛出
+     */
+    public static void transform(CipherSpec spec, boolean isEncrypt, int[] keys, int[] offsets, byte[] data,
+                                 byte[] out) throws IllegalArgumentException {
+        Objects.requireNonNull(spec, "spec");
+        int records = keys.length;
+        int bytes = validate(keys, offsets, data, out);
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+
+        // 计数排序：bucketStart[k]~bucketStart[k+1]为密钥k的记录在order中的区间
+        int[] bucketStart = new int[KEY_COUNT + 1];
+        for (int key : keys) {
+            bucketStart[key + 1]++;
+        }
+        for (int k = 0; k < KEY_COUNT; k++) {
+            bucketStart[k + 1] += bucketStart[k];
+        }
+        int[] order = new int[records];
+        int[] fill = new int[KEY_COUNT];
+        System.arraycopy(bucketStart, 0, fill, 0, KEY_COUNT);
+        for (int i = 0; i < records; i++) {
+            order[fill[keys[i]]++] = i;
+        }
+
+        Buckets buckets = new Buckets(spec, isEncrypt, bucketStart, order, offsets, data, out);
+        if (!MULTI_CORE || records < 2 * PARALLEL_THRESHOLD) {
+            buckets.process(0, KEY_COUNT);
+        } else {
+            int[] bounds = groupBounds(bucketStart,
+                    Runtime.getRuntime().availableProcessors() * GROUPS_PER_THREAD);
+            IntStream.range(0, bounds.length - 1).parallel()
+                    .forEach(g -> buckets.process(bounds[g], bounds[g + 1]));
+        }
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(isEncrypt, bytes, startTime);
+        }
+    }
+
+    /**
+     * 校验参数
+     * @return 需要处理的字节数
+     */
+    private static int validate(int[] keys, int[] offsets, byte[] data, byte[] out) {
+        for (int key : keys) {
+            if ((key & ~0x3FF) != 0) {
+                throw new IllegalArgumentException("密钥必须为10位（0~1023）: " + key);
+            }
+        }
+        if (offsets == null) {
+            if (data.length != keys.length || out.length < keys.length) {
+                throw new IllegalArgumentException("密钥与分组数量必须一致，且输出数组不能小于输入");
+            }
+            return keys.length;
+        }
+        if (offsets.length != keys.length + 1) {
+            throw new IllegalArgumentException("记录边界数组长度必须为记录数 + 1");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (offsets[i] < 0 || offsets[i] > offsets[i + 1]) {
+                throw new IllegalArgumentException("记录边界必须非负且非递减（第" + (i + 1) + "条记录）");
+            }
+        }
+        if (offsets[keys.length] > data.length || out.length < offsets[keys.length]) {
+            throw new IllegalArgumentException("记录边界超出数据或输出数组范围");
+        }
+        return offsets[keys.length] - offsets[0];
+    }
+
+    /**
+     * 把1024个桶按记录数切成大致相等的若干组
+     * @return 组边界（桶下标），首个为0，最后一个为1024
+     */
+    private static int[] groupBounds(int[] bucketStart, int groups) {
+        int records = bucketStart[KEY_COUNT];
+        int[] bounds = new int[groups + 1];
+        int count = 1;
+        for (int k = 1; k < KEY_COUNT && count < groups; k++) {
+            if (bucketStart[k] >= (long) records * count / groups) {
+                bounds[count++] = k;
+            }
+        }
+        bounds[count] = KEY_COUNT;
+        return Arrays.copyOf(bounds, count + 1);
+    }
+
+    /**
+     * 按桶处理：每个桶取一次码本行，再处理桶内全部记录
+     */
+    private static final class Buckets {
+        private final CipherSpec spec;
+        private final boolean isEncrypt;
+        private final int[] bucketStart;
+        private final int[] order;
+        private final int[] offsets;
+        private final byte[] data;
+        private final byte[] out;
+
+        Buckets(CipherSpec spec, boolean isEncrypt, int[] bucketStart, int[] order, int[] offsets, byte[] data,
+                byte[] out) {
+            this.spec = spec;
+            this.isEncrypt = isEncrypt;
+            this.bucketStart = bucketStart;
+            this.order = order;
+            this.offsets = offsets;
+            this.data = data;
+            this.out = out;
+        }
+
+        /**
+         * 处理密钥在[fromKey, toKey)中的桶
+         */
+        void process(int fromKey, int toKey) {
+            boolean standard = spec == CipherSpec.STANDARD;
+            byte[] codebook = isEncrypt ? SDesCodebook.encryptTable() : SDesCodebook.decryptTable();
+            byte[] row = standard ? null : new byte[256];
+            for (int key = fromKey; key < toKey; key++) {
+                int from = bucketStart[key];
+                int to = bucketStart[key + 1];
+                if (from == to) {
+                    continue;
+                }
+                byte[] table;
+                int base;
+                if (standard) {
+                    table = codebook;
+                    base = SDesCodebook.rowOffset(key);
+                } else {
+                    fillRow(key, row);
+                    table = row;
+                    base = 0;
+                }
+                if (offsets == null) {
+                    for (int i = from; i < to; i++) {
+                        int record = order[i];
+                        out[record] = table[base | (data[record] & 0xFF)];
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        int record = order[i];
+                        int end = offsets[record + 1];
+                        for (int pos = offsets[record]; pos < end; pos++) {
+                            out[pos] = table[base | (data[pos] & 0xFF)];
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * 由算法变体生成某个密钥的加密或解密行
+         */
+        private void fillRow(int key, byte[] row) {
+            int subkeys = spec.subkeys(key);
+            int k1 = subkeys >>> 8;
+            int k2 = subkeys & 0xFF;
+            for (int block = 0; block < 256; block++) {
+                int cipher = spec.encryptBlock(block, k1, k2);
+                if (isEncrypt) {
+                    row[block] = (byte) cipher;
+                } else {
+                    row[cipher] = (byte) block;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,522 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 无界面命令行入口（适用于服务器与管道，不加载任何AWT/Swing类）
+ * <p>
+ * 子命令：
+ * <ul>
+ *     <li>encrypt/decrypt：标准输入流式加解密到标准输出，支持raw/hex/base64输入输出格式</li>
+ *     <li>batch：批量处理"密钥 分组"记录文件，每行输出一个结果分组</li>
+ *     <li>crack：已知明密文对暴力破解</li>
+ *     <li>narrow：逐行读入明密文对增量缩小候选密钥，唯一确定后立即停止</li>
+ *     <li>crack-text：唯密文破解（按语言模型给候选密钥打分）</li>
+ *     <li>analyze：全密钥空间等价/碰撞分析</li>
+ * </ul>
+ * 加 --stats 时在标准错误输出吞吐量（MB/s、条/秒、次/秒）与耗时，标准输出只包含结果数据。
+ */
+public final class SDesCli {
+    /** 流式加解密的读写缓冲区大小 */
+    static final int STREAM_BUFFER_SIZE = 1024 * 1024;
+    /** batch命令每次交给{@link SDesBatch}的记录数，足够大以走并行分桶路径 */
+    static final int BATCH_RECORDS = 2 * SDesBatch.PARALLEL_THRESHOLD;
+
+    private static final String USAGE = String.join("\n",
+            "用法: java SDesCli <命令> [参数] [选项]",
+            "  encrypt <10位二进制密钥>          标准输入加密到标准输出",
+            "  decrypt <10位二进制密钥>          标准输入解密到标准输出",
+            "      --mode ECB|CBC|OFB|CTR        工作模式（默认ECB）",
+            "      --iv <8位二进制>              初始值（默认00000000）",
+            "      --in raw|hex|base64           输入格式（默认raw）",
+            "      --out raw|hex|base64          输出格式（默认raw）",
+            "      --input <文件> --output <文件> 代替标准输入/输出",
+            "      --spec <规格文件>             使用其他S-DES变体（见CipherSpec，也适用于batch与analyze）",
+            "  batch <encrypt|decrypt> [记录文件] 每行\"<10位密钥> <8位分组>\"，省略文件时读标准输入",
+            "  crack <明文,...> <密文,...>       8位二进制明密文对（逗号分隔）",
+            "      --repeat <次数>               重复破解以统计延迟（默认1）",
+            "  narrow [记录文件]                 每行\"<8位明文> <8位密文>\"，候选唯一或只剩等价类时停止",
+            "  crack-text                        唯密文破解ECB密文（读标准输入）",
+            "      --in raw|hex|base64           密文格式（默认raw）",
+            "      --input <文件>                代替标准输入",
+            "      --lang english|pinyin|printable 明文语言（默认english）",
+            "      --top <N>                     输出前N个候选（默认5）",
+            "      --sample <字节数>             最多参与打分的密文字节数（默认65536）",
+            "  analyze                           全密钥空间等价/碰撞分析",
+            "      --csv <文件> --json <文件>    同时写出CSV/JSON报告",
+            "  公共选项: --stats                 在标准错误输出吞吐量与耗时");
+
+    /** 二进制结果（流式加解密与batch）写入的标准输出 */
+    private final OutputStream stdout;
+    /** 文本结果写入的标准输出（与stdout为同一目标） */
+    private final PrintStream stdoutText;
+    private final InputStream stdin;
+    private final PrintStream stderr;
+
+    private SDesCli(InputStream stdin, OutputStream stdout, PrintStream stderr) {
+        this.stdin = stdin;
+        this.stdout = stdout;
+        this.stdoutText = stdout instanceof PrintStream ? (PrintStream) stdout : new PrintStream(stdout, false);
+        this.stderr = stderr;
+    }
+
+    /**
+     * 命令行入口
+     */
+    public static void main(String[] args) {
+        int status = run(args, System.in, new FileOutputStream(FileDescriptor.out), System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * 执行一条命令（不调用System.exit，便于嵌入与测试）
+     * @param args 命令行参数
+     * @param stdin 标准输入
+     * @param stdout 标准输出（流式命令结束时会被关闭）
+     * @param stderr 标准错误
+     * @return 退出码：0成功，1读写失败，2参数错误或未给出命令
+     */
+    static int run(String[] args, InputStream stdin, OutputStream stdout, PrintStream stderr) {
+        if (args.length == 0 || "-h".equals(args[0]) || "--help".equals(args[0])) {
+            stderr.println(USAGE);
+            return args.length == 0 ? 2 : 0;
+        }
+        SDesCli cli = new SDesCli(stdin, stdout, stderr);
+        try {
+            List<String> positional = new ArrayList<>();
+            Map<String, String> options = parseOptions(args, positional);
+            if (positional.isEmpty()) {
+                throw new IllegalArgumentException("缺少命令");
+            }
+            String command = positional.remove(0);
+            switch (command) {
+                case "encrypt":
+                case "decrypt":
+                    cli.runStream("encrypt".equals(command), positional, options);
+                    break;
+                case "batch":
+                    cli.runBatch(positional, options);
+                    break;
+                case "crack":
+                    cli.runCrack(positional, options);
+                    break;
+                case "narrow":
+                    cli.runNarrow(positional, options);
+                    break;
+                case "crack-text":
+                    cli.runCrackText(positional, options);
+                    break;
+                case "analyze":
+                    cli.runAnalyze(positional, options);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知命令: " + command);
+            }
+            return 0;
+        } catch (IllegalArgumentException e) {
+            stderr.println("❌ 错误：" + e.getMessage());
+            stderr.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            stderr.println("❌ 读写失败：" + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * 解析 --name value 形式的选项（--stats 不带值），其余参数按顺序放入positional
+     */
+    private static Map<String, String> parseOptions(String[] args, List<String> positional) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--stats".equals(arg)) {
+                options.put("stats", "true");
+            } else if (arg.startsWith("--")) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("选项缺少取值: " + arg);
+                }
+                options.put(arg.substring(2), args[++i]);
+            } else {
+                positional.add(arg);
+            }
+        }
+        return options;
+    }
+
+    private static void expectArgs(List<String> positional, int min, int max) {
+        if (positional.size() < min || positional.size() > max) {
+            throw new IllegalArgumentException("参数个数不正确: " + positional);
+        }
+    }
+
+    // -------------------------- encrypt / decrypt --------------------------
+    private void runStream(boolean isEncrypt, List<String> positional, Map<String, String> options)
+            throws IOException {
+        expectArgs(positional, 1, 1);
+        SDesKey key = SDesKey.of(loadSpec(options), parseBits(positional.get(0), 10));
+        SDesMode mode = parseMode(options.getOrDefault("mode", "ECB"));
+        int iv = options.containsKey("iv") ? parseBits(options.get("iv"), 8) : 0;
+        TextCodec.Format inFormat = TextCodec.Format.parse(options.getOrDefault("in", "raw"));
+        TextCodec.Format outFormat = TextCodec.Format.parse(options.getOrDefault("out", "raw"));
+
+        InputStream rawIn = options.containsKey("input") ? new FileInputStream(options.get("input")) : stdin;
+        OutputStream rawOut = options.containsKey("output")
+                ? new FileOutputStream(options.get("output")) : stdout;
+        long startTime = System.nanoTime();
+        long total = 0;
+        try (InputStream in = inFormat.decodingStream(rawIn);
+             OutputStream out = outFormat.encodingStream(rawOut)) {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int chain = iv;
+            int n;
+            while ((n = readFully(in, buffer)) > 0) {
+                chain = isEncrypt
+                        ? mode.encrypt(key, chain, buffer, 0, n, buffer, 0)
+                        : mode.decrypt(key, chain, buffer, 0, n, buffer, 0);
+                out.write(buffer, 0, n);
+                total += n;
+            }
+        }
+        if (options.containsKey("stats")) {
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            stderr.printf("%s %s: %d 字节，耗时 %.3f 秒，%.2f MB/s%n", isEncrypt ? "加密" : "解密", mode,
+                    total, seconds, total / 1e6 / Math.max(seconds, 1e-9));
+        }
+    }
+
+    /**
+     * 尽量填满缓冲区，返回读到的字节数（0表示输入结束）
+     */
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int filled = 0;
+        while (filled < buffer.length) {
+            int n = in.read(buffer, filled, buffer.length - filled);
+            if (n < 0) {
+                break;
+            }
+            filled += n;
+        }
+        return filled;
+    }
+
+    private static SDesMode parseMode(String name) {
+        try {
+            return SDesMode.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("模式必须为ECB、CBC、OFB或CTR: " + name);
+        }
+    }
+
+    // -------------------------- batch --------------------------
+    /**
+     * 批量记录：每行"&lt;10位二进制密钥&gt; &lt;8位二进制分组&gt;"，空行与#开头的行跳过；
+     * 记录每攒满{@link #BATCH_RECORDS}条交给{@link SDesBatch}按密钥分桶处理一次，每行输出一个8位结果
+     */
+    private void runBatch(List<String> positional, Map<String, String> options) throws IOException {
+        expectArgs(positional, 1, 2);
+        boolean isEncrypt;
+        if ("encrypt".equals(positional.get(0))) {
+            isEncrypt = true;
+        } else if ("decrypt".equals(positional.get(0))) {
+            isEncrypt = false;
+        } else {
+            throw new IllegalArgumentException("batch操作必须为encrypt或decrypt");
+        }
+        CipherSpec spec = loadSpec(options);
+        InputStream rawIn = positional.size() > 1 && !"-".equals(positional.get(1))
+                ? Files.newInputStream(Paths.get(positional.get(1))) : stdin;
+
+        long startTime = System.nanoTime();
+        long records = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(rawIn, StandardCharsets.US_ASCII), STREAM_BUFFER_SIZE);
+             BufferedWriter writer = new BufferedWriter(
+                     new OutputStreamWriter(stdout,
+                             StandardCharsets.US_ASCII), STREAM_BUFFER_SIZE)) {
+            int[] keys = new int[BATCH_RECORDS];
+            byte[] blocks = new byte[BATCH_RECORDS];
+            int count = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                try {
+                    if (line.length() != 19 || line.indexOf(' ') != 10) {
+                        throw new IllegalArgumentException(
+                                "第" + lineNumber + "行格式应为\"<10位密钥> <8位分组>\": " + line);
+                    }
+                    keys[count] = parseBits(line, 0, 10);
+                    blocks[count] = (byte) parseBits(line, line.length() - 8, 8);
+                } catch (IllegalArgumentException e) {
+                    // 先输出出错行之前的记录
+                    writeBatch(writer, spec, isEncrypt, keys, blocks, count);
+                    throw e;
+                }
+                records++;
+                if (++count == BATCH_RECORDS) {
+                    writeBatch(writer, spec, isEncrypt, keys, blocks, count);
+                    count = 0;
+                }
+            }
+            writeBatch(writer, spec, isEncrypt, keys, blocks, count);
+        }
+        if (options.containsKey("stats")) {
+            long nanos = System.nanoTime() - startTime;
+            stderr.printf("批量%s: %d 条记录，耗时 %.3f 秒，%.0f 条/秒，平均 %.1f ns/条%n",
+                    isEncrypt ? "加密" : "解密", records, nanos / 1e9,
+                    records / Math.max(nanos / 1e9, 1e-9), records == 0 ? 0.0 : (double) nanos / records);
+        }
+    }
+
+    /**
+     * 处理一批记录并按输入顺序逐行输出（原地写回blocks）
+     */
+    private static void writeBatch(BufferedWriter writer, CipherSpec spec, boolean isEncrypt, int[] keys,
+                                   byte[] blocks, int count) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        int[] batchKeys = count == keys.length ? keys : Arrays.copyOf(keys, count);
+        byte[] batchBlocks = count == blocks.length ? blocks : Arrays.copyOf(blocks, count);
+        SDesBatch.transform(spec, isEncrypt, batchKeys, null, batchBlocks, batchBlocks);
+        char[] result = new char[9];
+        result[8] = '\n';
+        for (int i = 0; i < count; i++) {
+            int out = batchBlocks[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                result[bit] = (char) ('0' + ((out >>> (7 - bit)) & 1));
+            }
+            writer.write(result);
+        }
+    }
+
+    // -------------------------- crack --------------------------
+    private void runCrack(List<String> positional, Map<String, String> options) {
+        expectArgs(positional, 2, 2);
+        int[] plaintexts = parseBlocks(positional.get(0));
+        int[] ciphertexts = parseBlocks(positional.get(1));
+        int repeat = Integer.parseInt(options.getOrDefault("repeat", "1"));
+        if (repeat < 1) {
+            throw new IllegalArgumentException("--repeat 必须为正整数");
+        }
+
+        BruteForceEngine engine = BruteForceEngine.shared();
+        long[] latencies = new long[repeat];
+        int[] keys = null;
+        for (int i = 0; i < repeat; i++) {
+            long startTime = System.nanoTime();
+            keys = engine.crack(plaintexts, ciphertexts);
+            latencies[i] = System.nanoTime() - startTime;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int key : keys) {
+            sb.append(SDesUtil.toBinaryString(key, 10)).append('\n');
+        }
+        stdoutText.print(sb);
+        stdoutText.flush();
+
+        if (options.containsKey("stats")) {
+            long sum = 0;
+            for (long latency : latencies) {
+                sum += latency;
+            }
+            Arrays.sort(latencies);
+            long p99 = latencies[Math.min(repeat - 1, (int) Math.ceil(repeat * 0.99) - 1)];
+            // 单个明密文对查反向码本索引、多个对走位切片搜索，试加密的密钥数因路径而异，只报告搜索次数
+            stderr.printf("破解: %d 个候选密钥，%d 次，平均 %.3f ms，最快 %.3f ms，p99 %.3f ms，%.0f 次/秒%n",
+                    keys.length, repeat, sum / 1e6 / repeat, latencies[0] / 1e6, p99 / 1e6,
+                    repeat / Math.max(sum / 1e9, 1e-9));
+        }
+    }
+
+    // -------------------------- narrow --------------------------
+    /**
+     * 增量缩小：空行与#开头的行跳过；到达最终状态后不再读取后续输入。
+     * 标准输出第一行为状态，其后每行一个剩余候选密钥
+     */
+    private void runNarrow(List<String> positional, Map<String, String> options) throws IOException {
+        expectArgs(positional, 0, 1);
+        InputStream rawIn = !positional.isEmpty() && !"-".equals(positional.get(0))
+                ? Files.newInputStream(Paths.get(positional.get(0))) : stdin;
+        boolean stats = options.containsKey("stats");
+        KeyNarrowingSession session = new KeyNarrowingSession();
+        long startTime = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(rawIn, StandardCharsets.US_ASCII))) {
+            long lineNumber = 0;
+            String line;
+            while (!session.getState().isFinal() && (line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("第" + lineNumber + "行格式应为\"<8位明文> <8位密文>\": " + line);
+                }
+                session.accept(parseBits(parts[0], 8), parseBits(parts[1], 8));
+                if (stats) {
+                    stderr.printf("第 %d 对: 剩余 %d 个密钥%n", session.getPairsAccepted(), session.getCandidateCount());
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(session).append('\n');
+        for (int key : session.getCandidates()) {
+            sb.append(SDesUtil.toBinaryString(key, 10)).append('\n');
+        }
+        stdoutText.print(sb);
+        stdoutText.flush();
+        if (stats) {
+            stderr.printf("缩小: %d 对，耗时 %.3f ms%n", session.getPairsAccepted(),
+                    (System.nanoTime() - startTime) / 1e6);
+        }
+    }
+
+    // -------------------------- crack-text --------------------------
+    /**
+     * 唯密文破解：每行输出"&lt;10位密钥&gt; &lt;平均每字节得分&gt; &lt;明文预览&gt;"
+     */
+    private void runCrackText(List<String> positional, Map<String, String> options) throws IOException {
+        expectArgs(positional, 0, 0);
+        TextCodec.Format inFormat = TextCodec.Format.parse(options.getOrDefault("in", "raw"));
+        CiphertextOnlyCracker.Language language =
+                CiphertextOnlyCracker.Language.parse(options.getOrDefault("lang", "english"));
+        int topN = parsePositive(options, "top", CiphertextOnlyCracker.DEFAULT_TOP_N);
+        int sample = parsePositive(options, "sample", CiphertextOnlyCracker.DEFAULT_MAX_SAMPLE_BYTES);
+
+        InputStream rawIn = options.containsKey("input") ? new FileInputStream(options.get("input")) : stdin;
+        byte[] ciphertext;
+        try (InputStream in = inFormat.decodingStream(rawIn)) {
+            ciphertext = in.readAllBytes();
+        }
+        long startTime = System.nanoTime();
+        List<CiphertextOnlyCracker.Candidate> candidates;
+        try {
+            candidates = new CiphertextOnlyCracker(language, ForkJoinPool.commonPool(), sample)
+                    .crack(ciphertext, topN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("破解被中断");
+        }
+        long nanos = System.nanoTime() - startTime;
+        StringBuilder sb = new StringBuilder();
+        for (CiphertextOnlyCracker.Candidate candidate : candidates) {
+            String preview = CiphertextOnlyCracker.preview(ciphertext, candidate.getKey(), 48)
+                    .replaceAll("\\p{Cntrl}", ".");
+            sb.append(SDesUtil.toBinaryString(candidate.getKey(), 10))
+                    .append(String.format(" %.3f ", candidate.getScore())).append(preview).append('\n');
+        }
+        stdoutText.print(sb);
+        stdoutText.flush();
+
+        if (options.containsKey("stats")) {
+            stderr.printf("唯密文破解: 密文 %d 字节，打分样本 %d 字节，耗时 %.3f ms%n", ciphertext.length,
+                    candidates.get(0).getSampleBytes(), nanos / 1e6);
+        }
+    }
+
+    private static int parsePositive(Map<String, String> options, String name, int defaultValue) {
+        if (!options.containsKey(name)) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(options.get(name));
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // 与非正数一并报错
+        }
+        throw new IllegalArgumentException("--" + name + " 必须为正整数");
+    }
+
+    private static int[] parseBlocks(String list) {
+        String[] parts = list.split(",");
+        int[] blocks = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            blocks[i] = parseBits(parts[i].trim(), 8);
+        }
+        return blocks;
+    }
+
+    // -------------------------- analyze --------------------------
+    private void runAnalyze(List<String> positional, Map<String, String> options) throws IOException {
+        expectArgs(positional, 0, 0);
+        KeyEquivalenceAnalyzer.Report report = KeyEquivalenceAnalyzer.analyze(loadSpec(options));
+        PrintStream out = stdoutText;
+        long[] histogram = report.aggregateHistogram();
+        out.println("碰撞类大小分布（全部明文合计）:");
+        for (int size = 1; size < histogram.length; size++) {
+            if (histogram[size] != 0) {
+                out.printf("  %d 个密钥 -> 同一密文: %d 类%n", size, histogram[size]);
+            }
+        }
+        out.printf("全明文等价的密钥类: %d%n", report.equivalentKeyClasses().length);
+        out.printf("随机明密文对的期望候选密钥数: %.4f%n", report.expectedCandidates());
+        out.flush();
+        if (options.containsKey("csv")) {
+            report.writeCsv(Paths.get(options.get("csv")));
+        }
+        if (options.containsKey("json")) {
+            report.writeJson(Paths.get(options.get("json")));
+        }
+        if (options.containsKey("stats")) {
+            double millis = report.elapsedMillis();
+            stderr.printf("分析: 耗时 %.3f ms，%.0f 次加密/秒%n", millis,
+                    (double) SDesCodebook.KEY_COUNT * SDesCodebook.BLOCK_COUNT / Math.max(millis / 1e3, 1e-9));
+        }
+    }
+
+    // -------------------------- 工具方法 --------------------------
+    private static CipherSpec loadSpec(Map<String, String> options) throws IOException {
+        return options.containsKey("spec") ? CipherSpec.load(Paths.get(options.get("spec"))) : CipherSpec.STANDARD;
+    }
+
+    private static int parseBits(String text, int width) {
+        if (text.length() != width) {
+            throw new IllegalArgumentException("必须为" + width + "位二进制: " + text);
+        }
+        return parseBits(text, 0, width);
+    }
+
+    /**
+     * 解析text中从from开始的width位二进制数字
+     */
+    private static int parseBits(String text, int from, int width) {
+        int value = 0;
+        for (int i = from; i < from + width; i++) {
+            char c = text.charAt(i);
+            if (c != '0' && c != '1') {
+                throw new IllegalArgumentException("必须为" + width + "位二进制: " + text);
+            }
+            value = (value << 1) | (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.stream.IntStream;
+
+/**
+ * S-DES全码本查表引擎：预先计算1024个密钥 × 256个分组的全部加解密结果
+ * <p>
+ * 加密表与解密表各256KB，下标为 (key &lt;&lt; 8) | block，首次使用时并行构建一次，
+ * 之后每个分组的加解密只需一次数组读取。
+ */
+public final class SDesCodebook {
+    /** 密钥空间大小（10位） */
+    public static final int KEY_COUNT = 1 << 10;
+    /** 分组空间大小（8位） */
+    public static final int BLOCK_COUNT = 1 << 8;
+
+    /** 加密码本：ENCRYPT[(key << 8) | plaintext] = ciphertext */
+    private static final byte[] ENCRYPT = new byte[KEY_COUNT * BLOCK_COUNT];
+    /** 解密码本：DECRYPT[(key << 8) | ciphertext] = plaintext */
+    private static final byte[] DECRYPT = new byte[KEY_COUNT * BLOCK_COUNT];
+
+    static {
+        Builder.build(ENCRYPT, DECRYPT);
+    }
+
+    private SDesCodebook() {
+    }
+
+    /**
+     * 码本构建器。并行任务不能回调正在初始化的SDesCodebook（会与类初始化锁死锁），
+     * 因此填充逻辑放在独立的嵌套类中，只操作传入的数组。
+     */
+    private static final class Builder {
+        static void build(byte[] encrypt, byte[] decrypt) {
+            // 各密钥的码本行互不相交，可按密钥并行填充
+            IntStream.range(0, KEY_COUNT).parallel().forEach(key -> fillRow(key, encrypt, decrypt));
+        }
+
+        /**
+         * 以参考实现计算某个密钥的加密行，并按置换求逆得到解密行
+         */
+        private static void fillRow(int key, byte[] encrypt, byte[] decrypt) {
+            int subkeys = SDesUtil.generateSubkeysPacked(key);
+            int k1 = subkeys >>> 8;
+            int k2 = subkeys & 0xFF;
+            int base = key << 8;
+            for (int block = 0; block < BLOCK_COUNT; block++) {
+                int cipher = SDesUtil.encryptBlock(block, k1, k2);
+                encrypt[base | block] = (byte) cipher;
+                decrypt[base | cipher] = (byte) block;
+            }
+        }
+    }
+
+    /**
+     * 查表加密
+     * @param block 8位明文（低8位有效）
+     * @param key 10位密钥（低10位有效）
+     * @return 8位密文
+     */
+    public static int encrypt(int block, int key) {
+        return ENCRYPT[((key & 0x3FF) << 8) | (block & 0xFF)] & 0xFF;
+    }
+
+    /**
+     * 查表解密
+     * @param block 8位密文（低8位有效）
+     * @param key 10位密钥（低10位有效）
+     * @return 8位明文
+     */
+    public static int decrypt(int block, int key) {
+        return DECRYPT[((key & 0x3FF) << 8) | (block & 0xFF)] & 0xFF;
+    }
+
+    /**
+     * 某个密钥的码本行在整表中的起始下标
+     */
+    public static int rowOffset(int key) {
+        return (key & 0x3FF) << 8;
+    }
+
+    /**
+     * 共享的加密码本（只读，供批量引擎直接索引，调用方不得修改）
+     */
+    static byte[] encryptTable() {
+        return ENCRYPT;
+    }
+
+    /**
+     * 共享的解密码本（只读，供批量引擎直接索引，调用方不得修改）
+     */
+    static byte[] decryptTable() {
+        return DECRYPT;
+    }
+}
@@ -1,12 +1,15 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * S-DES加解密GUI界面（修复组件引用错误，确保可运行）
@@ -25,9 +28,33 @@ public class SDesGUI extends JFrame {
     // 按钮组件（全局引用，用于绑定事件）
     private JButton encryptBtn;
     private JButton decryptBtn;
-    private JButton asciiEncryptBtn;
-    private JButton asciiDecryptBtn;
+    private JButton textEncryptBtn;
+    private JButton textDecryptBtn;
+    private JComboBox<TextCodec.Format> textFormatBox;
+    private JButton fileEncryptBtn;
+    private JButton fileDecryptBtn;
     private JButton bruteForceBtn;
+    private JButton ciphertextOnlyBtn;
+    private JComboBox<CiphertextOnlyCracker.Language> languageBox;
+
+    // 后台任务组件：进度条、取消按钮与大结果的懒渲染列表
+    private JProgressBar progressBar;
+    private JButton cancelBtn;
+    private JPanel resultCards;
+    private JList<String> resultList;
+    /** 当前后台任务（同一时间只运行一个，后台计算真正结束后才清空） */
+    private BackgroundTask<?, ?> currentWorker;
+    /** 取消当前任务时的附加动作（如取消暴力破解搜索） */
+    private Runnable cancelHook;
+
+    /** 超过该字符数的结果改用懒渲染列表显示 */
+    private static final int INLINE_RESULT_LIMIT = 4096;
+    /** 懒渲染列表每行字符数 */
+    private static final int RESULT_ROW_WIDTH = 64;
+    /** 文本加解密每次处理并汇报进度的字节数（块内由ECB并行引擎拆分到多核） */
+    private static final int TEXT_CHUNK_SIZE = 1024 * 1024;
+    /** 唯密文破解结果中每个候选展示的明文字节数 */
+    private static final int PREVIEW_BYTES = 40;
 
     public SDesGUI() {
         initUI();
@@ -52,7 +79,7 @@ public class SDesGUI extends JFrame {
 
         // -------------------------- 基础加解密区域 --------------------------
         // 明文标签与输入框
-        JLabel plaintextLabel = new JLabel("明文或密文 (8bit二进制/ASCII):");
+        JLabel plaintextLabel = new JLabel("明文或密文 (8bit二进制/文本):");
         gbc.gridx = 0;
         gbc.gridy = 0;
         gbc.gridwidth = 1;
@@ -79,15 +106,40 @@ public class SDesGUI extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
         encryptBtn = new JButton("二进制加密");
         decryptBtn = new JButton("二进制解密");
-        asciiEncryptBtn = new JButton("ASCII加密");
-        asciiDecryptBtn = new JButton("ASCII解密");
+        textEncryptBtn = new JButton("文本加密");
+        textDecryptBtn = new JButton("文本解密");
+        // 文本模式下密文的表示格式：加密时输出、解密时输入
+        textFormatBox = new JComboBox<>(TextCodec.Format.values());
+        textFormatBox.setSelectedItem(TextCodec.Format.HEX);
+        textFormatBox.setToolTipText("文本模式下密文的格式");
+        fileEncryptBtn = new JButton("文件加密");
+        fileDecryptBtn = new JButton("文件解密");
         bruteForceBtn = new JButton("暴力破解");
+        // 唯密文破解：把输入框内容按所选格式当作文本加密的密文，按所选语言打分
+        ciphertextOnlyBtn = new JButton("唯密文破解");
+        languageBox = new JComboBox<>(CiphertextOnlyCracker.Language.values());
+        languageBox.setSelectedItem(CiphertextOnlyCracker.Language.ENGLISH);
+        languageBox.setToolTipText("唯密文破解时假设的明文语言");
 
         buttonPanel.add(encryptBtn);
         buttonPanel.add(decryptBtn);
-        buttonPanel.add(asciiEncryptBtn);
-        buttonPanel.add(asciiDecryptBtn);
+        buttonPanel.add(textEncryptBtn);
+        buttonPanel.add(textDecryptBtn);
+        buttonPanel.add(textFormatBox);
+        buttonPanel.add(fileEncryptBtn);
+        buttonPanel.add(fileDecryptBtn);
         buttonPanel.add(bruteForceBtn);
+        buttonPanel.add(ciphertextOnlyBtn);
+        buttonPanel.add(languageBox);
+
+        // 进度条与取消按钮（仅在后台任务运行时可用）
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("就绪");
+        cancelBtn = new JButton("取消");
+        cancelBtn.setEnabled(false);
+        buttonPanel.add(progressBar);
+        buttonPanel.add(cancelBtn);
 
         gbc.gridx = 0;
         gbc.gridy = 2;
@@ -105,11 +157,19 @@ public class SDesGUI extends JFrame {
         resultArea.setEditable(false);
         resultArea.setLineWrap(true);
         JScrollPane resultScroll = new JScrollPane(resultArea);
+
+        // 大结果用JList按行懒渲染：只为可见行生成文本，固定行高避免测量全部行
+        resultList = new JList<>();
+        resultList.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        resultList.setPrototypeCellValue(repeat('0', RESULT_ROW_WIDTH));
+        resultCards = new JPanel(new CardLayout());
+        resultCards.add(resultScroll, "text");
+        resultCards.add(new JScrollPane(resultList), "list");
         gbc.gridx = 1;
         gbc.gridy = 3;
         gbc.fill = GridBagConstraints.BOTH; // 结果区域同时水平和垂直填充
         gbc.weighty = 1.0; // 分配垂直方向额外空间
-        mainPanel.add(resultScroll, gbc);
+        mainPanel.add(resultCards, gbc);
 
         // 重置权重和填充方式，避免影响后续组件
         gbc.fill = GridBagConstraints.HORIZONTAL;
@@ -176,9 +236,189 @@ public class SDesGUI extends JFrame {
     private void bindEvents() {
         encryptBtn.addActionListener(e -> handleBinaryOperation(true));
         decryptBtn.addActionListener(e -> handleBinaryOperation(false));
-        asciiEncryptBtn.addActionListener(e -> handleAsciiOperation(true));
-        asciiDecryptBtn.addActionListener(e -> handleAsciiOperation(false));
+        textEncryptBtn.addActionListener(e -> handleTextOperation(true));
+        textDecryptBtn.addActionListener(e -> handleTextOperation(false));
+        fileEncryptBtn.addActionListener(e -> handleFileOperation(true));
+        fileDecryptBtn.addActionListener(e -> handleFileOperation(false));
         bruteForceBtn.addActionListener(e -> handleBruteForce());
+        ciphertextOnlyBtn.addActionListener(e -> handleCiphertextOnlyCrack());
+        cancelBtn.addActionListener(e -> cancelCurrentTask());
+    }
+
+    // -------------------------- 后台任务管理 --------------------------
+    /**
+     * 启动后台任务：禁用操作按钮、启用取消按钮
+     * @param worker 后台任务
+     * @param status 进度条上显示的状态
+     * @param onCancel 取消时的附加动作，可为null
+     */
+    private void startTask(BackgroundTask<?, ?> worker, String status, Runnable onCancel) {
+        currentWorker = worker;
+        cancelHook = onCancel;
+        setOperationsEnabled(false);
+        cancelBtn.setEnabled(true);
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(0);
+        progressBar.setString(status);
+        worker.execute();
+    }
+
+    /**
+     * 后台任务结束（在事件线程的done()中调用）：禁用取消按钮；操作按钮等后台计算真正停止后再启用
+     */
+    private void finishTask(BackgroundTask<?, ?> worker) {
+        cancelHook = null;
+        cancelBtn.setEnabled(false);
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(0);
+        progressBar.setString("正在停止…");
+        worker.markDone();
+    }
+
+    /**
+     * 后台计算已停止且done()已调用：重新启用操作按钮
+     */
+    private void releaseTask(BackgroundTask<?, ?> worker) {
+        if (currentWorker == worker) {
+            currentWorker = null;
+            setOperationsEnabled(true);
+            progressBar.setString("就绪");
+        }
+    }
+
+    private void cancelCurrentTask() {
+        if (currentWorker != null) {
+            if (cancelHook != null) {
+                cancelHook.run();
+            }
+            currentWorker.cancel(true);
+        }
+    }
+
+    private void setOperationsEnabled(boolean enabled) {
+        encryptBtn.setEnabled(enabled);
+        decryptBtn.setEnabled(enabled);
+        textEncryptBtn.setEnabled(enabled);
+        textDecryptBtn.setEnabled(enabled);
+        textFormatBox.setEnabled(enabled);
+        fileEncryptBtn.setEnabled(enabled);
+        fileDecryptBtn.setEnabled(enabled);
+        bruteForceBtn.setEnabled(enabled);
+        ciphertextOnlyBtn.setEnabled(enabled);
+        languageBox.setEnabled(enabled);
+    }
+
+    private void updateProgress(long done, long total) {
+        int percent = total == 0 ? 100 : (int) (done * 100 / total);
+        progressBar.setValue(percent);
+        progressBar.setString(percent + "%");
+    }
+
+    /**
+     * 显示文本结果：短结果直接放入文本框，长结果切换到懒渲染列表
+     * @param header 结果说明
+     * @param text 结果正文
+     */
+    private void showResult(String header, String text) {
+        CardLayout cards = (CardLayout) resultCards.getLayout();
+        if (text.length() <= INLINE_RESULT_LIMIT) {
+            resultArea.setText(header + text);
+            cards.show(resultCards, "text");
+        } else {
+            resultList.setModel(new LazyTextListModel(
+                    header + "（共" + text.length() + "个字符，按每行" + RESULT_ROW_WIDTH + "个字符分行显示）",
+                    text, RESULT_ROW_WIDTH));
+            cards.show(resultCards, "list");
+        }
+    }
+
+    /**
+     * 显示状态/错误信息
+     */
+    private void showMessage(String message) {
+        resultArea.setText(message);
+        ((CardLayout) resultCards.getLayout()).show(resultCards, "text");
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    /**
+     * 后台任务：子类实现{@link #compute()}
+     * <p>
+     * 取消后SwingWorker立即在事件线程调用done()，此时doInBackground可能仍在运行。这里记录后台计算是否已结束
+     * （或取消时尚未开始、之后不再开始），只有结束后才释放任务，避免新任务叠加在仍在运行的旧任务上。
+     */
+    private abstract class BackgroundTask<T, V> extends SwingWorker<T, V> {
+        private static final int NOT_STARTED = 0;
+        private static final int RUNNING = 1;
+        private static final int STOPPED = 2;
+
+        private final AtomicInteger phase = new AtomicInteger(NOT_STARTED);
+        /** done()是否已调用（只在事件线程访问） */
+        private boolean doneCalled;
+
+        /**
+         * 后台计算（在工作线程中执行）
+         */
+        protected abstract T compute() throws Exception;
+
+        @Override
+        protected final T doInBackground() throws Exception {
+            if (!phase.compareAndSet(NOT_STARTED, RUNNING)) {
+                return null;
+            }
+            try {
+                return compute();
+            } finally {
+                phase.set(STOPPED);
+                SwingUtilities.invokeLater(this::releaseIfStopped);
+            }
+        }
+
+        private void markDone() {
+            doneCalled = true;
+            phase.compareAndSet(NOT_STARTED, STOPPED);
+            releaseIfStopped();
+        }
+
+        private void releaseIfStopped() {
+            if (doneCalled && phase.get() == STOPPED) {
+                releaseTask(this);
+            }
+        }
+    }
+
+    /**
+     * 按固定宽度把长文本切成行的列表模型，行内容在渲染时才生成
+     */
+    private static final class LazyTextListModel extends AbstractListModel<String> {
+        private final String header;
+        private final String text;
+        private final int rowWidth;
+
+        LazyTextListModel(String header, String text, int rowWidth) {
+            this.header = header;
+            this.text = text;
+            this.rowWidth = rowWidth;
+        }
+
+        @Override
+        public int getSize() {
+            return 1 + (text.length() + rowWidth - 1) / rowWidth;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            if (index == 0) {
+                return header;
+            }
+            int from = (index - 1) * rowWidth;
+            return text.substring(from, Math.min(text.length(), from + rowWidth));
+        }
     }
 
     /**
@@ -187,109 +427,201 @@ public class SDesGUI extends JFrame {
     private void handleBinaryOperation(boolean isEncrypt) {
         String inputStr = plaintextField.getText().trim();
         String keyStr = keyField.getText().trim();
-        resultArea.setText("");
+        showMessage("");
 
         // 输入校验
         if (inputStr.length() != 8) {
-            resultArea.setText("❌ 错误：二进制输入必须为8位");
+            showMessage("❌ 错误：二进制输入必须为8位");
             return;
         }
         if (keyStr.length() != 10) {
-            resultArea.setText("❌ 错误：密钥必须为10位二进制");
+            showMessage("❌ 错误：密钥必须为10位二进制");
             return;
         }
 
         try {
             int[] inputArray = SDesUtil.binaryStrToIntArray(inputStr);
             int[] keyArray = SDesUtil.binaryStrToIntArray(keyStr);
-            if(isEncrypt){
-                int[] resultArray = SDesUtil.encrypt(inputArray, keyArray);
-                String resultStr = SDesUtil.intArrayToBinaryStr(resultArray);
-                resultArea.setText( "✅ 密文: " + resultStr);
-                System.out.println(resultStr);
-            }
-            else{
-                int[] resultArray = SDesUtil.decrypt(inputArray, keyArray);
-                String resultStr = SDesUtil.intArrayToBinaryStr(resultArray);
-                resultArea.setText("✅ 明文: " + resultStr);
-                System.out.println(resultStr);
-            };
+            startTask(new BackgroundTask<String, Void>() {
+                @Override
+                protected String compute() {
+                    int[] resultArray = isEncrypt
+                            ? SDesUtil.encrypt(inputArray, keyArray)
+                            : SDesUtil.decrypt(inputArray, keyArray);
+                    return SDesUtil.intArrayToBinaryStr(resultArray);
+                }
+
+                @Override
+                protected void done() {
+                    finishTask(this);
+                    if (isCancelled()) {
+                        showMessage("⚠ 操作已取消");
+                        return;
+                    }
+                    try {
+                        String resultStr = get();
+                        showMessage((isEncrypt ? "✅ 密文: " : "✅ 明文: ") + resultStr);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        showMessage("❌ 操作中断：" + e.getMessage());
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        showMessage(cause instanceof IllegalArgumentException
+                                ? "❌ 错误：" + cause.getMessage()
+                                : "❌ 操作失败：" + cause.getMessage());
+                    }
+                }
+            }, isEncrypt ? "加密中" : "解密中", null);
         } catch (IllegalArgumentException ex) {
-            resultArea.setText("❌ 错误：" + ex.getMessage());
+            showMessage("❌ 错误：" + ex.getMessage());
         }
     }
 
     /**
-     * 处理ASCII字符串的加密或解密操作
+     * 处理文本的加密或解密操作（后台分块处理，可取消）
+     * <p>
+     * 加密：明文按UTF-8编码为字节 → ECB加密 → 按所选格式输出密文；
+     * 解密：按所选格式解析密文 → ECB解密 → 按UTF-8还原明文。任意Unicode文本均可正确往返。
      * @param isEncrypt true表示加密，false表示解密
      */
-    private void handleAsciiOperation(boolean isEncrypt) {
+    private void handleTextOperation(boolean isEncrypt) {
         // 清空结果区域
-        resultArea.setText("");
+        showMessage("");
 
-        // 获取输入和密钥
+        // 获取输入、密钥和密文格式
         String inputStr = plaintextField.getText().trim();
         String keyStr = keyField.getText().trim();
+        TextCodec.Format format = (TextCodec.Format) textFormatBox.getSelectedItem();
 
         // 1. 验证密钥合法性
         if (!isValidKey(keyStr)) {
-            resultArea.setText("❌ 错误：密钥必须为10位二进制数字（仅包含0和1）");
+            showMessage("❌ 错误：密钥必须为10位二进制数字（仅包含0和1）");
             return;
         }
 
-        try {
-            // 2. 密钥转换：字符串 -> 整数数组（用于S-DES算法）
-            int[] keyArray = SDesUtil.binaryStrToIntArray(keyStr);
+        // 2. 密钥预处理：只做一次密钥扩展，后续逐块查表
+        SDesKey key = SDesKey.fromBinary(keyStr);
 
-            // 3. 输入转换：ASCII字符串 -> 二进制字符串
-            String inputBinary;
-            if (isEncrypt) {
-                // 加密：ASCII明文 -> 二进制
-                inputBinary = SDesUtil.asciiToBinary(inputStr);
-                // 验证加密输入的二进制长度（理论上ASCII转换后一定是8的倍数，此处为防御性检查）
-                if (inputBinary.length() % 8 != 0) {
-                    resultArea.setText("❌ 错误：明文转换后二进制长度异常");
-                    return;
-                }
-            } else {
-                // 解密：密文（ASCII字符对应的二进制）
-                inputBinary = SDesUtil.asciiToBinary(inputStr);
-                // 解密必须保证二进制长度是8的倍数（每个加密块为8位）
-                if (inputBinary.length() % 8 != 0) {
-                    resultArea.setText("❌ 错误：密文对应的二进制长度必须是8的倍数");
-                    return;
+        startTask(new BackgroundTask<String, Integer>() {
+            /** 待处理的总字节数（用于进度显示） */
+            private volatile int totalBytes;
+
+            @Override
+            protected String compute() {
+                // 3. 输入转换：明文按UTF-8、密文按所选格式直接转为字节（每个字节为一个8位分组）
+                byte[] data = isEncrypt ? TextCodec.encodeUtf8(inputStr) : format.decode(inputStr);
+                totalBytes = data.length;
+
+                // 4. 分块原地加密/解密（ECB，大块自动并行），每块汇报一次进度并检查是否已取消
+                for (int off = 0; off < data.length; off += TEXT_CHUNK_SIZE) {
+                    if (isCancelled()) {
+                        return null;
+                    }
+                    int len = Math.min(TEXT_CHUNK_SIZE, data.length - off);
+                    if (isEncrypt) {
+                        SDesMode.ECB.encrypt(key, 0, data, off, len, data, off);
+                    } else {
+                        SDesMode.ECB.decrypt(key, 0, data, off, len, data, off);
+                    }
+                    publish(off + len);
                 }
+
+                // 5. 结果转换：密文按所选格式输出，明文按UTF-8还原
+                return isEncrypt ? format.encode(data, 0, data.length) : TextCodec.decodeUtf8(data, 0, data.length);
             }
 
-            // 4. 逐8位块处理（S-DES算法处理单位为8位）
-            StringBuilder binaryResult = new StringBuilder();
-            for (int i = 0; i < inputBinary.length(); i += 8) {
-                // 截取8位二进制块
-                String byteStr = inputBinary.substring(i, i + 8);
-                // 转换为整数数组
-                int[] byteArray = SDesUtil.binaryStrToIntArray(byteStr);
-                // 加密/解密处理
-                int[] processedArray = isEncrypt
-                        ? SDesUtil.encrypt(byteArray, keyArray)
-                        : SDesUtil.decrypt(byteArray, keyArray);
-                // 转换回二进制字符串并拼接
-                binaryResult.append(SDesUtil.intArrayToBinaryStr(processedArray));
+            @Override
+            protected void process(List<Integer> chunks) {
+                updateProgress(chunks.get(chunks.size() - 1), totalBytes);
             }
 
-            // 5. 结果转换：二进制 -> ASCII字符串
-            String asciiResult = SDesUtil.binaryToAscii(binaryResult.toString());
+            @Override
+            protected void done() {
+                finishTask(this);
+                // 6. 显示结果
+                if (isCancelled()) {
+                    showMessage("⚠ 操作已取消");
+                    return;
+                }
+                try {
+                    String resultPrefix = isEncrypt ? "✅ 文本加密结果: " : "✅ 文本解密结果: ";
+                    showResult(resultPrefix, get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    showMessage("❌ 操作中断：" + e.getMessage());
+                } catch (ExecutionException e) {
+                    // 处理输入校验等已知异常及其他未知异常
+                    Throwable cause = e.getCause();
+                    showMessage(cause instanceof IllegalArgumentException
+                            ? "❌ 错误：" + cause.getMessage()
+                            : "❌ 操作失败：" + cause.getMessage());
+                }
+            }
+        }, isEncrypt ? "文本加密中" : "文本解密中", null);
+    }
 
-            // 6. 显示结果（修复三元运算符拼接问题）
-            String resultPrefix = isEncrypt ? "✅ ASCII加密结果: " : "✅ ASCII解密结果: ";
-            resultArea.setText(resultPrefix + asciiResult);
+    /**
+     * 处理文件加解密（ECB模式，内存映射后台执行，避免阻塞界面）
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    private void handleFileOperation(boolean isEncrypt) {
+        showMessage("");
+        String keyStr = keyField.getText().trim();
+        if (!isValidKey(keyStr)) {
+            showMessage("❌ 错误：密钥必须为10位二进制数字（仅包含0和1）");
+            return;
+        }
+        SDesKey key = SDesKey.fromBinary(keyStr);
 
-        } catch (IllegalArgumentException e) {
-            // 处理二进制转换、密钥解析等已知异常
-            resultArea.setText("❌ 错误：" + e.getMessage());
-        } catch (Exception e) {
-            // 处理其他未知异常
-            resultArea.setText("❌ 操作失败：" + e.getMessage());
+        // 选择输入与输出文件
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(isEncrypt ? "选择待加密文件" : "选择待解密文件");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path input = chooser.getSelectedFile().toPath();
+        chooser.setDialogTitle("选择输出文件");
+        chooser.setSelectedFile(new File(input + (isEncrypt ? ".sdes" : ".out")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path output = chooser.getSelectedFile().toPath();
+        if (output.toAbsolutePath().equals(input.toAbsolutePath())) {
+            showMessage("❌ 错误：输出文件不能与输入文件相同");
+            return;
         }
+
+        showMessage("⏳ 正在处理: " + input);
+        long startTime = System.nanoTime();
+        startTask(new BackgroundTask<Long, Void>() {
+            @Override
+            protected Long compute() throws IOException {
+                return isEncrypt
+                        ? SDesFileCipher.encryptFile(input, output, key, SDesMode.ECB, 0)
+                        : SDesFileCipher.decryptFile(input, output, key, SDesMode.ECB, 0);
+            }
+
+            @Override
+            protected void done() {
+                finishTask(this);
+                if (isCancelled()) {
+                    showMessage("⚠ 文件处理已取消，输出文件不完整: " + output);
+                    return;
+                }
+                try {
+                    long bytes = get();
+                    double timeTaken = (System.nanoTime() - startTime) / 1e9;
+                    showMessage((isEncrypt ? "✅ 文件加密完成: " : "✅ 文件解密完成: ") + output
+                            + "\n共 " + bytes + " 字节，耗时 " + String.format("%.3f", timeTaken) + " 秒");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    showMessage("❌ 操作中断：" + e.getMessage());
+                } catch (ExecutionException e) {
+                    showMessage("❌ 文件处理失败：" + e.getCause().getMessage());
+                }
+            }
+        }, isEncrypt ? "文件加密中" : "文件解密中", null);
+        progressBar.setIndeterminate(true);
     }
 
     /**
@@ -313,7 +645,7 @@ public class SDesGUI extends JFrame {
 
 
     /**
-     * 处理暴力破解
+     * 处理暴力破解（在共享引擎上后台搜索，可取消）
      */
     private void handleBruteForce() {
         String plaintextStr = bfPlaintextField.getText().trim();
@@ -326,63 +658,117 @@ public class SDesGUI extends JFrame {
         }
 
         try {
-            int[] plaintextArray = SDesUtil.binaryStrToIntArray(plaintextStr);
-            int[] targetCipherArray = SDesUtil.binaryStrToIntArray(ciphertextStr);
+            int plaintext = SDesUtil.bitsToInt(SDesUtil.binaryStrToIntArray(plaintextStr));
+            int ciphertext = SDesUtil.bitsToInt(SDesUtil.binaryStrToIntArray(ciphertextStr));
 
             long startTime = System.currentTimeMillis();
-            List<String> foundKeys = new ArrayList<>();
-
-            // 多线程破解（4线程）
-            int threadCount = 4;
-            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-            CountDownLatch latch = new CountDownLatch(threadCount);
-
-            for (int i = 0; i < threadCount; i++) {
-                int start = i * 256;
-                int end = (i + 1) * 256;
+            AtomicReference<BruteForceEngine.Search> search = new AtomicReference<>();
+
+            startTask(new BackgroundTask<int[], Integer>() {
+                @Override
+                protected int[] compute() throws Exception {
+                    // 进度回调来自引擎工作线程，经publish汇总后在事件线程中显示
+                    BruteForceEngine.Search running = BruteForceEngine.shared()
+                            .search(new int[]{plaintext}, new int[]{ciphertext}, (tested, total) -> publish(tested));
+                    search.set(running);
+                    return running.get();
+                }
 
-                executor.submit(() -> {
-                    for (int keyInt = start; keyInt < end; keyInt++) {
-                        String keyStr = String.format("%10s", Integer.toBinaryString(keyInt)).replace(' ', '0');
-                        int[] keyArray = SDesUtil.binaryStrToIntArray(keyStr);
+                @Override
+                protected void process(List<Integer> chunks) {
+                    updateProgress(chunks.get(chunks.size() - 1), BruteForceEngine.KEY_COUNT);
+                }
 
-                        if (Arrays.equals(SDesUtil.encrypt(plaintextArray, keyArray), targetCipherArray)) {
-                            synchronized (foundKeys) {
-                                foundKeys.add(keyStr);
-                            }
-                        }
+                @Override
+                protected void done() {
+                    finishTask(this);
+                    if (isCancelled()) {
+                        bfResultArea.setText("⚠ 破解已取消");
+                        return;
                     }
-                    latch.countDown();
-                });
-            }
-
-            // 等待线程完成并更新UI
-            new Thread(() -> {
-                try {
-                    latch.await();
-                    executor.shutdown();
-                    long endTime = System.currentTimeMillis();
-                    double timeTaken = (endTime - startTime) / 1000.0;
-
+                    double timeTaken = (System.currentTimeMillis() - startTime) / 1000.0;
                     StringBuilder resultSb = new StringBuilder();
-                    resultSb.append("✅ 破解完成！耗时: ").append(String.format("%.3f", timeTaken)).append(" 秒\n");
-                    if (foundKeys.isEmpty()) {
-                        resultSb.append("❌ 未找到匹配的密钥");
-                    } else {
-                        resultSb.append("🔑 找到的密钥（共").append(foundKeys.size()).append("个）: ").append(foundKeys);
+                    try {
+                        int[] keys = get();
+                        resultSb.append("✅ 破解完成！耗时: ").append(String.format("%.3f", timeTaken)).append(" 秒\n");
+                        if (keys.length == 0) {
+                            resultSb.append("❌ 未找到匹配的密钥");
+                        } else {
+                            List<String> foundKeys = new ArrayList<>(keys.length);
+                            for (int key : keys) {
+                                foundKeys.add(SDesUtil.toBinaryString(key, 10));
+                            }
+                            resultSb.append("🔑 找到的密钥（共").append(foundKeys.size()).append("个）: ").append(foundKeys);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        resultSb.append("❌ 破解中断：").append(e.getMessage());
+                    } catch (ExecutionException e) {
+                        resultSb.append("❌ 破解中断：").append(e.getCause().getMessage());
                     }
-
-                    SwingUtilities.invokeLater(() -> bfResultArea.setText(resultSb.toString()));
-                } catch (InterruptedException e) {
-                    SwingUtilities.invokeLater(() -> bfResultArea.setText("❌ 破解中断：" + e.getMessage()));
+                    bfResultArea.setText(resultSb.toString());
+                }
+            }, "破解中", () -> {
+                BruteForceEngine.Search running = search.get();
+                if (running != null) {
+                    running.cancel(true);
                 }
-            }).start();
+            });
 
         } catch (IllegalArgumentException ex) {
             bfResultArea.setText("❌ 错误：" + ex.getMessage());
         }
     }
 
+    /**
+     * 处理唯密文破解：输入框内容按所选格式解析为文本加密的密文，按语言模型找出最可能的密钥
+     */
+    private void handleCiphertextOnlyCrack() {
+        String inputStr = plaintextField.getText().trim();
+        TextCodec.Format format = (TextCodec.Format) textFormatBox.getSelectedItem();
+        CiphertextOnlyCracker.Language language = (CiphertextOnlyCracker.Language) languageBox.getSelectedItem();
+        bfResultArea.setText("");
+
+        long startTime = System.currentTimeMillis();
+        startTask(new BackgroundTask<String, Void>() {
+            @Override
+            protected String compute() throws InterruptedException {
+                byte[] ciphertext = format.decode(inputStr);
+                List<CiphertextOnlyCracker.Candidate> candidates = new CiphertextOnlyCracker(language)
+                        .crack(ciphertext, CiphertextOnlyCracker.DEFAULT_TOP_N);
+                StringBuilder resultSb = new StringBuilder();
+                for (CiphertextOnlyCracker.Candidate candidate : candidates) {
+                    resultSb.append("\n🔑 ").append(candidate).append("  ")
+                            .append(CiphertextOnlyCracker.preview(ciphertext, candidate.getKey(), PREVIEW_BYTES));
+                }
+                return resultSb.toString();
+            }
+
+            @Override
+            protected void done() {
+                finishTask(this);
+                if (isCancelled()) {
+                    bfResultArea.setText("⚠ 破解已取消");
+                    return;
+                }
+                double timeTaken = (System.currentTimeMillis() - startTime) / 1000.0;
+                try {
+                    bfResultArea.setText("✅ 唯密文破解完成（" + language + "），耗时: "
+                            + String.format("%.3f", timeTaken) + " 秒，最可能的密钥:" + get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    bfResultArea.setText("❌ 破解中断：" + e.getMessage());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    bfResultArea.setText(cause instanceof IllegalArgumentException
+                            ? "❌ 错误：" + cause.getMessage()
+                            : "❌ 破解失败：" + cause.getMessage());
+                }
+            }
+        }, "唯密文破解中", null);
+        progressBar.setIndeterminate(true);
+    }
+
     /**
      * 主方法：启动程序
      */
@@ -0,0 +1,118 @@
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * S-DES加解密输入流（类似{@link javax.crypto.CipherInputStream}）
+ * <p>
+ * 批量读取时直接读入调用方数组并原地整块加解密；单字节读取从内部缓冲区取数，
+ * 缓冲区每次整块填充并处理，不会逐字节访问底层流。
+ */
+public class SDesInputStream extends FilterInputStream {
+    private final SDesStreamTransform transform;
+    /** 已处理、尚未被读走的数据 */
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * ECB模式输入流
+     * @param in 底层输入流
+     * @param key 预处理后的密钥
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    public SDesInputStream(InputStream in, SDesKey key, boolean isEncrypt) {
+        this(in, key, SDesMode.ECB, 0, isEncrypt);
+    }
+
+    /**
+     * @param in 底层输入流
+     * @param key 预处理后的密钥
+     * @param mode 工作模式
+     * @param iv 8位初始值（ECB忽略）
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    public SDesInputStream(InputStream in, SDesKey key, SDesMode mode, int iv, boolean isEncrypt) {
+        super(in);
+        this.transform = new SDesStreamTransform(key, mode, iv, isEncrypt);
+        this.buffer = new byte[SDesOutputStream.DEFAULT_BUFFER_SIZE];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !fillBuffer()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        // 先读走缓冲区中剩余的已处理数据
+        if (position < limit) {
+            int n = Math.min(len, limit - position);
+            System.arraycopy(buffer, position, b, off, n);
+            position += n;
+            return n;
+        }
+        // 缓冲区为空：直接读入调用方数组并原地处理，省去一次拷贝
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            transform.apply(b, off, n);
+        }
+        return n;
+    }
+
+    /**
+     * 跳过的数据同样需要经过加解密以保持链接值连续，因此通过读取实现
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (position == limit && !fillBuffer()) {
+                break;
+            }
+            int step = (int) Math.min(n - skipped, limit - position);
+            position += step;
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (limit - position) + in.available();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("SDesInputStream不支持mark/reset");
+    }
+
+    private boolean fillBuffer() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            position = limit = 0;
+            return false;
+        }
+        transform.apply(buffer, 0, n);
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
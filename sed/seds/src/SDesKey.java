@@ -0,0 +1,274 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * 预处理后的S-DES密钥（不可变）
+ * <p>
+ * 创建时只执行一次密钥扩展，缓存子密钥k1、k2以及该密钥下256项的加密/解密表，
+ * 之后的分组与批量加解密均为查表操作，不再重复计算P10、移位与P8。
+ * 默认使用标准S-DES，也可以绑定其他{@link CipherSpec}变体，工作模式、流与文件接口均不受影响。
+ */
+public final class SDesKey {
+    /** 算法变体 */
+    private final CipherSpec spec;
+    /** 10位原始密钥 */
+    private final int key;
+    /** 子密钥k1 */
+    private final int k1;
+    /** 子密钥k2 */
+    private final int k2;
+    /** 加密表：encryptTable[plaintext] = ciphertext */
+    private final byte[] encryptTable = new byte[256];
+    /** 解密表：decryptTable[ciphertext] = plaintext */
+    private final byte[] decryptTable = new byte[256];
+
+    private SDesKey(CipherSpec spec, int key) {
+        this.spec = spec;
+        this.key = key;
+        int subkeys = spec.subkeys(key);
+        this.k1 = subkeys >>> 8;
+        this.k2 = subkeys & 0xFF;
+        for (int block = 0; block < 256; block++) {
+            int cipher = spec.encryptBlock(block, k1, k2);
+            encryptTable[block] = (byte) cipher;
+            decryptTable[cipher] = (byte) block;
+        }
+    }
+
+    /**
+     * 由整数密钥创建
+     * @param key 10位密钥（0~1023）
+     * @return 预处理后的密钥
+     * @throws IllegalArgumentException 密钥超出10位范围时抛出
+     */
+    public static SDesKey of(int key) throws IllegalArgumentException {
+        return of(CipherSpec.STANDARD, key);
+    }
+
+    /**
+     * 由整数密钥创建，使用指定的算法变体
+     * @param spec 算法变体
+     * @param key 10位密钥（0~1023）
+     * @return 预处理后的密钥
+     * @throws IllegalArgumentException 密钥超出10位范围时抛出
+     */
+    public static SDesKey of(CipherSpec spec, int key) throws IllegalArgumentException {
+        Objects.requireNonNull(spec, "spec");
+        if ((key & ~0x3FF) != 0) {
+            throw new IllegalArgumentException("密钥必须为10位（0~1023）");
+        }
+        return new SDesKey(spec, key);
+    }
+
+    /**
+     * 由10位二进制字符串创建（如"1111111111"）
+     * @param binaryKey 10位二进制字符串
+     * @return 预处理后的密钥
+     * @throws IllegalArgumentException 长度不是10或含非0/1字符时抛出
+     */
+    public static SDesKey fromBinary(String binaryKey) throws IllegalArgumentException {
+        if (binaryKey.length() != 10) {
+            throw new IllegalArgumentException("密钥必须为10位二进制");
+        }
+        return new SDesKey(CipherSpec.STANDARD, SDesUtil.bitsToInt(SDesUtil.binaryStrToIntArray(binaryKey)));
+    }
+
+    /** 算法变体 */
+    public CipherSpec getSpec() {
+        return spec;
+    }
+
+    /** 10位原始密钥 */
+    public int getKey() {
+        return key;
+    }
+
+    /** 子密钥k1 */
+    public int getK1() {
+        return k1;
+    }
+
+    /** 子密钥k2 */
+    public int getK2() {
+        return k2;
+    }
+
+    // -------------------------- 分组接口 --------------------------
+    /**
+     * 加密一个8位分组
+     * @param block 8位明文（低8位有效）
+     * @return 8位密文
+     */
+    public int encrypt(int block) {
+        return encryptTable[block & 0xFF] & 0xFF;
+    }
+
+    /**
+     * 解密一个8位分组
+     * @param block 8位密文（低8位有效）
+     * @return 8位明文
+     */
+    public int decrypt(int block) {
+        return decryptTable[block & 0xFF] & 0xFF;
+    }
+
+    // -------------------------- 批量接口 --------------------------
+    /**
+     * 批量加密（每个字节为一个分组）
+     * @param plaintext 明文字节
+     * @return 新的密文字节数组
+     */
+    public byte[] encrypt(byte[] plaintext) {
+        byte[] ciphertext = new byte[plaintext.length];
+        encrypt(plaintext, 0, plaintext.length, ciphertext, 0);
+        return ciphertext;
+    }
+
+    /**
+     * 批量解密（每个字节为一个分组）
+     * @param ciphertext 密文字节
+     * @return 新的明文字节数组
+     */
+    public byte[] decrypt(byte[] ciphertext) {
+        byte[] plaintext = new byte[ciphertext.length];
+        decrypt(ciphertext, 0, ciphertext.length, plaintext, 0);
+        return plaintext;
+    }
+
+    /**
+     * 批量加密到指定数组，in与out可为同一数组（原地加密）
+     * @param in 输入数组
+     * @param off 输入起始下标
+     * @param len 字节数
+     * @param out 输出数组
+     * @param outOff 输出起始下标
+     * @throws IndexOutOfBoundsException 区间越界时抛出
+     */
+    public void encrypt(byte[] in, int off, int len, byte[] out, int outOff) {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        transform(in, off, len, out, outOff, encryptTable);
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(true, len, startTime);
+        }
+    }
+
+    /**
+     * 批量解密到指定数组，in与out可为同一数组（原地解密）
+     * @param in 输入数组
+     * @param off 输入起始下标
+     * @param len 字节数
+     * @param out 输出数组
+     * @param outOff 输出起始下标
+     * @throws IndexOutOfBoundsException 区间越界时抛出
+     */
+    public void decrypt(byte[] in, int off, int len, byte[] out, int outOff) {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        transform(in, off, len, out, outOff, decryptTable);
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(false, len, startTime);
+        }
+    }
+
+    /**
+     * 加密src的剩余字节并写入dst（堆内/直接缓冲区均可），两者的position各前移处理的字节数
+     * @param src 输入缓冲区
+     * @param dst 输出缓冲区
+     * @return 处理的字节数
+     * @throws BufferOverflowException dst剩余空间不足时抛出
+     */
+    public int encrypt(ByteBuffer src, ByteBuffer dst) throws BufferOverflowException {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        int len = transform(src, dst, encryptTable);
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(true, len, startTime);
+        }
+        return len;
+    }
+
+    /**
+     * 解密src的剩余字节并写入dst（堆内/直接缓冲区均可），两者的position各前移处理的字节数
+     * @param src 输入缓冲区
+     * @param dst 输出缓冲区
+     * @return 处理的字节数
+     * @throws BufferOverflowException dst剩余空间不足时抛出
+     */
+    public int decrypt(ByteBuffer src, ByteBuffer dst) throws BufferOverflowException {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        int len = transform(src, dst, decryptTable);
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(false, len, startTime);
+        }
+        return len;
+    }
+
+    /**
+     * 批量加密或解密，不记录运行时统计；供{@link SDesMode}的并行分块与文件分块调用，由其入口统一记录
+     */
+    void process(boolean isEncrypt, byte[] in, int off, int len, byte[] out, int outOff) {
+        transform(in, off, len, out, outOff, isEncrypt ? encryptTable : decryptTable);
+    }
+
+    /**
+     * 缓冲区版本的{@link #process(boolean, byte[], int, int, byte[], int)}
+     * @return 处理的字节数
+     */
+    int process(boolean isEncrypt, ByteBuffer src, ByteBuffer dst) {
+        return transform(src, dst, isEncrypt ? encryptTable : decryptTable);
+    }
+
+    /**
+     * 按256项查表批量处理（不记录统计），{@link TripleSDes}的融合表也经此处理
+     */
+    static void transform(byte[] in, int off, int len, byte[] out, int outOff, byte[] table) {
+        Objects.checkFromIndexSize(off, len, in.length);
+        Objects.checkFromIndexSize(outOff, len, out.length);
+        if (in == out && outOff > off) {
+            // 同一数组且输出区间在后：倒序处理，避免覆盖尚未读取的输入
+            for (int i = len - 1; i >= 0; i--) {
+                out[outOff + i] = table[in[off + i] & 0xFF];
+            }
+        } else {
+            for (int i = 0; i < len; i++) {
+                out[outOff + i] = table[in[off + i] & 0xFF];
+            }
+        }
+    }
+
+    private static int transform(ByteBuffer src, ByteBuffer dst, byte[] table) {
+        int len = src.remaining();
+        if (dst.remaining() < len) {
+            throw new BufferOverflowException();
+        }
+        int srcPos = src.position();
+        int dstPos = dst.position();
+        if (src.hasArray() && dst.hasArray()) {
+            // 堆内缓冲区：直接操作底层数组
+            transform(src.array(), src.arrayOffset() + srcPos, len,
+                    dst.array(), dst.arrayOffset() + dstPos, table);
+        } else {
+            // 直接缓冲区：按绝对下标读写，不移动position、不分配临时数组
+            for (int i = 0; i < len; i++) {
+                dst.put(dstPos + i, table[src.get(srcPos + i) & 0xFF]);
+            }
+        }
+        src.position(srcPos + len);
+        dst.position(dstPos + len);
+        return len;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SDesKey && ((SDesKey) o).key == key && ((SDesKey) o).spec == spec;
+    }
+
+    @Override
+    public int hashCode() {
+        return spec.hashCode() * 31 + key;
+    }
+
+    @Override
+    public String toString() {
+        return SDesUtil.intArrayToBinaryStr(SDesUtil.intToBits(key, 10));
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * 有界LRU密钥缓存：为处理大量密钥的服务复用已预处理的{@link SDesKey}
+ * <p>
+ * 按访问顺序淘汰最久未使用的密钥；所有方法线程安全。开启运行时统计时记录命中率。
+ */
+public class SDesKeyCache {
+    private final LruCache<SDesKey> cache;
+
+    /**
+     * @param capacity 最大缓存数量（至少为1）
+     * @throws IllegalArgumentException 容量小于1时抛出
+     */
+    public SDesKeyCache(int capacity) throws IllegalArgumentException {
+        this.cache = new LruCache<SDesKey>(capacity, SDesKey::of) {
+            @Override
+            void onLookup(boolean hit) {
+                if (SDesMetrics.ENABLED) {
+                    SDesMetrics.recordKeyCache(hit);
+                }
+            }
+        };
+    }
+
+    /**
+     * 获取密钥，缓存未命中时创建并放入缓存
+     * @param key 10位密钥（0~1023）
+     * @return 预处理后的密钥
+     * @throws IllegalArgumentException 密钥超出10位范围时抛出
+     */
+    public SDesKey get(int key) throws IllegalArgumentException {
+        return cache.get(key);
+    }
+
+    /** 当前缓存数量 */
+    public int size() {
+        return cache.size();
+    }
+
+    /** 最大缓存数量 */
+    public int getCapacity() {
+        return cache.getCapacity();
+    }
+
+    /** 清空缓存 */
+    public void clear() {
+        cache.clear();
+    }
+}
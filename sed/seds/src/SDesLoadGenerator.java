@@ -0,0 +1,311 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link SDesServer}的回环压测客户端
+ * <p>
+ * 单个线程通过Selector驱动全部连接，每个连接始终保持pipeline个加密请求在途：
+ * 每收到一个响应就立即补发一个。预热结束后记录每个请求的往返延迟，最后输出请求数/秒与p50/p99/p999延迟。
+ * 每个响应都会与本地{@link SDesKey}的加密结果比对，确保压测期间服务返回的结果正确。
+ */
+public final class SDesLoadGenerator {
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int pipeline;
+    private final int payloadBytes;
+
+    /**
+     * @param address 服务地址
+     * @param connections 并发连接数
+     * @param pipeline 每个连接的在途请求数
+     * @param payloadBytes 每个请求的明文字节数
+     * @throws IllegalArgumentException 参数不为正数时抛出
+     */
+    public SDesLoadGenerator(InetSocketAddress address, int connections, int pipeline, int payloadBytes)
+            throws IllegalArgumentException {
+        if (connections <= 0 || pipeline <= 0 || payloadBytes <= 0) {
+            throw new IllegalArgumentException("连接数、流水线深度和负载大小必须为正数");
+        }
+        if (payloadBytes > SDesServer.MAX_FRAME_BYTES - 64) {
+            throw new IllegalArgumentException("负载过大");
+        }
+        this.address = address;
+        this.connections = connections;
+        this.pipeline = pipeline;
+        this.payloadBytes = payloadBytes;
+    }
+
+    /**
+     * 压测结果
+     */
+    public static final class Result {
+        private final long requests;
+        private final double seconds;
+        private final long[] sortedLatencies;
+        private final long errors;
+
+        private Result(long requests, double seconds, long[] sortedLatencies, long errors) {
+            this.requests = requests;
+            this.seconds = seconds;
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+        }
+
+        /** 统计期内完成的请求数 */
+        public long getRequests() {
+            return requests;
+        }
+
+        /** 响应错误或结果不正确的请求数 */
+        public long getErrors() {
+            return errors;
+        }
+
+        /** 每秒完成的请求数 */
+        public double requestsPerSecond() {
+            return requests / seconds;
+        }
+
+        /**
+         * 延迟分位数（微秒）
+         * @param quantile 0~1之间的分位点
+         */
+        public double latencyMicros(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, index))] / 1e3;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d 个请求，%.0f 请求/秒，延迟 p50 %.1f us，p99 %.1f us，p999 %.1f us，最大 %.1f us，错误 %d",
+                    requests, requestsPerSecond(), latencyMicros(0.5), latencyMicros(0.99), latencyMicros(0.999),
+                    latencyMicros(1.0), errors);
+        }
+    }
+
+    /**
+     * 执行压测
+     * @param warmupMillis 预热时长，期间的请求不计入结果
+     * @param measureMillis 统计时长
+     * @return 压测结果
+     * @throws IOException 连接失败时抛出
+     */
+    public Result run(long warmupMillis, long measureMillis) throws IOException {
+        try (Selector selector = Selector.open()) {
+            Client[] clients = new Client[connections];
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.connect(address);
+                channel.configureBlocking(false);
+                clients[i] = new Client(channel, selector);
+            }
+            LatencyRecorder recorder = new LatencyRecorder();
+            long start = System.nanoTime();
+            long measureStart = start + warmupMillis * 1_000_000L;
+            long end = measureStart + measureMillis * 1_000_000L;
+            for (Client client : clients) {
+                client.fill();
+            }
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                selector.select(Math.max(1, (end - now) / 1_000_000L));
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    Client client = (Client) key.attachment();
+                    if (key.isReadable()) {
+                        client.read(recorder, measureStart, end);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        client.flush();
+                    }
+                }
+            }
+            long errors = 0;
+            for (Client client : clients) {
+                errors += client.errors;
+                client.channel.close();
+            }
+            long[] latencies = recorder.sorted();
+            return new Result(latencies.length, measureMillis / 1e3, latencies, errors);
+        }
+    }
+
+    /**
+     * 单个连接：固定密钥与负载，按请求ID记录发送时间
+     * <p>
+     * 服务端会打乱响应顺序（大负载移到线程池处理），所以请求ID就是一个空闲槽位的编号：
+     * 槽位在收到对应响应后才回收，在途请求的ID互不相同，发送时间不会被后发的请求覆盖。
+     * 不在途的ID（重复或未请求的响应）视为协议错误，否则会重复回收槽位、用过期的发送时间记录延迟。
+     */
+    private final class Client {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final int keyBits = ThreadLocalRandom.current().nextInt(BruteForceEngine.KEY_COUNT);
+        private final byte[] payload = new byte[payloadBytes];
+        private final byte[] expected;
+        /** 各槽位上在途请求的发送时间，下标即请求ID */
+        private final long[] sentAt = new long[pipeline];
+        /** 各槽位上是否有在途请求 */
+        private final boolean[] inFlight = new boolean[pipeline];
+        /** 空闲槽位栈 */
+        private final int[] freeSlots = new int[pipeline];
+        private int freeCount;
+        private final ByteBuffer in = ByteBuffer.allocate(Math.max(64 * 1024, 2 * (payloadBytes + 64)));
+        private final ByteBuffer out;
+        private long errors;
+
+        Client(SocketChannel channel, Selector selector) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+            ThreadLocalRandom.current().nextBytes(payload);
+            expected = SDesKey.of(keyBits).encrypt(payload);
+            out = ByteBuffer.allocate(pipeline * (SDesServer.REQUEST_HEADER_BYTES
+                    + SDesServer.CIPHER_PARAMS_BYTES + payloadBytes));
+            for (int slot = pipeline - 1; slot >= 0; slot--) {
+                freeSlots[freeCount++] = slot;
+            }
+        }
+
+        /**
+         * 补发请求直到在途数达到流水线深度
+         */
+        void fill() throws IOException {
+            while (freeCount > 0) {
+                int id = freeSlots[--freeCount];
+                sentAt[id] = System.nanoTime();
+                inFlight[id] = true;
+                out.putInt(SDesServer.REQUEST_HEADER_BYTES - 4 + SDesServer.CIPHER_PARAMS_BYTES + payloadBytes)
+                        .put(SDesServer.OP_ENCRYPT).putInt(id)
+                        .putShort((short) keyBits).put((byte) SDesMode.ECB.ordinal()).put((byte) 0)
+                        .put(payload);
+            }
+            flush();
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+            key.interestOps(out.position() > 0
+                    ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void read(LatencyRecorder recorder, long measureStart, long end) throws IOException {
+            if (channel.read(in) < 0) {
+                throw new IOException("服务端关闭了连接");
+            }
+            in.flip();
+            while (in.remaining() >= 4 && in.remaining() >= 4 + in.getInt(in.position())) {
+                int length = in.getInt();
+                int frameEnd = in.position() + length;
+                int id = in.getInt();
+                byte status = in.get();
+                if (id < 0 || id >= pipeline || !inFlight[id]) {
+                    throw new IOException("服务端返回了不在途的请求ID: " + id);
+                }
+                inFlight[id] = false;
+                long now = System.nanoTime();
+                if (now >= measureStart && now < end) {
+                    recorder.record(now - sentAt[id]);
+                }
+                if (status != SDesServer.STATUS_OK || frameEnd - in.position() != expected.length
+                        || !in.slice().limit(expected.length).equals(ByteBuffer.wrap(expected))) {
+                    errors++;
+                }
+                in.position(frameEnd);
+                freeSlots[freeCount++] = id;
+            }
+            in.compact();
+            fill();
+        }
+    }
+
+    /**
+     * 单线程使用的延迟记录（按需扩容的long数组）
+     */
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1 << 16];
+        private int size;
+
+        void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        long[] sorted() {
+            long[] result = Arrays.copyOf(samples, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * 命令行入口：java SDesLoadGenerator &lt;端口|embedded&gt; [连接数] [流水线深度] [负载字节数] [统计秒数]
+     * <p>
+     * 端口为embedded时在本进程内启动一个服务，便于在单机上直接测量。
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 5) {
+            System.err.println("用法: java SDesLoadGenerator <端口|embedded> [连接数=64] [流水线深度=16] "
+                    + "[负载字节数=16] [统计秒数=10]");
+            System.exit(2);
+        }
+        SDesServer embedded = null;
+        try {
+            int connections = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+            int pipeline = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+            int payload = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+            int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+            int port;
+            if ("embedded".equals(args[0])) {
+                embedded = new SDesServer(new InetSocketAddress("127.0.0.1", 0), CrackJobScheduler.shared());
+                port = embedded.getPort();
+                Thread serverThread = new Thread(embedded::run, "sdes-server");
+                serverThread.setDaemon(true);
+                serverThread.start();
+            } else {
+                port = Integer.parseInt(args[0]);
+            }
+
+            SDesLoadGenerator generator = new SDesLoadGenerator(
+                    new InetSocketAddress("127.0.0.1", port), connections, pipeline, payload);
+            System.out.printf("连接 %d，流水线 %d，负载 %d 字节，预热 %d 秒，统计 %d 秒%n",
+                    connections, pipeline, payload, Math.min(2, seconds), seconds);
+            Result result = generator.run(Math.min(2, seconds) * 1000L, seconds * 1000L);
+            System.out.println("✅ " + result);
+        } catch (NumberFormatException e) {
+            System.err.println("❌ 错误：参数必须为整数");
+            System.exit(2);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ 错误：" + e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("❌ 压测失败：" + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (embedded != null) {
+                try {
+                    embedded.close();
+                } catch (IOException ignored) {
+                    // 退出时忽略
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * 运行时统计：批量加解密、暴力破解与密钥缓存
+ * <p>
+ * 由系统属性 -Dsdes.metrics=true 开启。开关是static final常量，调用方按
+ * {@code if (SDesMetrics.ENABLED) { ... }} 包裹记录代码，关闭时JIT直接删除整个分支，热路径没有额外开销。
+ * 计数使用分段的{@link LongAdder}，耗时使用无锁的{@link LatencyHistogram}，多线程记录互不竞争。
+ * <p>
+ * 开启后自动注册JMX MBean（sdes:type=Metrics）；再设置 -Dsdes.metrics.reportSeconds=N
+ * 会每N秒向标准错误输出一行速率摘要。
+ */
+public final class SDesMetrics {
+    /** 是否启用统计 */
+    public static final boolean ENABLED = Boolean.getBoolean("sdes.metrics");
+    /** MBean对象名 */
+    public static final String OBJECT_NAME = "sdes:type=Metrics";
+
+    private static final LongAdder BYTES_ENCRYPTED = new LongAdder();
+    private static final LongAdder BYTES_DECRYPTED = new LongAdder();
+    private static final LongAdder CIPHER_CALLS = new LongAdder();
+    private static final LatencyHistogram CIPHER_LATENCY = new LatencyHistogram();
+
+    private static final LongAdder KEYS_TESTED = new LongAdder();
+    private static final LongAdder SEARCHES = new LongAdder();
+    private static final LongAdder INDEX_LOOKUPS = new LongAdder();
+    private static final LatencyHistogram SEARCH_LATENCY = new LatencyHistogram();
+    /** 线程名 -> 该线程测试的密钥数 */
+    private static final ConcurrentHashMap<String, LongAdder> SEARCH_SHARES = new ConcurrentHashMap<>();
+
+    private static final LongAdder KEY_CACHE_HITS = new LongAdder();
+    private static final LongAdder KEY_CACHE_MISSES = new LongAdder();
+
+    private static ScheduledExecutorService reporter;
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+            long reportSeconds = Long.getLong("sdes.metrics.reportSeconds", 0);
+            if (reportSeconds > 0) {
+                startReporter(reportSeconds * 1000, System.err);
+            }
+        }
+    }
+
+    private SDesMetrics() {
+    }
+
+    // -------------------------- 记录（调用方需先判断ENABLED） --------------------------
+    /**
+     * 记录一次批量加解密
+     * @param isEncrypt true为加密
+     * @param bytes 处理的字节数
+     * @param startNanos 开始时的{@link System#nanoTime()}
+     */
+    public static void recordCipher(boolean isEncrypt, long bytes, long startNanos) {
+        (isEncrypt ? BYTES_ENCRYPTED : BYTES_DECRYPTED).add(bytes);
+        CIPHER_CALLS.increment();
+        CIPHER_LATENCY.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 记录当前线程在暴力破解中测试的密钥
+     * @param keys 密钥数
+     */
+    public static void recordKeysTested(int keys) {
+        KEYS_TESTED.add(keys);
+        SEARCH_SHARES.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder()).add(keys);
+    }
+
+    /**
+     * 记录一次不试加密、直接由索引或位图求出候选密钥的查询（不计入测试的密钥数）
+     */
+    public static void recordIndexLookup() {
+        INDEX_LOOKUPS.increment();
+    }
+
+    /**
+     * 记录一次完成的暴力破解搜索
+     * @param startNanos 开始时的{@link System#nanoTime()}
+     */
+    public static void recordSearch(long startNanos) {
+        SEARCHES.increment();
+        SEARCH_LATENCY.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 记录一次密钥缓存查询
+     * @param hit 是否命中
+     */
+    public static void recordKeyCache(boolean hit) {
+        (hit ? KEY_CACHE_HITS : KEY_CACHE_MISSES).increment();
+    }
+
+    // -------------------------- 查询 --------------------------
+    /** JMX视图，也可直接在进程内读取 */
+    public static SDesMetricsMXBean view() {
+        return View.INSTANCE;
+    }
+
+    /**
+     * 注册MBean到平台MBeanServer（已注册时忽略）
+     */
+    public static synchronized void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(View.INSTANCE, name);
+            }
+        } catch (JMException e) {
+            System.err.println("❌ 注册统计MBean失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 启动周期报告（已启动时先停止旧的）
+     * @param periodMillis 报告周期（毫秒）
+     * @param out 输出目标
+     * @throws IllegalArgumentException 周期不为正数时抛出
+     */
+    public static synchronized void startReporter(long periodMillis, PrintStream out) throws IllegalArgumentException {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("报告周期必须为正数");
+        }
+        stopReporter();
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sdes-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Reporter task = new Reporter(out);
+        reporter.scheduleAtFixedRate(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** 停止周期报告 */
+    public static synchronized void stopReporter() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * 周期报告：输出与上次报告之间的速率
+     */
+    private static final class Reporter implements Runnable {
+        private final PrintStream out;
+        private long lastNanos = System.nanoTime();
+        private long lastBytes = BYTES_ENCRYPTED.sum() + BYTES_DECRYPTED.sum();
+        private long lastKeys = KEYS_TESTED.sum();
+
+        Reporter(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            long bytes = BYTES_ENCRYPTED.sum() + BYTES_DECRYPTED.sum();
+            long keys = KEYS_TESTED.sum();
+            double seconds = (now - lastNanos) / 1e9;
+            SDesMetricsMXBean view = view();
+            out.printf("[sdes-metrics] 分组 %.0f/s（%.2f MB/s），调用p99 %.1f us，密钥 %.0f/s，搜索 %d 次 p99 %.2f ms，"
+                            + "索引查询 %d 次，缓存命中率 %.1f%%%n",
+                    (bytes - lastBytes) / seconds, (bytes - lastBytes) / 1e6 / seconds,
+                    view.getCipherLatencyP99Micros(), (keys - lastKeys) / seconds, view.getSearches(),
+                    view.getSearchLatencyP99Millis(), view.getIndexLookups(), view.getKeyCacheHitRate() * 100);
+            lastNanos = now;
+            lastBytes = bytes;
+            lastKeys = keys;
+        }
+    }
+
+    private static final class View implements SDesMetricsMXBean {
+        static final View INSTANCE = new View();
+
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getBytesEncrypted() {
+            return BYTES_ENCRYPTED.sum();
+        }
+
+        @Override
+        public long getBytesDecrypted() {
+            return BYTES_DECRYPTED.sum();
+        }
+
+        @Override
+        public long getCipherCalls() {
+            return CIPHER_CALLS.sum();
+        }
+
+        @Override
+        public double getCipherLatencyP50Micros() {
+            return CIPHER_LATENCY.percentile(0.5) / 1e3;
+        }
+
+        @Override
+        public double getCipherLatencyP99Micros() {
+            return CIPHER_LATENCY.percentile(0.99) / 1e3;
+        }
+
+        @Override
+        public long getKeysTested() {
+            return KEYS_TESTED.sum();
+        }
+
+        @Override
+        public long getSearches() {
+            return SEARCHES.sum();
+        }
+
+        @Override
+        public long getIndexLookups() {
+            return INDEX_LOOKUPS.sum();
+        }
+
+        @Override
+        public double getSearchLatencyP99Millis() {
+            return SEARCH_LATENCY.percentile(0.99) / 1e6;
+        }
+
+        @Override
+        public Map<String, Long> getSearchShares() {
+            Map<String, Long> shares = new TreeMap<>();
+            SEARCH_SHARES.forEach((thread, keys) -> shares.put(thread, keys.sum()));
+            return shares;
+        }
+
+        @Override
+        public long getKeyCacheHits() {
+            return KEY_CACHE_HITS.sum();
+        }
+
+        @Override
+        public long getKeyCacheMisses() {
+            return KEY_CACHE_MISSES.sum();
+        }
+
+        @Override
+        public double getKeyCacheHitRate() {
+            long hits = KEY_CACHE_HITS.sum();
+            long total = hits + KEY_CACHE_MISSES.sum();
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public void reset() {
+            BYTES_ENCRYPTED.reset();
+            BYTES_DECRYPTED.reset();
+            CIPHER_CALLS.reset();
+            CIPHER_LATENCY.reset();
+            KEYS_TESTED.reset();
+            SEARCHES.reset();
+            INDEX_LOOKUPS.reset();
+            SEARCH_LATENCY.reset();
+            SEARCH_SHARES.clear();
+            KEY_CACHE_HITS.reset();
+            KEY_CACHE_MISSES.reset();
+        }
+    }
+}
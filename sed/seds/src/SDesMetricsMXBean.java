@@ -0,0 +1,51 @@
+import java.util.Map;
+
+/**
+ * {@link SDesMetrics}的JMX视图（对象名 sdes:type=Metrics）
+ */
+public interface SDesMetricsMXBean {
+    /** 是否启用了统计（-Dsdes.metrics=true） */
+    boolean isEnabled();
+
+    /** 累计加密字节数（即分组数） */
+    long getBytesEncrypted();
+
+    /** 累计解密字节数（即分组数） */
+    long getBytesDecrypted();
+
+    /** 批量加解密调用次数 */
+    long getCipherCalls();
+
+    /** 批量加解密单次调用耗时p50（微秒） */
+    double getCipherLatencyP50Micros();
+
+    /** 批量加解密单次调用耗时p99（微秒） */
+    double getCipherLatencyP99Micros();
+
+    /** 暴力破解累计试加密的密钥数（查索引、位图求交不计入） */
+    long getKeysTested();
+
+    /** 完成的暴力破解搜索次数 */
+    long getSearches();
+
+    /** 直接由反向码本索引或候选位图得出结果、未试加密的查询次数 */
+    long getIndexLookups();
+
+    /** 暴力破解单次搜索耗时p99（毫秒） */
+    double getSearchLatencyP99Millis();
+
+    /** 各工作线程试加密的密钥数 */
+    Map<String, Long> getSearchShares();
+
+    /** 密钥缓存命中次数 */
+    long getKeyCacheHits();
+
+    /** 密钥缓存未命中次数 */
+    long getKeyCacheMisses();
+
+    /** 密钥缓存命中率（0.0~1.0） */
+    double getKeyCacheHitRate();
+
+    /** 清零全部统计 */
+    void reset();
+}
@@ -0,0 +1,429 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * S-DES分组工作模式（分组长度为8位，即每个字节一个分组）
+ * <p>
+ * 所有模式的加解密方法都接收一个8位初始值（IV/计数器），返回处理完后的链接值，
+ * 把返回值作为下一段数据的初始值即可分段连续处理同一条消息。
+ * ECB与CTR加解密、CBC解密的各分组互不依赖，数据量较大时拆分到ForkJoinPool并行执行；
+ * 不足两个{@link #PARALLEL_THRESHOLD}的数据或单核机器上在调用线程顺序处理，不增加任何调度延迟。
+ * <p>
+ * in与out可为同一数组且起始下标相同（原地处理），其他重叠方式结果未定义。
+ */
+public enum SDesMode {
+    /** 电码本模式：各分组独立加密，链接值原样返回 */
+    ECB {
+        @Override
+        int transform(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff, boolean isEncrypt) {
+            ecb(key, isEncrypt, in, off, len, out, outOff);
+            return iv & 0xFF;
+        }
+    },
+
+    /** 密码分组链接模式：C[i] = E(P[i] ⊕ C[i-1])，链接值为最后一个密文分组 */
+    CBC {
+        @Override
+        int transform(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff, boolean isEncrypt) {
+            checkRange(in, off, len, out, outOff);
+            if (isEncrypt) {
+                int prev = iv & 0xFF;
+                for (int i = 0; i < len; i++) {
+                    prev = key.encrypt((in[off + i] & 0xFF) ^ prev);
+                    out[outOff + i] = (byte) prev;
+                }
+                return prev;
+            }
+            if (len == 0) {
+                return iv & 0xFF;
+            }
+            int last = in[off + len - 1] & 0xFF;
+            if (!isParallelWorthwhile(len)) {
+                cbcDecrypt(key, iv & 0xFF, in, off, out, outOff, 0, len);
+            } else {
+                POOL.invoke(new CbcDecryptTask(key, iv & 0xFF, in, off, out, outOff, 0, len));
+            }
+            return last;
+        }
+    },
+
+    /** 输出反馈模式：S[i] = E(S[i-1])，C[i] = P[i] ⊕ S[i]，加解密相同，链接值为最后的反馈值 */
+    OFB {
+        @Override
+        int transform(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff, boolean isEncrypt) {
+            return ofb(key, iv, in, off, len, out, outOff);
+        }
+    },
+
+    /**
+     * 计数器模式：C[i] = P[i] ⊕ E(ctr + i)，加解密相同，链接值为下一个计数器值
+     * <p>
+     * 计数器只有8位，同一密钥下每256个分组密钥流即重复，这是S-DES分组长度决定的。
+     */
+    CTR {
+        @Override
+        int transform(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff, boolean isEncrypt) {
+            return ctrAll(key, iv, in, off, len, out, outOff);
+        }
+    };
+
+    /** 并行拆分的最小块大小：叶子任务最多处理这么多字节（输入、输出块与查找表可放进L2缓存） */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+    /** 工作线程队列中待窃取的任务超过该数量时不再继续拆分 */
+    static final int MAX_SURPLUS_TASKS = 3;
+    /** 并行任务使用的公共工作窃取线程池 */
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+    /** 单核机器上并行只有调度开销 */
+    private static final boolean MULTI_CORE = Runtime.getRuntime().availableProcessors() > 1;
+
+    /**
+     * 加密
+     * @param key 预处理后的密钥
+     * @param iv 8位初始值（ECB忽略，CTR为起始计数器）
+     * @param in 输入数组
+     * @param off 输入起始下标
+     * @param len 字节数
+     * @param out 输出数组
+     * @param outOff 输出起始下标
+     * @return 链接值，作为后续数据的iv可继续处理同一条消息
+     */
+    public int encrypt(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff) {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        return recorded(true, len, startTime, transform(key, iv, in, off, len, out, outOff, true));
+    }
+
+    /**
+     * 解密
+     * @param key 预处理后的密钥
+     * @param iv 8位初始值（ECB忽略，CTR为起始计数器）
+     * @param in 输入数组
+     * @param off 输入起始下标
+     * @param len 字节数
+     * @param out 输出数组
+     * @param outOff 输出起始下标
+     * @return 链接值，作为后续数据的iv可继续处理同一条消息
+     */
+    public int decrypt(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff) {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        return recorded(false, len, startTime, transform(key, iv, in, off, len, out, outOff, false));
+    }
+
+    /**
+     * 加密或解密一段数据，不记录运行时统计（统计由公开的加解密入口每次调用记录一次）
+     * @return 链接值
+     */
+    abstract int transform(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff,
+                           boolean isEncrypt);
+
+    /**
+     * 加密src的剩余字节并写入dst，两者的position各前移处理的字节数
+     * <p>
+     * 堆内缓冲区走数组接口；直接缓冲区（如内存映射的文件区域）按绝对下标逐字节读写，不复制到临时数组。
+     * @param key 预处理后的密钥
+     * @param iv 8位初始值（ECB忽略，CTR为起始计数器）
+     * @param src 输入缓冲区
+     * @param dst 输出缓冲区，可与src为同一区域（原地处理）
+     * @return 链接值
+     * @throws BufferOverflowException dst剩余空间不足时抛出
+     */
+    public int encrypt(SDesKey key, int iv, ByteBuffer src, ByteBuffer dst) throws BufferOverflowException {
+        int len = src.remaining();
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        return recorded(true, len, startTime, transform(key, iv, src, dst, true));
+    }
+
+    /**
+     * 解密src的剩余字节并写入dst，两者的position各前移处理的字节数
+     * @see #encrypt(SDesKey, int, ByteBuffer, ByteBuffer)
+     */
+    public int decrypt(SDesKey key, int iv, ByteBuffer src, ByteBuffer dst) throws BufferOverflowException {
+        int len = src.remaining();
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        return recorded(false, len, startTime, transform(key, iv, src, dst, false));
+    }
+
+    /**
+     * 当前模式的各分组是否互不依赖（可从任意位置开始处理）
+     */
+    public boolean isRandomAccess() {
+        return this == ECB || this == CTR;
+    }
+
+    /**
+     * 缓冲区版本的加密或解密，不记录运行时统计；{@link SDesFileCipher}按块调用，整个文件只记录一次
+     * @return 链接值
+     */
+    int transform(SDesKey key, int iv, ByteBuffer src, ByteBuffer dst, boolean isEncrypt) {
+        if (this == ECB) {
+            // ECB由密钥的缓冲区接口处理（含堆内与直接缓冲区两种情况）
+            key.process(isEncrypt, src, dst);
+            return iv & 0xFF;
+        }
+        int len = src.remaining();
+        if (dst.remaining() < len) {
+            throw new BufferOverflowException();
+        }
+        int srcPos = src.position();
+        int dstPos = dst.position();
+        int chain;
+        if (src.hasArray() && dst.hasArray()) {
+            byte[] in = src.array();
+            byte[] out = dst.array();
+            chain = transform(key, iv, in, src.arrayOffset() + srcPos, len, out, dst.arrayOffset() + dstPos,
+                    isEncrypt);
+        } else {
+            chain = direct(key, iv & 0xFF, src, srcPos, dst, dstPos, len, isEncrypt);
+        }
+        src.position(srcPos + len);
+        dst.position(dstPos + len);
+        return chain;
+    }
+
+    /**
+     * 直接缓冲区的CBC/OFB/CTR：按绝对下标逐字节处理，不移动position；先读输入再写输出，可原地处理
+     */
+    private int direct(SDesKey key, int chain, ByteBuffer src, int srcPos, ByteBuffer dst, int dstPos, int len,
+                       boolean isEncrypt) {
+        for (int i = 0; i < len; i++) {
+            int in = src.get(srcPos + i) & 0xFF;
+            int out;
+            if (this == CBC) {
+                if (isEncrypt) {
+                    chain = key.encrypt(in ^ chain);
+                    out = chain;
+                } else {
+                    out = key.decrypt(in) ^ chain;
+                    chain = in;
+                }
+            } else if (this == OFB) {
+                chain = key.encrypt(chain);
+                out = in ^ chain;
+            } else {
+                out = in ^ key.encrypt(chain);
+                chain = (chain + 1) & 0xFF;
+            }
+            dst.put(dstPos + i, (byte) out);
+        }
+        return chain;
+    }
+
+    private static void checkRange(byte[] in, int off, int len, byte[] out, int outOff) {
+        Objects.checkFromIndexSize(off, len, in.length);
+        Objects.checkFromIndexSize(outOff, len, out.length);
+    }
+
+    /**
+     * 记录一次公开入口的调用（并行拆分出的各块不单独记录），原样返回链接值
+     */
+    private static int recorded(boolean isEncrypt, int len, long startTime, int chain) {
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(isEncrypt, len, startTime);
+        }
+        return chain;
+    }
+
+    /**
+     * 至少能拆成两块且有多个核时才提交到线程池，否则在调用线程顺序处理
+     */
+    private static boolean isParallelWorthwhile(int len) {
+        return MULTI_CORE && len >= 2 * PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * ECB处理整段数据：小数据直接查表，大数据交给{@link EcbTask}并行
+     */
+    private static void ecb(SDesKey key, boolean isEncrypt, byte[] in, int off, int len, byte[] out, int outOff) {
+        if (!isParallelWorthwhile(len)) {
+            ecbRange(key, isEncrypt, in, off, out, outOff, 0, len);
+        } else {
+            checkRange(in, off, len, out, outOff);
+            POOL.invoke(new EcbTask(key, isEncrypt, in, off, out, outOff, 0, len));
+        }
+    }
+
+    /**
+     * ECB处理[from, to)区间，直接复用密钥的256项查找表
+     */
+    private static void ecbRange(SDesKey key, boolean isEncrypt, byte[] in, int off, byte[] out, int outOff,
+                                 int from, int to) {
+        key.process(isEncrypt, in, off + from, to - from, out, outOff + from);
+    }
+
+    /**
+     * OFB处理整段数据（加解密相同），返回最后的反馈值
+     */
+    private static int ofb(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff) {
+        checkRange(in, off, len, out, outOff);
+        int state = iv & 0xFF;
+        for (int i = 0; i < len; i++) {
+            state = key.encrypt(state);
+            out[outOff + i] = (byte) (in[off + i] ^ state);
+        }
+        return state;
+    }
+
+    /**
+     * CTR处理整段数据（加解密相同），数据量大时并行，返回下一个计数器值
+     */
+    private static int ctrAll(SDesKey key, int iv, byte[] in, int off, int len, byte[] out, int outOff) {
+        checkRange(in, off, len, out, outOff);
+        if (!isParallelWorthwhile(len)) {
+            ctr(key, iv, in, off, out, outOff, 0, len);
+        } else {
+            POOL.invoke(new CtrTask(key, iv, in, off, out, outOff, 0, len));
+        }
+        return (iv + len) & 0xFF;
+    }
+
+    /**
+     * CTR处理[from, to)区间，第i个分组的计数器为ctr + i
+     */
+    private static void ctr(SDesKey key, int ctr, byte[] in, int off, byte[] out, int outOff, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[outOff + i] = (byte) (in[off + i] ^ key.encrypt(ctr + i));
+        }
+    }
+
+    /**
+     * CBC解密[from, to)区间，prev为区间前一个密文分组（区间起点为0时即IV）
+     */
+    private static void cbcDecrypt(SDesKey key, int prev, byte[] in, int off, byte[] out, int outOff, int from, int to) {
+        for (int i = from; i < to; i++) {
+            // 先读出密文再写明文，保证原地解密时链接值正确
+            int cipher = in[off + i] & 0xFF;
+            out[outOff + i] = (byte) (key.decrypt(cipher) ^ prev);
+            prev = cipher;
+        }
+    }
+
+    /**
+     * ECB并行任务：自适应拆分
+     * <p>
+     * 每次把区间右半部分fork出去、自己继续处理左半部分，直到区间不超过{@link #PARALLEL_THRESHOLD}
+     * （输入、输出块加查找表可放进L2缓存），或者本线程队列中已有足够多的任务可供其他线程窃取。
+     * 后者使得核数少或线程池繁忙（例如外层已经并行）时自动减少拆分，核数多时拆得更细。
+     * 处理完自己的部分后，按后进先出回收fork出的任务，未被窃取的直接在本线程执行。
+     */
+    private static final class EcbTask extends RecursiveAction {
+        private final SDesKey key;
+        private final boolean isEncrypt;
+        private final byte[] in;
+        private final int off;
+        private final byte[] out;
+        private final int outOff;
+        private final int from;
+        private final int to;
+        /** 同一父任务fork出的上一个任务，用于依次回收 */
+        private EcbTask next;
+
+        EcbTask(SDesKey key, boolean isEncrypt, byte[] in, int off, byte[] out, int outOff, int from, int to) {
+            this.key = key;
+            this.isEncrypt = isEncrypt;
+            this.in = in;
+            this.off = off;
+            this.out = out;
+            this.outOff = outOff;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int lo = from;
+            int hi = to;
+            EcbTask forked = null;
+            while (hi - lo > PARALLEL_THRESHOLD && getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS) {
+                int mid = (lo + hi) >>> 1;
+                EcbTask right = new EcbTask(key, isEncrypt, in, off, out, outOff, mid, hi);
+                right.next = forked;
+                forked = right;
+                right.fork();
+                hi = mid;
+            }
+            ecbRange(key, isEncrypt, in, off, out, outOff, lo, hi);
+            for (; forked != null; forked = forked.next) {
+                if (forked.tryUnfork()) {
+                    forked.compute();
+                } else {
+                    forked.join();
+                }
+            }
+        }
+    }
+
+    /**
+     * CTR并行任务：按二分拆分，每块独立计算计数器
+     */
+    private static final class CtrTask extends RecursiveAction {
+        private final SDesKey key;
+        private final int ctr;
+        private final byte[] in;
+        private final int off;
+        private final byte[] out;
+        private final int outOff;
+        private final int from;
+        private final int to;
+
+        CtrTask(SDesKey key, int ctr, byte[] in, int off, byte[] out, int outOff, int from, int to) {
+            this.key = key;
+            this.ctr = ctr;
+            this.in = in;
+            this.off = off;
+            this.out = out;
+            this.outOff = outOff;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                ctr(key, ctr, in, off, out, outOff, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CtrTask(key, ctr, in, off, out, outOff, from, mid),
+                    new CtrTask(key, ctr, in, off, out, outOff, mid, to));
+        }
+    }
+
+    /**
+     * CBC解密并行任务：拆分前先读出右半区间前一个密文分组，原地解密时也不会读到已被覆盖的值
+     */
+    private static final class CbcDecryptTask extends RecursiveAction {
+        private final SDesKey key;
+        private final int prev;
+        private final byte[] in;
+        private final int off;
+        private final byte[] out;
+        private final int outOff;
+        private final int from;
+        private final int to;
+
+        CbcDecryptTask(SDesKey key, int prev, byte[] in, int off, byte[] out, int outOff, int from, int to) {
+            this.key = key;
+            this.prev = prev;
+            this.in = in;
+            this.off = off;
+            this.out = out;
+            this.outOff = outOff;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                cbcDecrypt(key, prev, in, off, out, outOff, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            int rightPrev = in[off + mid - 1] & 0xFF;
+            invokeAll(new CbcDecryptTask(key, prev, in, off, out, outOff, from, mid),
+                    new CbcDecryptTask(key, rightPrev, in, off, out, outOff, mid, to));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * S-DES加解密输出流（类似{@link javax.crypto.CipherOutputStream}）
+ * <p>
+ * 写入的数据先在内部缓冲区中整块加解密，缓冲区满或flush时才写入底层流，
+ * 避免逐字节调用底层流。
+ */
+public class SDesOutputStream extends FilterOutputStream {
+    /** 默认缓冲区大小 */
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final SDesStreamTransform transform;
+    /** 已处理、待写出的数据 */
+    private final byte[] buffer;
+    private int count;
+
+    /**
+     * ECB模式输出流
+     * @param out 底层输出流
+     * @param key 预处理后的密钥
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    public SDesOutputStream(OutputStream out, SDesKey key, boolean isEncrypt) {
+        this(out, key, SDesMode.ECB, 0, isEncrypt);
+    }
+
+    /**
+     * @param out 底层输出流
+     * @param key 预处理后的密钥
+     * @param mode 工作模式
+     * @param iv 8位初始值（ECB忽略）
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    public SDesOutputStream(OutputStream out, SDesKey key, SDesMode mode, int iv, boolean isEncrypt) {
+        super(out);
+        this.transform = new SDesStreamTransform(key, mode, iv, isEncrypt);
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count] = (byte) b;
+        transform.apply(buffer, count, 1);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            transform.apply(buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
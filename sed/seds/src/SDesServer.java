@@ -0,0 +1,443 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 基于NIO Selector的S-DES加解密/破解服务
+ * <p>
+ * 单个事件线程管理全部连接，所有连接共享一个覆盖全部1024个密钥的{@link SDesKeyCache}。
+ * 客户端可连续发送多个请求而不必等待响应（流水线）。所谓批处理只是I/O层面的：一次读到的全部完整帧
+ * 在同一轮事件处理中依次处理，响应累积在连接的输出缓冲区，整批只做一次写调用，以减少系统调用；
+ * 各请求的加解密计算并不合并。
+ * <p>
+ * 负载小于{@link #OFFLOAD_BYTES}的加解密在事件线程上直接从读缓冲区查表写入输出缓冲区；更大的负载
+ * 复制出来交给公共ForkJoinPool（大数据时模式内部再并行拆分），避免一个大请求阻塞其他连接。
+ * 破解请求以客户端IP为租户提交到{@link CrackJobScheduler}异步执行（排队已满时立即返回ERROR）。
+ * 异步完成的结果回到事件线程写出，因此同一连接上的响应可能乱序，由请求ID对应。
+ * 输出积压过多或未完成的异步请求达到{@link #MAX_PENDING_RESPONSES}时暂停读取该连接，已读入的帧留在缓冲区，
+ * 等异步结果写回后再继续处理，单个流水线客户端无法无限制地占用线程池与内存。
+ * <p>
+ * 帧格式（大端）：
+ * <pre>
+ * 请求：int 帧长 | byte 操作 | int 请求ID | 负载
+ *   ENCRYPT/DECRYPT 负载：short 10位密钥 | byte 模式序号 | byte IV | 数据
+ *   CRACK 负载：n × (byte 明文, byte 密文)
+ * 响应：int 帧长 | int 请求ID | byte 状态 | 负载
+ *   OK：加解密结果，或破解得到的 n × short 密钥；ERROR：UTF-8错误信息
+ * </pre>
+ * 帧长不含自身的4个字节。
+ */
+public final class SDesServer implements Closeable {
+    static final byte OP_ENCRYPT = 1;
+    static final byte OP_DECRYPT = 2;
+    static final byte OP_CRACK = 3;
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    /** 请求帧头：帧长 + 操作 + 请求ID */
+    static final int REQUEST_HEADER_BYTES = 4 + 1 + 4;
+    /** 加解密请求的固定负载：密钥 + 模式 + IV */
+    static final int CIPHER_PARAMS_BYTES = 2 + 1 + 1;
+    /** 响应帧头：帧长 + 请求ID + 状态 */
+    static final int RESPONSE_HEADER_BYTES = 4 + 4 + 1;
+    /** 单帧最大长度（不含帧长字段） */
+    static final int MAX_FRAME_BYTES = 1024 * 1024;
+    /** 加解密数据达到该长度时移出事件线程处理 */
+    static final int OFFLOAD_BYTES = SDesMode.PARALLEL_THRESHOLD;
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    /** 输出缓冲区积压超过该值时暂停读取，等待客户端消费 */
+    private static final int OUTPUT_HIGH_WATER = 4 * 1024 * 1024;
+    /** 单个连接未完成的异步请求达到该数量时暂停读取与处理新帧（移出的负载最多占用约该数量个帧长的内存） */
+    static final int MAX_PENDING_RESPONSES = 32;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final SDesKeyCache keys = new SDesKeyCache(BruteForceEngine.KEY_COUNT);
+    private final CrackJobScheduler scheduler;
+    /** 其他线程完成的任务（破解结果），由事件线程执行 */
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    /**
+     * 创建服务并绑定端口（调用{@link #run()}后开始处理请求）
+     * @param address 监听地址，端口为0时自动分配
+     * @param scheduler 执行破解请求的调度器
+     * @throws IOException 绑定失败时抛出
+     */
+    public SDesServer(InetSocketAddress address, CrackJobScheduler scheduler) throws IOException {
+        this.scheduler = scheduler;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * 实际监听的端口
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * 事件循环，在调用线程上运行直到{@link #close()}
+     */
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable completion;
+                while ((completion = completions.poll()) != null) {
+                    completion.run();
+                }
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException e) {
+                        closeQuietly(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                System.err.println("❌ 服务异常退出：" + e.getMessage());
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // 退出时忽略
+            }
+        }
+    }
+
+    /**
+     * 停止事件循环并关闭所有连接
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        serverChannel.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+            key.attach(new Connection(channel, key, remote.getAddress().getHostAddress()));
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // 连接已断开
+        }
+    }
+
+    /**
+     * 单个连接的读写缓冲与帧处理（只在事件线程上访问）
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        /** 调度破解任务时的租户（客户端IP） */
+        private final String tenant;
+        /** 读缓冲区，始终处于写入模式 */
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        /** 待发送的响应，始终处于写入模式 */
+        private ByteBuffer out = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        /** 尚未完成的异步请求数（破解与移出事件线程的加解密） */
+        private int pendingResponses;
+        /** 对端是否已关闭写方向 */
+        private boolean eof;
+
+        Connection(SocketChannel channel, SelectionKey key, String tenant) {
+            this.channel = channel;
+            this.key = key;
+            this.tenant = tenant;
+        }
+
+        void read() throws IOException {
+            int n;
+            while ((n = channel.read(in)) > 0) {
+                if (!in.hasRemaining()) {
+                    processFrames();
+                }
+            }
+            processFrames();
+            if (n < 0) {
+                // 对端关闭写方向：已收到的请求处理完、异步结果写回后再关闭
+                eof = true;
+            }
+            flush();
+        }
+
+        /**
+         * 处理缓冲区中的完整帧，响应累积到输出缓冲区；未完成的异步请求达到上限时停下，其余帧留待以后处理
+         */
+        private void processFrames() throws IOException {
+            in.flip();
+            while (in.remaining() >= 4 && pendingResponses < MAX_PENDING_RESPONSES) {
+                int length = in.getInt(in.position());
+                if (length < REQUEST_HEADER_BYTES - 4 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("非法帧长: " + length);
+                }
+                if (in.remaining() < 4 + length) {
+                    if (in.capacity() < 4 + length) {
+                        in.compact();
+                        in = grow(in, 4 + length);
+                        in.flip();
+                    }
+                    break;
+                }
+                int frameEnd = in.position() + 4 + length;
+                in.position(in.position() + 4);
+                handle(in, frameEnd);
+                in.position(frameEnd);
+            }
+            in.compact();
+        }
+
+        private void handle(ByteBuffer frame, int frameEnd) {
+            byte op = frame.get();
+            int requestId = frame.getInt();
+            int payload = frameEnd - frame.position();
+            try {
+                switch (op) {
+                    case OP_ENCRYPT:
+                    case OP_DECRYPT:
+                        handleCipher(frame, requestId, payload, op == OP_ENCRYPT);
+                        break;
+                    case OP_CRACK:
+                        handleCrack(frame, requestId, payload);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知操作: " + op);
+                }
+            } catch (IllegalArgumentException | RejectedExecutionException e) {
+                writeError(requestId, e.getMessage());
+            }
+        }
+
+        private void handleCipher(ByteBuffer frame, int requestId, int payload, boolean isEncrypt) {
+            if (payload < CIPHER_PARAMS_BYTES) {
+                throw new IllegalArgumentException("加解密请求缺少参数");
+            }
+            int keyBits = frame.getShort() & 0xFFFF;
+            int modeIndex = frame.get() & 0xFF;
+            int iv = frame.get() & 0xFF;
+            if (modeIndex >= SDesMode.values().length) {
+                throw new IllegalArgumentException("未知模式: " + modeIndex);
+            }
+            SDesKey sdesKey = keys.get(keyBits);
+            SDesMode mode = SDesMode.values()[modeIndex];
+            int length = payload - CIPHER_PARAMS_BYTES;
+            if (length >= OFFLOAD_BYTES) {
+                offloadCipher(frame, requestId, length, sdesKey, mode, iv, isEncrypt);
+                return;
+            }
+
+            // 直接从读缓冲区加解密到输出缓冲区，不产生中间数组
+            reserve(RESPONSE_HEADER_BYTES + length);
+            out.putInt(RESPONSE_HEADER_BYTES - 4 + length).putInt(requestId).put(STATUS_OK);
+            int src = frame.arrayOffset() + frame.position();
+            int dst = out.arrayOffset() + out.position();
+            if (isEncrypt) {
+                mode.encrypt(sdesKey, iv, frame.array(), src, length, out.array(), dst);
+            } else {
+                mode.decrypt(sdesKey, iv, frame.array(), src, length, out.array(), dst);
+            }
+            out.position(out.position() + length);
+        }
+
+        /**
+         * 大负载：复制出数据后在公共线程池原地加解密，完成后回到事件线程写出
+         */
+        private void offloadCipher(ByteBuffer frame, int requestId, int length, SDesKey sdesKey, SDesMode mode,
+                                   int iv, boolean isEncrypt) {
+            byte[] data = new byte[length];
+            frame.get(data);
+            pendingResponses++;
+            CompletableFuture.supplyAsync(() -> {
+                if (isEncrypt) {
+                    mode.encrypt(sdesKey, iv, data, 0, length, data, 0);
+                } else {
+                    mode.decrypt(sdesKey, iv, data, 0, length, data, 0);
+                }
+                return data;
+            }, ForkJoinPool.commonPool()).whenComplete((result, error) -> {
+                completions.add(() -> completeCipher(requestId, result, error));
+                selector.wakeup();
+            });
+        }
+
+        private void completeCipher(int requestId, byte[] result, Throwable error) {
+            pendingResponses--;
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (error != null) {
+                writeError(requestId, String.valueOf(error.getMessage()));
+            } else {
+                reserve(RESPONSE_HEADER_BYTES + result.length);
+                out.putInt(RESPONSE_HEADER_BYTES - 4 + result.length).putInt(requestId).put(STATUS_OK).put(result);
+            }
+            flushOrClose();
+        }
+
+        private void handleCrack(ByteBuffer frame, int requestId, int payload) {
+            if (payload == 0 || payload % 2 != 0) {
+                throw new IllegalArgumentException("破解请求必须包含至少一组明密文对");
+            }
+            int[] plaintexts = new int[payload / 2];
+            int[] ciphertexts = new int[payload / 2];
+            for (int i = 0; i < plaintexts.length; i++) {
+                plaintexts[i] = frame.get() & 0xFF;
+                ciphertexts[i] = frame.get() & 0xFF;
+            }
+            CrackJobScheduler.Job<int[]> job =
+                    scheduler.submitCrack(tenant, CrackJobScheduler.Priority.NORMAL, plaintexts, ciphertexts);
+            pendingResponses++;
+            job.whenComplete((found, error) -> {
+                completions.add(() -> completeCrack(requestId, found, error));
+                selector.wakeup();
+            });
+        }
+
+        private void completeCrack(int requestId, int[] found, Throwable error) {
+            pendingResponses--;
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (error != null) {
+                writeError(requestId, String.valueOf(error.getMessage()));
+            } else {
+                reserve(RESPONSE_HEADER_BYTES + found.length * 2);
+                out.putInt(RESPONSE_HEADER_BYTES - 4 + found.length * 2).putInt(requestId).put(STATUS_OK);
+                for (int k : found) {
+                    out.putShort((short) k);
+                }
+            }
+            flushOrClose();
+        }
+
+        /**
+         * 异步结果写回后调用：继续处理因积压暂停时留在读缓冲区的帧，再写出响应
+         */
+        private void flushOrClose() {
+            try {
+                processFrames();
+                flush();
+            } catch (IOException e) {
+                closeQuietly(key);
+            }
+        }
+
+        private void writeError(int requestId, String message) {
+            byte[] text = message.getBytes(StandardCharsets.UTF_8);
+            reserve(RESPONSE_HEADER_BYTES + text.length);
+            out.putInt(RESPONSE_HEADER_BYTES - 4 + text.length).putInt(requestId).put(STATUS_ERROR).put(text);
+        }
+
+        /**
+         * 尽量写出积压的响应，并按积压量调整读写关注事件
+         */
+        void flush() throws IOException {
+            if (out.position() > 0) {
+                out.flip();
+                channel.write(out);
+                out.compact();
+            }
+            if (!key.isValid()) {
+                return;
+            }
+            if (eof && out.position() == 0 && pendingResponses == 0) {
+                closeQuietly(key);
+                return;
+            }
+            int ops = out.position() > 0 ? SelectionKey.OP_WRITE : 0;
+            if (!eof && out.position() < OUTPUT_HIGH_WATER && pendingResponses < MAX_PENDING_RESPONSES) {
+                ops |= SelectionKey.OP_READ;
+            }
+            key.interestOps(ops);
+        }
+
+        private void reserve(int bytes) {
+            if (out.remaining() < bytes) {
+                out = grow(out, Math.max(out.capacity() * 2, out.position() + bytes));
+            }
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    /**
+     * 命令行入口：java SDesServer [端口]（默认9090）
+     */
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            System.err.println("用法: java SDesServer [端口]");
+            System.exit(2);
+        }
+        try {
+            int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+            SDesServer server = new SDesServer(new InetSocketAddress(port), CrackJobScheduler.shared());
+            System.out.println("✅ S-DES服务已启动，端口 " + server.getPort());
+            server.run();
+        } catch (NumberFormatException e) {
+            System.err.println("❌ 错误：端口必须为整数");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("❌ 服务启动失败：" + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * 流式加解密的状态：密钥、工作模式、方向以及跨调用传递的链接值
+ * <p>
+ * 供{@link SDesInputStream}、{@link SDesOutputStream}、{@link SDesWritableChannel}共用，非线程安全。
+ */
+final class SDesStreamTransform {
+    private final SDesKey key;
+    private final SDesMode mode;
+    private final boolean isEncrypt;
+    /** 当前链接值（IV/计数器/反馈值） */
+    private int chain;
+
+    SDesStreamTransform(SDesKey key, SDesMode mode, int iv, boolean isEncrypt) {
+        if (key == null || mode == null) {
+            throw new IllegalArgumentException("密钥和工作模式不能为空");
+        }
+        this.key = key;
+        this.mode = mode;
+        this.isEncrypt = isEncrypt;
+        this.chain = iv & 0xFF;
+    }
+
+    /**
+     * 原地处理一段数据，并更新链接值
+     */
+    void apply(byte[] data, int off, int len) {
+        chain = isEncrypt
+                ? mode.encrypt(key, chain, data, off, len, data, off)
+                : mode.decrypt(key, chain, data, off, len, data, off);
+    }
+}
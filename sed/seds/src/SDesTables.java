@@ -0,0 +1,77 @@
+/**
+ * 由置换盒、S-Box与移位规则编译出的查找表，{@link SDesUtil}与{@link CipherSpec}共用同一份编译代码
+ * <p>
+ * 不做合法性校验（由调用方负责），也不依赖任何静态状态，因此两个类的静态初始化顺序互不影响。
+ */
+final class SDesTables {
+    private static final int KEY_COUNT = 1024;
+
+    /** 打包子密钥：subkeys[key] = (k1 &lt;&lt; 8) | k2 */
+    final int[] subkeys = new int[KEY_COUNT];
+    /** 初始置换表：ip[block] = IP(block) */
+    final byte[] ip = new byte[256];
+    /** 最终置换表：ipInverse[block] = IP-1(block) */
+    final byte[] ipInverse = new byte[256];
+    /** 合并的轮函数表：round[(subkey8 &lt;&lt; 4) | right4] = F(right4, subkey8) */
+    final byte[] round = new byte[256 * 16];
+
+    /**
+     * 各参数的含义与{@link CipherSpec#of}相同，置换表均为1-based、最高位为第1位
+     */
+    SDesTables(int[] p10, int[] p8, int[] ip, int[] ipInverse, int[] ep,
+               int[][] sBox1, int[][] sBox2, int[] sp, int[] shifts) {
+        for (int block = 0; block < 256; block++) {
+            this.ip[block] = (byte) permute(block, 8, ip);
+            this.ipInverse[block] = (byte) permute(block, 8, ipInverse);
+        }
+
+        // SP是位置换，对两个S-Box输出分别置换后按位或即为合并结果
+        int[] s1Sp = new int[16];
+        int[] s2Sp = new int[16];
+        for (int input = 0; input < 16; input++) {
+            int row = ((input >>> 2) & 0b10) | (input & 1);
+            int col = (input >>> 1) & 0b11;
+            s1Sp[input] = permute(sBox1[row][col] << 2, 4, sp);
+            s2Sp[input] = permute(sBox2[row][col], 4, sp);
+        }
+        for (int subkey = 0; subkey < 256; subkey++) {
+            for (int right = 0; right < 16; right++) {
+                int x = permute(right, 4, ep) ^ subkey;
+                round[(subkey << 4) | right] = (byte) (s1Sp[x >>> 4] | s2Sp[x & 0xF]);
+            }
+        }
+
+        for (int key = 0; key < KEY_COUNT; key++) {
+            int p10Result = permute(key, 10, p10);
+            int left1 = rotateLeft5(p10Result >>> 5, shifts[0]);
+            int right1 = rotateLeft5(p10Result & 0x1F, shifts[0]);
+            int k1 = permute((left1 << 5) | right1, 10, p8);
+            int left2 = rotateLeft5(left1, shifts[1]);
+            int right2 = rotateLeft5(right1, shifts[1]);
+            int k2 = permute((left2 << 5) | right2, 10, p8);
+            subkeys[key] = (k1 << 8) | k2;
+        }
+    }
+
+    /**
+     * 按置换表对打包整数做位置换
+     * @param input 输入数据
+     * @param inputWidth 输入位宽
+     * @param table 置换表
+     * @return 置换结果，位宽等于置换表长度
+     */
+    private static int permute(int input, int inputWidth, int[] table) {
+        int result = 0;
+        for (int position : table) {
+            result = (result << 1) | ((input >>> (inputWidth - position)) & 1);
+        }
+        return result;
+    }
+
+    /**
+     * 5位数据循环左移
+     */
+    private static int rotateLeft5(int value, int shifts) {
+        return ((value << shifts) | (value >>> (5 - shifts))) & 0x1F;
+    }
+}
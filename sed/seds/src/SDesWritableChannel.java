@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * S-DES加解密可写通道装饰器
+ * <p>
+ * 写入的数据按块拷入内部缓冲区、整块加解密后写入底层通道。
+ * 底层通道应为阻塞模式：每次write都会把处理后的数据全部写出后才返回。
+ */
+public class SDesWritableChannel implements WritableByteChannel {
+    /** 默认缓冲区大小 */
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final SDesStreamTransform transform;
+    private final byte[] buffer;
+    private final ByteBuffer bufferView;
+    private boolean open = true;
+
+    /**
+     * ECB模式通道
+     * @param channel 底层通道
+     * @param key 预处理后的密钥
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    public SDesWritableChannel(WritableByteChannel channel, SDesKey key, boolean isEncrypt) {
+        this(channel, key, SDesMode.ECB, 0, isEncrypt);
+    }
+
+    /**
+     * @param channel 底层通道
+     * @param key 预处理后的密钥
+     * @param mode 工作模式
+     * @param iv 8位初始值（ECB忽略）
+     * @param isEncrypt true表示加密，false表示解密
+     */
+    public SDesWritableChannel(WritableByteChannel channel, SDesKey key, SDesMode mode, int iv, boolean isEncrypt) {
+        this.channel = channel;
+        this.transform = new SDesStreamTransform(key, mode, iv, isEncrypt);
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+        this.bufferView = ByteBuffer.wrap(buffer);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        int written = 0;
+        while (src.hasRemaining()) {
+            int n = Math.min(src.remaining(), buffer.length);
+            src.get(buffer, 0, n);
+            transform.apply(buffer, 0, n);
+            bufferView.clear().limit(n);
+            while (bufferView.hasRemaining()) {
+                channel.write(bufferView);
+            }
+            written += n;
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open && channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        channel.close();
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * 64位标量位切片密钥搜索：每个long承载64个密钥，16轮覆盖全部1024个密钥
+ */
+public class ScalarBitslicedKeySearch extends BitslicedKeySearch {
+
+    @Override
+    public int lanes() {
+        return 64;
+    }
+
+    @Override
+    public int[] search(int[] plaintexts, int[] ciphertexts) throws IllegalArgumentException {
+        BruteForceEngine.validatePairs(plaintexts, ciphertexts);
+        long[] key = new long[10];
+        long[] k1 = new long[8];
+        long[] k2 = new long[8];
+        long[] ip = new long[8];
+        long[] pre = new long[8];
+        long[] f = new long[4];
+        int[] found = new int[KEY_COUNT];
+        int count = 0;
+
+        for (int base = 0; base < KEY_COUNT; base += 64) {
+            // 密钥第j位（最高位为0）对应数值的第9-j位：低6位为固定花样，高4位由base决定
+            for (int j = 0; j < 10; j++) {
+                int valueBit = 9 - j;
+                key[j] = valueBit < 6 ? LANE_PATTERNS[valueBit] : -((base >>> valueBit) & 1L);
+            }
+            for (int i = 0; i < 8; i++) {
+                k1[i] = key[K1_SOURCE[i]];
+                k2[i] = key[K2_SOURCE[i]];
+            }
+            long mask = -1L;
+            for (int i = 0; i < plaintexts.length && mask != 0; i++) {
+                mask &= matchLanes(plaintexts[i], ciphertexts[i], k1, k2, ip, pre, f);
+            }
+            for (; mask != 0; mask &= mask - 1) {
+                found[count++] = base | Long.numberOfTrailingZeros(mask);
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * 对64个密钥同时加密一个明文，返回密文与目标一致的通道掩码
+     */
+    private static long matchLanes(int plaintext, int ciphertext, long[] k1, long[] k2,
+                                   long[] ip, long[] pre, long[] f) {
+        // 明文对所有通道相同：IP后每位展开为全0或全1
+        for (int i = 0; i < 8; i++) {
+            ip[i] = -((plaintext >>> (7 - IP_SOURCE[i])) & 1L);
+        }
+        // 第一轮：swRight = L ⊕ F(R, k1)，交换后新左半部分为R
+        roundF(ip, 4, k1, f);
+        for (int i = 0; i < 4; i++) {
+            pre[4 + i] = ip[i] ^ f[i];
+        }
+        // 第二轮：newLeft = R ⊕ F(swRight, k2)
+        roundF(pre, 4, k2, f);
+        for (int i = 0; i < 4; i++) {
+            pre[i] = ip[4 + i] ^ f[i];
+        }
+        // IP-1后与目标密文逐位比较
+        long mask = -1L;
+        for (int i = 0; i < 8; i++) {
+            long bit = pre[IP_INVERSE_SOURCE[i]];
+            mask &= ((ciphertext >>> (7 - i)) & 1) != 0 ? bit : ~bit;
+        }
+        return mask;
+    }
+
+    /**
+     * 位切片轮函数：EP扩展 → 异或子密钥 → S-Box → SP置换
+     * @param state 数据位切片
+     * @param offset 右半部分在state中的起始下标
+     * @param subkey 子密钥位切片
+     * @param out 4位输出
+     */
+    private static void roundF(long[] state, int offset, long[] subkey, long[] out) {
+        long x0 = state[offset + EP_SOURCE[0]] ^ subkey[0];
+        long x1 = state[offset + EP_SOURCE[1]] ^ subkey[1];
+        long x2 = state[offset + EP_SOURCE[2]] ^ subkey[2];
+        long x3 = state[offset + EP_SOURCE[3]] ^ subkey[3];
+        long x4 = state[offset + EP_SOURCE[4]] ^ subkey[4];
+        long x5 = state[offset + EP_SOURCE[5]] ^ subkey[5];
+        long x6 = state[offset + EP_SOURCE[6]] ^ subkey[6];
+        long x7 = state[offset + EP_SOURCE[7]] ^ subkey[7];
+        long s0 = sBox(S1_HIGH, x0, x1, x2, x3);
+        long s1 = sBox(S1_LOW, x0, x1, x2, x3);
+        long s2 = sBox(S2_HIGH, x4, x5, x6, x7);
+        long s3 = sBox(S2_LOW, x4, x5, x6, x7);
+        for (int i = 0; i < 4; i++) {
+            int source = SP_SOURCE[i];
+            out[i] = source == 0 ? s0 : source == 1 ? s1 : source == 2 ? s2 : s3;
+        }
+    }
+}
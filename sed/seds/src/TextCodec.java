@@ -0,0 +1,365 @@
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 文本与字节之间的编解码（UTF-8、十六进制、Base64），全部基于查表且直接读写字节数组
+ * <p>
+ * 文本加密的流程为：明文按UTF-8编码为字节 → 按字节分组加密 → 密文字节按{@link Format}写成文本；
+ * 解密反之。任意Unicode字符（包括中文与补充平面字符）都能正确往返，中间不产生逐位的二进制字符串。
+ */
+public final class TextCodec {
+    /** 小写十六进制字符 */
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    /** 十六进制字符 → 数值，非法字符为-1，空白为-2 */
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+        for (char c : new char[]{' ', '\t', '\r', '\n'}) {
+            HEX_VALUES[c] = -2;
+        }
+    }
+
+    private TextCodec() {
+    }
+
+    /**
+     * 密文的文本格式
+     */
+    public enum Format {
+        /** 每个字节对应一个0~255的字符（原ASCII模式的输出，很可能是乱码） */
+        RAW("原始字符"),
+        /** 十六进制（解码时忽略空白） */
+        HEX("十六进制"),
+        /** Base64（解码时忽略换行等非Base64字符） */
+        BASE64("Base64");
+
+        private final String label;
+
+        Format(String label) {
+            this.label = label;
+        }
+
+        /**
+         * 字节写成文本
+         * @param data 字节数组
+         * @param off 起始下标
+         * @param len 字节数
+         * @return 文本
+         */
+        public String encode(byte[] data, int off, int len) {
+            switch (this) {
+                case HEX:
+                    return toHex(data, off, len);
+                case BASE64:
+                    ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(data, off, len));
+                    return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+                default:
+                    return new String(data, off, len, StandardCharsets.ISO_8859_1);
+            }
+        }
+
+        /**
+         * 文本还原为字节
+         * @param text 文本
+         * @return 字节数组
+         * @throws IllegalArgumentException 文本不符合该格式时抛出
+         */
+        public byte[] decode(String text) throws IllegalArgumentException {
+            switch (this) {
+                case HEX:
+                    return fromHex(text);
+                case BASE64:
+                    return Base64.getMimeDecoder().decode(text);
+                default:
+                    for (int i = 0; i < text.length(); i++) {
+                        if (text.charAt(i) > 0xFF) {
+                            throw new IllegalArgumentException("原始字符格式仅支持单字节字符（第" + (i + 1) + "个字符超出范围）");
+                        }
+                    }
+                    return text.getBytes(StandardCharsets.ISO_8859_1);
+            }
+        }
+
+        /**
+         * 包装输入流：读出的是解码后的字节（RAW格式原样返回）
+         */
+        public InputStream decodingStream(InputStream in) {
+            switch (this) {
+                case HEX:
+                    return new HexInputStream(in);
+                case BASE64:
+                    return Base64.getMimeDecoder().wrap(in);
+                default:
+                    return in;
+            }
+        }
+
+        /**
+         * 包装输出流：写入的字节按格式编码后输出（RAW格式原样返回）
+         */
+        public OutputStream encodingStream(OutputStream out) {
+            switch (this) {
+                case HEX:
+                    return new HexOutputStream(out);
+                case BASE64:
+                    return Base64.getEncoder().wrap(out);
+                default:
+                    return out;
+            }
+        }
+
+        /**
+         * 按名称解析（不区分大小写）
+         * @throws IllegalArgumentException 名称不是raw、hex或base64时抛出
+         */
+        public static Format parse(String name) throws IllegalArgumentException {
+            try {
+                return valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("格式必须为raw、hex或base64: " + name);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // -------------------------- UTF-8 --------------------------
+    /**
+     * 文本按UTF-8编码后的字节数（不完整的代理对按1个字节的'?'计）
+     */
+    public static int utf8Length(CharSequence text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 文本按UTF-8直接编码到目标数组（不完整的代理对写为'?'，与JDK一致）
+     * @param text 文本
+     * @param dst 目标数组，剩余空间至少为{@link #utf8Length(CharSequence)}
+     * @param off 目标起始下标
+     * @return 写入的字节数
+     * @throws IndexOutOfBoundsException 目标空间不足时抛出
+     */
+    public static int encodeUtf8(CharSequence text, byte[] dst, int off) {
+        int pos = off;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | (c >>> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                dst[pos++] = (byte) (0xF0 | (cp >>> 18));
+                dst[pos++] = (byte) (0x80 | ((cp >>> 12) & 0x3F));
+                dst[pos++] = (byte) (0x80 | ((cp >>> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                dst[pos++] = '?';
+            } else {
+                dst[pos++] = (byte) (0xE0 | (c >>> 12));
+                dst[pos++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+                dst[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos - off;
+    }
+
+    /**
+     * 文本按UTF-8编码为新数组（长度恰好等于编码结果）
+     */
+    public static byte[] encodeUtf8(CharSequence text) {
+        byte[] bytes = new byte[utf8Length(text)];
+        encodeUtf8(text, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * UTF-8字节解码为文本（非法序列替换为U+FFFD）
+     */
+    public static String decodeUtf8(byte[] data, int off, int len) {
+        return new String(data, off, len, StandardCharsets.UTF_8);
+    }
+
+    // -------------------------- 十六进制 --------------------------
+    /**
+     * 字节编码为十六进制ASCII字节
+     * @param src 输入数组
+     * @param off 输入起始下标
+     * @param len 字节数
+     * @param dst 目标数组，剩余空间至少为2 × len
+     * @param dstOff 目标起始下标
+     * @return 写入的字节数（2 × len）
+     */
+    public static int encodeHex(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        for (int i = 0; i < len; i++) {
+            int v = src[off + i] & 0xFF;
+            dst[dstOff + 2 * i] = HEX_DIGITS[v >>> 4];
+            dst[dstOff + 2 * i + 1] = HEX_DIGITS[v & 0x0F];
+        }
+        return 2 * len;
+    }
+
+    /**
+     * 字节编码为十六进制字符串
+     */
+    public static String toHex(byte[] src, int off, int len) {
+        byte[] text = new byte[2 * len];
+        encodeHex(src, off, len, text, 0);
+        return new String(text, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 十六进制字符串还原为字节（忽略空白，大小写均可）
+     * @throws IllegalArgumentException 含非法字符或有效字符数为奇数时抛出
+     */
+    public static byte[] fromHex(CharSequence text) throws IllegalArgumentException {
+        byte[] result = new byte[text.length() / 2];
+        int count = 0;
+        int pending = -1;
+        for (int i = 0; i < text.length(); i++) {
+            int digit = hexValue(text.charAt(i));
+            if (digit == -2) {
+                continue;
+            }
+            if (digit < 0) {
+                throw new IllegalArgumentException("非法的十六进制字符: " + text.charAt(i));
+            }
+            if (pending < 0) {
+                pending = digit;
+            } else {
+                result[count++] = (byte) ((pending << 4) | digit);
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            throw new IllegalArgumentException("十六进制字符数必须为偶数");
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 十六进制字符的数值，空白为-2，非法字符为-1
+     */
+    private static int hexValue(int c) {
+        return c < 128 ? HEX_VALUES[c] : -1;
+    }
+
+    /**
+     * 十六进制文本解码流：忽略空白字符，两个十六进制字符还原一个字节
+     */
+    private static final class HexInputStream extends FilterInputStream {
+        private final byte[] text = new byte[8192];
+        /** 逐字节读取时的解码缓冲 */
+        private final byte[] one = new byte[1];
+        private int pending = -1;
+
+        HexInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            int produced = 0;
+            while (produced == 0) {
+                int n = in.read(text, 0, (int) Math.min(text.length, 2L * len));
+                if (n < 0) {
+                    if (pending >= 0) {
+                        throw new IOException("十六进制输入的字符数为奇数");
+                    }
+                    return -1;
+                }
+                for (int i = 0; i < n; i++) {
+                    int digit = hexValue(text[i] & 0xFF);
+                    if (digit == -2) {
+                        continue;
+                    }
+                    if (digit < 0) {
+                        throw new IOException("非法的十六进制字符: " + (char) (text[i] & 0xFF));
+                    }
+                    if (pending < 0) {
+                        pending = digit;
+                    } else {
+                        b[off + produced++] = (byte) ((pending << 4) | digit);
+                        pending = -1;
+                    }
+                }
+            }
+            return produced;
+        }
+    }
+
+    /**
+     * 十六进制文本编码流：每个字节输出两个小写十六进制字符
+     */
+    private static final class HexOutputStream extends FilterOutputStream {
+        private final byte[] text = new byte[16384];
+
+        HexOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            text[0] = HEX_DIGITS[(b >>> 4) & 0x0F];
+            text[1] = HEX_DIGITS[b & 0x0F];
+            out.write(text, 0, 2);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, text.length / 2);
+                out.write(text, 0, encodeHex(b, off, n, text, 0));
+                off += n;
+                len -= n;
+            }
+        }
+    }
+}
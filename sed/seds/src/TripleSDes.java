@@ -0,0 +1,193 @@
+import java.util.Objects;
+
+/**
+ * 三重S-DES（EDE）：C = E(k3, D(k2, E(k1, P)))，30位组合密钥 key30 = (k1 &lt;&lt; 20) | (k2 &lt;&lt; 10) | k3
+ * <p>
+ * 每个密钥都是256个字节值上的一个置换，级联后仍是一个置换。因此在准备密钥组时就把三层查表合成一张256项
+ * 融合表（及其逆表），之后每个字节只查一次表，结果与逐层计算完全相同。双密钥EDE取k3 = k1。
+ * <p>
+ * 由整数密钥创建的实例按密钥组缓存在进程内的有界{@link LruCache}中，重复使用同一密钥组时不再合成。
+ */
+public final class TripleSDes {
+    /** 组合密钥空间大小（30位） */
+    public static final int KEY_COUNT = 1 << 30;
+    /**
+     * 融合表缓存的最大密钥组数。每组保留三个{@link SDesKey}（各含2×256B查找表）和2×256B融合表，
+     * 连同对象头与映射项约2.3KB，满容量时约9MB
+     */
+    static final int CACHE_CAPACITY = 4096;
+
+    /** 按访问顺序淘汰的融合表缓存，键为30位组合密钥 */
+    private static final LruCache<TripleSDes> CACHE = new LruCache<>(CACHE_CAPACITY,
+            key30 -> new TripleSDes(SDesKey.of(key30 >>> 20), SDesKey.of((key30 >>> 10) & 0x3FF),
+                    SDesKey.of(key30 & 0x3FF)));
+
+    private final SDesKey first;
+    private final SDesKey second;
+    private final SDesKey third;
+    /** 融合加密表：encryptTable[plaintext] = ciphertext */
+    private final byte[] encryptTable = new byte[256];
+    /** 融合解密表：decryptTable[ciphertext] = plaintext */
+    private final byte[] decryptTable = new byte[256];
+
+    private TripleSDes(SDesKey first, SDesKey second, SDesKey third) {
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        for (int block = 0; block < 256; block++) {
+            int cipher = third.encrypt(second.decrypt(first.encrypt(block)));
+            encryptTable[block] = (byte) cipher;
+            decryptTable[cipher] = (byte) block;
+        }
+    }
+
+    /**
+     * 由三个预处理密钥创建（可以是任意算法变体，不进入缓存）
+     * @param first 第一层加密密钥k1
+     * @param second 第二层解密密钥k2
+     * @param third 第三层加密密钥k3
+     */
+    public static TripleSDes of(SDesKey first, SDesKey second, SDesKey third) {
+        return new TripleSDes(Objects.requireNonNull(first, "first"), Objects.requireNonNull(second, "second"),
+                Objects.requireNonNull(third, "third"));
+    }
+
+    /**
+     * 由三个10位密钥创建（标准S-DES），同一密钥组复用缓存的融合表
+     * @param k1 第一层加密密钥
+     * @param k2 第二层解密密钥
+     * @param k3 第三层加密密钥
+     * @throws IllegalArgumentException 任一密钥超出10位范围时抛出
+     */
+    public static TripleSDes of(int k1, int k2, int k3) throws IllegalArgumentException {
+        if (((k1 | k2 | k3) & ~0x3FF) != 0) {
+            throw new IllegalArgumentException("密钥必须为10位（0~1023）");
+        }
+        return of((k1 << 20) | (k2 << 10) | k3);
+    }
+
+    /**
+     * 双密钥EDE：C = E(k1, D(k2, E(k1, P)))
+     * @param k1 第一、三层加密密钥
+     * @param k2 第二层解密密钥
+     * @throws IllegalArgumentException 任一密钥超出10位范围时抛出
+     */
+    public static TripleSDes of(int k1, int k2) throws IllegalArgumentException {
+        return of(k1, k2, k1);
+    }
+
+    /**
+     * 由30位组合密钥创建（标准S-DES），同一密钥组复用缓存的融合表
+     * @param key30 (k1 &lt;&lt; 20) | (k2 &lt;&lt; 10) | k3
+     * @throws IllegalArgumentException 密钥超出30位范围时抛出
+     */
+    public static TripleSDes of(int key30) throws IllegalArgumentException {
+        if ((key30 & ~(KEY_COUNT - 1)) != 0) {
+            throw new IllegalArgumentException("三重S-DES密钥必须为30位");
+        }
+        return CACHE.get(key30);
+    }
+
+    /**
+     * 逐层三重加密一个分组（不查融合表）
+     * @param block 8位明文
+     * @param key30 (k1 &lt;&lt; 20) | (k2 &lt;&lt; 10) | k3
+     * @return 8位密文
+     */
+    public static int encrypt(int block, int key30) {
+        int k1 = (key30 >>> 20) & 0x3FF;
+        int k2 = (key30 >>> 10) & 0x3FF;
+        int k3 = key30 & 0x3FF;
+        return SDesUtil.encryptByte(SDesUtil.decryptByte(SDesUtil.encryptByte(block, k1), k2), k3);
+    }
+
+    /**
+     * 逐层三重解密一个分组（不查融合表）
+     * @param block 8位密文
+     * @param key30 (k1 &lt;&lt; 20) | (k2 &lt;&lt; 10) | k3
+     * @return 8位明文
+     */
+    public static int decrypt(int block, int key30) {
+        int k1 = (key30 >>> 20) & 0x3FF;
+        int k2 = (key30 >>> 10) & 0x3FF;
+        int k3 = key30 & 0x3FF;
+        return SDesUtil.decryptByte(SDesUtil.encryptByte(SDesUtil.decryptByte(block, k3), k2), k1);
+    }
+
+    /**
+     * 逐层三重加密（二进制数组版）：依次调用SDesUtil.encrypt、decrypt、encrypt
+     * @param plaintext8 8位明文
+     * @param key1 第一层10位密钥
+     * @param key2 第二层10位密钥
+     * @param key3 第三层10位密钥
+     * @return 8位密文
+     */
+    public static int[] encrypt(int[] plaintext8, int[] key1, int[] key2, int[] key3) {
+        return SDesUtil.encrypt(SDesUtil.decrypt(SDesUtil.encrypt(plaintext8, key1), key2), key3);
+    }
+
+    /**
+     * 逐层三重解密（二进制数组版）：依次调用SDesUtil.decrypt、encrypt、decrypt
+     * @param ciphertext8 8位密文
+     * @param key1 第一层10位密钥
+     * @param key2 第二层10位密钥
+     * @param key3 第三层10位密钥
+     * @return 8位明文
+     */
+    public static int[] decrypt(int[] ciphertext8, int[] key1, int[] key2, int[] key3) {
+        return SDesUtil.decrypt(SDesUtil.encrypt(SDesUtil.decrypt(ciphertext8, key3), key2), key1);
+    }
+
+    /** 缓存中的密钥组数量 */
+    static int cachedCount() {
+        return CACHE.size();
+    }
+
+    /** 30位组合密钥（仅对标准S-DES密钥有意义） */
+    public int getKey() {
+        return (first.getKey() << 20) | (second.getKey() << 10) | third.getKey();
+    }
+
+    /**
+     * 三重加密一个分组（查融合表）
+     */
+    public int encrypt(int block) {
+        return encryptTable[block & 0xFF] & 0xFF;
+    }
+
+    /**
+     * 三重解密一个分组（查融合表）
+     */
+    public int decrypt(int block) {
+        return decryptTable[block & 0xFF] & 0xFF;
+    }
+
+    /**
+     * 批量三重加密，每字节一次查表；in与out可为同一数组（原地加密）
+     * @throws IndexOutOfBoundsException 区间越界时抛出
+     */
+    public void encrypt(byte[] in, int off, int len, byte[] out, int outOff) {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        SDesKey.transform(in, off, len, out, outOff, encryptTable);
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(true, len, startTime);
+        }
+    }
+
+    /**
+     * 批量三重解密，每字节一次查表；in与out可为同一数组（原地解密）
+     * @throws IndexOutOfBoundsException 区间越界时抛出
+     */
+    public void decrypt(byte[] in, int off, int len, byte[] out, int outOff) {
+        long startTime = SDesMetrics.ENABLED ? System.nanoTime() : 0L;
+        SDesKey.transform(in, off, len, out, outOff, decryptTable);
+        if (SDesMetrics.ENABLED) {
+            SDesMetrics.recordCipher(false, len, startTime);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return first + "-" + second + "-" + third;
+    }
+}
@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 向量位切片搜索（仅在mvn -Pvector下编译运行）：通过自检、被best()选中，结果与逐密钥的参考扫描一致
+ */
+class VectorBitslicedKeySearchTest {
+    private static final int SAMPLES = 500;
+
+    @Test
+    void passesSelfCheckAndIsChosenByBest() {
+        VectorBitslicedKeySearch search = new VectorBitslicedKeySearch();
+        assertEquals(0, search.lanes() % 64);
+        assertTrue(search.selfCheck(64));
+        assertInstanceOf(VectorBitslicedKeySearch.class, BitslicedKeySearch.best());
+    }
+
+    @Test
+    void matchesReference() {
+        VectorBitslicedKeySearch search = new VectorBitslicedKeySearch();
+        Random random = new Random(5);
+        for (int s = 0; s < SAMPLES; s++) {
+            int[][] pairs = ReferenceSearch.randomPairs(random, 1 + random.nextInt(4));
+            assertArrayEquals(ReferenceSearch.keysMatching(pairs[0], pairs[1]), search.search(pairs[0], pairs[1]),
+                    "样本 " + s);
+        }
+    }
+
+    @Test
+    void everyKeyIsFoundFromTwoOfItsPairs() {
+        VectorBitslicedKeySearch search = new VectorBitslicedKeySearch();
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            int[] plaintexts = {key & 0xFF, (key * 37 + 11) & 0xFF};
+            int[] ciphertexts = {SDesUtil.encryptByte(plaintexts[0], key), SDesUtil.encryptByte(plaintexts[1], key)};
+            assertArrayEquals(ReferenceSearch.keysMatching(plaintexts, ciphertexts),
+                    search.search(plaintexts, ciphertexts), "密钥 " + key);
+        }
+    }
+
+    @Test
+    void engineMultiPairSearchMatchesReference() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BruteForceEngine engine = new BruteForceEngine(pool);
+            Random random = new Random(6);
+            for (int s = 0; s < SAMPLES; s++) {
+                int[][] pairs = ReferenceSearch.randomPairs(random, 2 + random.nextInt(3));
+                assertArrayEquals(ReferenceSearch.keysMatching(pairs[0], pairs[1]), engine.crack(pairs[0], pairs[1]),
+                        "样本 " + s);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
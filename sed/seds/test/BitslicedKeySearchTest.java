@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 位切片搜索与暴力破解引擎的各条路径，均与逐密钥的参考扫描比对
+ */
+class BitslicedKeySearchTest {
+    private static final int SAMPLES = 500;
+
+    private static ForkJoinPool pool;
+    private static BruteForceEngine engine;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+        engine = new BruteForceEngine(pool);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void scalarMatchesReference() {
+        assertMatchesReference(new ScalarBitslicedKeySearch(), new Random(1));
+    }
+
+    @Test
+    void bestMatchesReference() {
+        BitslicedKeySearch best = BitslicedKeySearch.best();
+        assertNotNull(best, "标量位切片实现应通过自检");
+        assertMatchesReference(best, new Random(2));
+    }
+
+    @Test
+    void everyKeyIsFoundFromTwoOfItsPairs() {
+        BitslicedKeySearch search = new ScalarBitslicedKeySearch();
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            int[] plaintexts = {key & 0xFF, (key * 37 + 11) & 0xFF};
+            int[] ciphertexts = {SDesUtil.encryptByte(plaintexts[0], key), SDesUtil.encryptByte(plaintexts[1], key)};
+            assertArrayEquals(ReferenceSearch.keysMatching(plaintexts, ciphertexts),
+                    search.search(plaintexts, ciphertexts), "密钥 " + key);
+        }
+    }
+
+    @Test
+    void engineSearchMatchesReference() {
+        Random random = new Random(3);
+        for (int s = 0; s < SAMPLES; s++) {
+            int[][] pairs = ReferenceSearch.randomPairs(random, 1 + random.nextInt(4));
+            int[] expected = ReferenceSearch.keysMatching(pairs[0], pairs[1]);
+            assertArrayEquals(expected, engine.crack(pairs[0], pairs[1]), "样本 " + s);
+            assertArrayEquals(expected, engine.searchChunked(pairs[0], pairs[1], null).join(), "样本 " + s);
+        }
+    }
+
+    @Test
+    void searchReportsFullProgress() {
+        int[] tested = new int[1];
+        BruteForceEngine.Search search = engine.search(new int[]{1, 2}, new int[]{3, 4},
+                (testedKeys, totalKeys) -> tested[0] = Math.max(tested[0], testedKeys));
+        search.join();
+        assertEquals(BruteForceEngine.KEY_COUNT, tested[0]);
+        assertEquals(1.0, search.getProgress());
+    }
+
+    @Test
+    void rejectsInvalidPairs() {
+        BitslicedKeySearch search = new ScalarBitslicedKeySearch();
+        assertThrows(IllegalArgumentException.class, () -> search.search(new int[0], new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> search.search(new int[]{1, 2}, new int[]{3}));
+        assertThrows(IllegalArgumentException.class, () -> engine.search(new int[]{256}, new int[]{0}));
+    }
+
+    private static void assertMatchesReference(BitslicedKeySearch search, Random random) {
+        for (int s = 0; s < SAMPLES; s++) {
+            int[][] pairs = ReferenceSearch.randomPairs(random, 1 + random.nextInt(4));
+            assertArrayEquals(ReferenceSearch.keysMatching(pairs[0], pairs[1]), search.search(pairs[0], pairs[1]),
+                    "样本 " + s);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 暴力破解引擎：search与searchChunked对1对和多对明密文的结果都与逐个密钥调用{@link SDesUtil}筛选一致，
+ * 进度回调覆盖全部密钥，取消后不再测试密钥，任务块抛出Error时搜索以异常结束而不是挂起
+ */
+class BruteForceEngineTest {
+    private static final int KEY = 0b1010000010;
+
+    @Test
+    void searchAndChunkedMatchReference() throws Exception {
+        Random random = new Random(41);
+        BruteForceEngine engine = BruteForceEngine.shared();
+        for (int s = 0; s < 40; s++) {
+            int[][] pairs = ReferenceSearch.randomPairs(random, s < 20 ? 1 : 2 + random.nextInt(6));
+            int[] expected = ReferenceSearch.keysMatching(pairs[0], pairs[1]);
+            assertArrayEquals(expected, engine.search(pairs[0], pairs[1]).get(10, TimeUnit.SECONDS), "样本 " + s);
+            assertArrayEquals(expected, engine.searchChunked(pairs[0], pairs[1], null).get(10, TimeUnit.SECONDS),
+                    "样本 " + s);
+            assertArrayEquals(expected, engine.crack(pairs[0], pairs[1]), "样本 " + s);
+        }
+        assertThrows(IllegalArgumentException.class, () -> engine.search(new int[0], new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> engine.search(new int[]{1}, new int[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> engine.searchChunked(new int[]{256}, new int[]{0}, null));
+    }
+
+    @Test
+    void progressCoversAllKeys() throws Exception {
+        int[] p = {0x35, 0xC2, 0x0F};
+        int[] c = new int[p.length];
+        for (int i = 0; i < p.length; i++) {
+            c[i] = SDesUtil.encryptByte(p[i], KEY);
+        }
+        BruteForceEngine engine = BruteForceEngine.shared();
+
+        List<Integer> chunked = Collections.synchronizedList(new ArrayList<>());
+        BruteForceEngine.Search search = engine.searchChunked(p, c, (tested, total) -> {
+            assertEquals(SDesCodebook.KEY_COUNT, total);
+            chunked.add(tested);
+        });
+        search.get(10, TimeUnit.SECONDS);
+        assertEquals(SDesCodebook.KEY_COUNT, search.getTestedKeys());
+        assertEquals(1.0, search.getProgress());
+        // 每个任务块回调一次，已测试数各不相同，最后一次为全部密钥
+        List<Integer> sorted = new ArrayList<>(chunked);
+        Collections.sort(sorted);
+        List<Integer> expected = new ArrayList<>();
+        for (int tested = 64; tested <= SDesCodebook.KEY_COUNT; tested += 64) {
+            expected.add(tested);
+        }
+        assertEquals(expected, sorted);
+
+        for (int pairs = 1; pairs <= 2; pairs++) {
+            List<int[]> calls = Collections.synchronizedList(new ArrayList<>());
+            BruteForceEngine.Search fast = engine.search(Arrays.copyOf(p, pairs),
+                    Arrays.copyOf(c, pairs), (tested, total) -> calls.add(new int[]{tested, total}));
+            fast.get(10, TimeUnit.SECONDS);
+            assertEquals(SDesCodebook.KEY_COUNT, fast.getTestedKeys());
+            assertFalse(calls.isEmpty(), pairs + " 对");
+            int[] last = calls.get(calls.size() - 1);
+            assertArrayEquals(new int[]{SDesCodebook.KEY_COUNT, SDesCodebook.KEY_COUNT}, last, pairs + " 对");
+        }
+    }
+
+    @Test
+    void cancelledSearchSkipsPendingChunks() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            BruteForceEngine engine = new BruteForceEngine(pool);
+            // 占住唯一的工作线程，保证取消时所有任务块都还未开始
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            pool.execute(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+            AtomicInteger callbacks = new AtomicInteger();
+            BruteForceEngine.Search chunked = engine.searchChunked(new int[]{1}, new int[]{2},
+                    (tested, total) -> callbacks.incrementAndGet());
+            BruteForceEngine.Search single = engine.search(new int[]{1}, new int[]{2},
+                    (tested, total) -> callbacks.incrementAndGet());
+            assertTrue(chunked.cancel(true));
+            assertTrue(single.cancel(true));
+            release.countDown();
+            assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+
+            assertTrue(chunked.isCancelled());
+            assertThrows(CancellationException.class, chunked::join);
+            assertThrows(CancellationException.class, single::join);
+            assertEquals(0, chunked.getTestedKeys());
+            assertEquals(0, single.getTestedKeys());
+            assertEquals(0, callbacks.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void errorInTaskCompletesExceptionally() {
+        BruteForceEngine engine = BruteForceEngine.shared();
+        BruteForceEngine.ProgressListener failing = (tested, total) -> {
+            throw new AssertionError("监听器失败");
+        };
+        int[][] inputs = {{1}, {2}, {1, 3}, {2, 4}};
+        for (int pairs = 1; pairs <= 2; pairs++) {
+            int[] p = inputs[2 * (pairs - 1)];
+            int[] c = inputs[2 * (pairs - 1) + 1];
+            for (BruteForceEngine.Search search : new BruteForceEngine.Search[]{
+                    engine.search(p, c, failing), engine.searchChunked(p, c, failing)}) {
+                ExecutionException e = assertThrows(ExecutionException.class,
+                        () -> search.get(10, TimeUnit.SECONDS), pairs + " 对");
+                assertInstanceOf(AssertionError.class, e.getCause());
+                assertTrue(search.isCompletedExceptionally());
+            }
+        }
+    }
+}
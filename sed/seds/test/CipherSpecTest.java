@@ -0,0 +1,153 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 算法变体：STANDARD与{@link SDesUtil}完全一致，其他变体与按位数组逐步计算的教科书实现一致，非法规格被拒绝
+ */
+class CipherSpecTest {
+    private static final int[] REVERSED_IP = {8, 7, 6, 5, 4, 3, 2, 1};
+    private static final int[][] S1 = {{1, 0, 3, 2}, {3, 2, 1, 0}, {0, 2, 1, 3}, {3, 1, 3, 2}};
+    private static final int[][] S2 = {{0, 1, 2, 3}, {2, 0, 1, 3}, {3, 0, 1, 0}, {2, 1, 0, 3}};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void standardMatchesSDesUtil() {
+        CipherSpec spec = CipherSpec.STANDARD;
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            int[][] subkeys = SDesUtil.generateSubkeys(SDesUtil.intToBits(key, 10));
+            assertEquals((SDesUtil.bitsToInt(subkeys[0]) << 8) | SDesUtil.bitsToInt(subkeys[1]), spec.subkeys(key));
+            for (int block = 0; block < 256; block++) {
+                int expected = SDesUtil.bitsToInt(SDesUtil.encrypt(SDesUtil.intToBits(block, 8),
+                        SDesUtil.intToBits(key, 10)));
+                assertEquals(expected, spec.encrypt(block, key), "密钥 " + key + " 明文 " + block);
+                assertEquals(block, spec.decrypt(expected, key), "密钥 " + key + " 密文 " + expected);
+            }
+        }
+    }
+
+    @Test
+    void emptyPropertiesGiveStandard() {
+        CipherSpec spec = CipherSpec.fromProperties("empty", new Properties());
+        assertSameCipher(CipherSpec.STANDARD, spec);
+    }
+
+    @Test
+    void variantMatchesTextbookReference() {
+        CipherSpec spec = CipherSpec.of("variant", SDesUtil.P10, SDesUtil.P8, REVERSED_IP, REVERSED_IP,
+                SDesUtil.EP_BOX, S1, S2, new int[]{4, 3, 2, 1}, new int[]{2, 1});
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            int packed = spec.subkeys(key);
+            for (int block = 0; block < 256; block++) {
+                int expected = textbookEncrypt(block, key);
+                assertEquals(expected, spec.encrypt(block, key), "密钥 " + key + " 明文 " + block);
+                assertEquals(expected, spec.encryptBlock(block, packed >>> 8, packed & 0xFF));
+                assertEquals(block, spec.decrypt(expected, key));
+                assertEquals(block, spec.decryptBlock(expected, packed >>> 8, packed & 0xFF));
+            }
+        }
+        // 与SDesKey组合使用
+        byte[] data = {0, 1, 2, (byte) 0xFF};
+        byte[] cipher = SDesKey.of(spec, 0x155).encrypt(data);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(spec.encrypt(data[i] & 0xFF, 0x155), cipher[i] & 0xFF);
+        }
+    }
+
+    @Test
+    void loadsSpecFile() throws IOException {
+        Path file = dir.resolve("group7.properties");
+        Files.writeString(file, "# 只替换S-Box与移位\n"
+                + "S1 = 1 0 3 2 / 3 2 1 0 / 0 2 1 3 / 3 1 3 2\n"
+                + "S2 = 0,1,2,3, 2,0,1,3, 3,0,1,0, 2,1,0,3\n"
+                + "SHIFTS = 2 1\n");
+        CipherSpec loaded = CipherSpec.load(file);
+        assertEquals("group7.properties", loaded.getName());
+        assertSameCipher(CipherSpec.of("expected", SDesUtil.P10, SDesUtil.P8, SDesUtil.IP, SDesUtil.IP_INVERSE,
+                SDesUtil.EP_BOX, S1, S2, SDesUtil.SP_BOX, new int[]{2, 1}), loaded);
+    }
+
+    @Test
+    void rejectsInvalidSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> properties("P10", "1 2 3"));
+        assertThrows(IllegalArgumentException.class, () -> properties("IP", "1 1 3 4 5 6 7 8"));
+        assertThrows(IllegalArgumentException.class, () -> properties("IP_INVERSE", "1 2 3 4 5 6 7 8"));
+        assertThrows(IllegalArgumentException.class, () -> properties("EP", "4 1 2 3 2 3 4 5"));
+        assertThrows(IllegalArgumentException.class, () -> properties("S1", "0 1 2 3 / 0 1 2 3 / 0 1 2 3 / 0 1 2 4"));
+        assertThrows(IllegalArgumentException.class, () -> properties("S2", "0 1 2"));
+        assertThrows(IllegalArgumentException.class, () -> properties("SHIFTS", "1 5"));
+        assertThrows(IllegalArgumentException.class, () -> properties("P8", "a b"));
+        assertThrows(IllegalArgumentException.class, () -> properties("P9", "1"));
+    }
+
+    private static CipherSpec properties(String key, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        return CipherSpec.fromProperties("invalid", properties);
+    }
+
+    private static void assertSameCipher(CipherSpec expected, CipherSpec actual) {
+        int[] expectedTable = new int[SDesCodebook.KEY_COUNT * 256];
+        int[] actualTable = new int[expectedTable.length];
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            for (int block = 0; block < 256; block++) {
+                expectedTable[(key << 8) | block] = expected.encrypt(block, key);
+                actualTable[(key << 8) | block] = actual.encrypt(block, key);
+            }
+        }
+        assertArrayEquals(expectedTable, actualTable);
+    }
+
+    /**
+     * 按位数组逐步计算（{@link SDesUtil#permutate}与{@link SDesUtil#leftShift}），表取自本测试中的变体定义
+     */
+    private static int textbookEncrypt(int block, int key) {
+        int[] p10 = SDesUtil.permutate(SDesUtil.intToBits(key, 10), SDesUtil.P10);
+        int[] left = SDesUtil.leftShift(Arrays.copyOfRange(p10, 0, 5), 2);
+        int[] right = SDesUtil.leftShift(Arrays.copyOfRange(p10, 5, 10), 2);
+        int[] k1 = SDesUtil.permutate(concat(left, right), SDesUtil.P8);
+        left = SDesUtil.leftShift(left, 1);
+        right = SDesUtil.leftShift(right, 1);
+        int[] k2 = SDesUtil.permutate(concat(left, right), SDesUtil.P8);
+
+        int[] bits = SDesUtil.permutate(SDesUtil.intToBits(block, 8), REVERSED_IP);
+        int[] l = Arrays.copyOfRange(bits, 0, 4);
+        int[] r = Arrays.copyOfRange(bits, 4, 8);
+        int[] afterFirst = xor(l, roundF(r, k1));
+        int[] afterSecond = xor(r, roundF(afterFirst, k2));
+        return SDesUtil.bitsToInt(SDesUtil.permutate(concat(afterSecond, afterFirst), REVERSED_IP));
+    }
+
+    private static int[] roundF(int[] right4, int[] subkey8) {
+        int[] x = xor(SDesUtil.permutate(right4, SDesUtil.EP_BOX), subkey8);
+        int s1 = S1[x[0] * 2 + x[3]][x[1] * 2 + x[2]];
+        int s2 = S2[x[4] * 2 + x[7]][x[5] * 2 + x[6]];
+        return SDesUtil.permutate(new int[]{s1 >>> 1, s1 & 1, s2 >>> 1, s2 & 1}, new int[]{4, 3, 2, 1});
+    }
+
+    private static int[] xor(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] ^ b[i];
+        }
+        return result;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
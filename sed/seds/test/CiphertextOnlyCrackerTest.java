@@ -0,0 +1,166 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 唯密文破解：可打印模型的满分密钥与逐字节调用{@link SDesUtil}解密后的筛选结果一致，英文/拼音密文能找回原密钥
+ */
+class CiphertextOnlyCrackerTest {
+    private static final String ENGLISH = "Dear team, the quarterly results are attached. Revenue grew in every "
+            + "region except the north, where two of our largest customers delayed their orders until the spring. "
+            + "Please review the numbers before Thursday and send me your comments, especially on the cost of "
+            + "shipping, which rose faster than we expected. Thank you all for the hard work this year.\n";
+    private static final String PINYIN = "ming tian shang wu jiu dian zai tu shu guan kai hui, qing da jia zhun "
+            + "shi dao da. hui shang yao tao lun xia ge yue de ke cheng an pai he kao shi shi jian, ru guo bu neng "
+            + "lai qing ti qian gao su wo. xie xie da jia de zhi chi, zhu ni men zhou mo yu kuai.\n";
+
+    @Test
+    void printableMatchesReference() throws InterruptedException {
+        Random random = new Random(41);
+        for (int s = 0; s < 4; s++) {
+            // 单轮打分（样本不超过第一轮大小），排名覆盖全部密钥
+            byte[] plain = new byte[CiphertextOnlyCracker.INITIAL_SAMPLE_BYTES];
+            for (int i = 0; i < plain.length; i++) {
+                plain[i] = (byte) (' ' + random.nextInt(0x7F - ' '));
+            }
+            int key = random.nextInt(SDesCodebook.KEY_COUNT);
+            byte[] cipher = encrypt(plain, key);
+
+            List<CiphertextOnlyCracker.Candidate> ranked = new CiphertextOnlyCracker(
+                    CiphertextOnlyCracker.Language.PRINTABLE).crack(cipher, SDesCodebook.KEY_COUNT);
+            assertEquals(SDesCodebook.KEY_COUNT, ranked.size());
+            List<Integer> perfect = new ArrayList<>();
+            for (CiphertextOnlyCracker.Candidate candidate : ranked) {
+                if (candidate.getScore() == 0) {
+                    perfect.add(candidate.getKey());
+                }
+            }
+            // 得分为0即解密结果全为文本字符；同分时密钥小者在前
+            List<Integer> expected = new ArrayList<>();
+            for (int k = 0; k < SDesCodebook.KEY_COUNT; k++) {
+                if (allText(cipher, k)) {
+                    expected.add(k);
+                }
+            }
+            assertEquals(expected, perfect, "样本 " + s);
+            assertTrue(expected.contains(key), "样本 " + s);
+            assertEquals(expected, keys(ranked.subList(0, expected.size())), "样本 " + s);
+        }
+    }
+
+    @Test
+    void recoversEnglishAndPinyin() throws InterruptedException {
+        Random random = new Random(42);
+        assertRecovers(CiphertextOnlyCracker.Language.ENGLISH, ENGLISH.repeat(20), random);
+        assertRecovers(CiphertextOnlyCracker.Language.PINYIN, PINYIN.repeat(20), random);
+    }
+
+    @Test
+    void rankingIsConsistent() throws InterruptedException {
+        byte[] cipher = encrypt(ENGLISH.getBytes(StandardCharsets.US_ASCII), 0b1010000010);
+        // 单轮打分时前N名与完整排名的开头一致
+        int sample = CiphertextOnlyCracker.INITIAL_SAMPLE_BYTES;
+        ForkJoinPool pool = new ForkJoinPool(3);
+        CiphertextOnlyCracker cracker = new CiphertextOnlyCracker(CiphertextOnlyCracker.Language.ENGLISH, pool, sample);
+        List<CiphertextOnlyCracker.Candidate> all = cracker.crack(cipher, SDesCodebook.KEY_COUNT);
+        List<CiphertextOnlyCracker.Candidate> top = cracker.crack(cipher, 7);
+        assertEquals(keys(all.subList(0, 7)), keys(top));
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getScore() >= top.get(i).getScore());
+            assertEquals(sample, top.get(i).getSampleBytes());
+        }
+        // 指定偏移只看这一段
+        List<CiphertextOnlyCracker.Candidate> tail = cracker.crack(cipher, 50, cipher.length - 50, 1);
+        assertEquals(sample, tail.get(0).getSampleBytes());
+        assertThrows(UnsupportedOperationException.class, () -> top.remove(0));
+        pool.shutdown();
+    }
+
+    @Test
+    void previewMatchesReference() {
+        byte[] plain = ENGLISH.getBytes(StandardCharsets.US_ASCII);
+        int key = 0b0111111101;
+        byte[] cipher = encrypt(plain, key);
+        for (int k : new int[]{key, 0, 0x3FF}) {
+            byte[] expected = new byte[40];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = (byte) SDesUtil.decryptByte(cipher[i] & 0xFF, k);
+            }
+            assertEquals(TextCodec.decodeUtf8(expected, 0, expected.length),
+                    CiphertextOnlyCracker.preview(cipher, k, 40));
+        }
+        assertEquals(ENGLISH, CiphertextOnlyCracker.preview(cipher, key, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        CiphertextOnlyCracker cracker = new CiphertextOnlyCracker(CiphertextOnlyCracker.Language.ENGLISH);
+        assertThrows(IllegalArgumentException.class, () -> cracker.crack(new byte[0], 1));
+        assertThrows(IllegalArgumentException.class, () -> cracker.crack(new byte[8], 0));
+        assertThrows(IllegalArgumentException.class, () -> cracker.crack(new byte[8], SDesCodebook.KEY_COUNT + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> cracker.crack(new byte[8], 4, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CiphertextOnlyCracker(
+                CiphertextOnlyCracker.Language.ENGLISH, ForkJoinPool.commonPool(), 0));
+        assertEquals(CiphertextOnlyCracker.Language.PINYIN, CiphertextOnlyCracker.Language.parse("Pinyin"));
+        assertThrows(IllegalArgumentException.class, () -> CiphertextOnlyCracker.Language.parse("latin"));
+    }
+
+    /**
+     * 首位候选必须是原密钥或与其码本相同的等价密钥
+     */
+    private static void assertRecovers(CiphertextOnlyCracker.Language language, String text, Random random)
+            throws InterruptedException {
+        byte[] plain = text.getBytes(StandardCharsets.US_ASCII);
+        CiphertextOnlyCracker cracker = new CiphertextOnlyCracker(language);
+        for (int s = 0; s < 6; s++) {
+            int key = random.nextInt(SDesCodebook.KEY_COUNT);
+            byte[] cipher = encrypt(plain, key);
+            List<CiphertextOnlyCracker.Candidate> top = cracker.crack(cipher, CiphertextOnlyCracker.DEFAULT_TOP_N);
+            assertEquals(CiphertextOnlyCracker.DEFAULT_TOP_N, top.size());
+            int found = top.get(0).getKey();
+            assertTrue(sameCodebook(found, key), language + " 样本 " + s + " 密钥 " + key + " 找到 " + found);
+            assertEquals(Math.min(plain.length, CiphertextOnlyCracker.DEFAULT_MAX_SAMPLE_BYTES),
+                    top.get(0).getSampleBytes());
+        }
+    }
+
+    private static byte[] encrypt(byte[] plain, int key) {
+        byte[] cipher = new byte[plain.length];
+        for (int i = 0; i < plain.length; i++) {
+            cipher[i] = (byte) SDesUtil.encryptByte(plain[i] & 0xFF, key);
+        }
+        return cipher;
+    }
+
+    private static boolean allText(byte[] cipher, int key) {
+        for (byte c : cipher) {
+            int p = SDesUtil.decryptByte(c & 0xFF, key);
+            if (!((p >= ' ' && p < 0x7F) || p == '\n' || p == '\r' || p == '\t')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameCodebook(int a, int b) {
+        for (int p = 0; p < 256; p++) {
+            if (SDesUtil.encryptByte(p, a) != SDesUtil.encryptByte(p, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Integer> keys(List<CiphertextOnlyCracker.Candidate> candidates) {
+        return candidates.stream().map(CiphertextOnlyCracker.Candidate::getKey).collect(Collectors.toList());
+    }
+}
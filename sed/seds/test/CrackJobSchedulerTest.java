@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 调度器的去重合并、优先级提升与取消
+ * <p>
+ * 调度器只有一个工作线程；每个用例先用一个完成回调阻塞在闩锁上的任务占住它，
+ * 之后提交的任务都停在队列里，状态可以确定地检查，放开闩锁后再按调度顺序执行。
+ */
+class CrackJobSchedulerTest {
+    private static final String TENANT = "test";
+    private static final int KEY = 0b1010000010;
+
+    private CrackJobScheduler scheduler;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void occupyWorker() throws InterruptedException {
+        scheduler = new CrackJobScheduler(1, 64, 64);
+        release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        // 回调在提交前就已完成的任务上挂接时会在测试线程立即执行，此时换一组明密文对重试
+        for (int p = 0; blocked.getCount() > 0; p++) {
+            assertTrue(p < 256, "无法占住工作线程");
+            scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.HIGH, new int[]{p}, new int[]{p})
+                    .thenRun(() -> {
+                        if (Thread.currentThread().getName().startsWith("sdes-job-worker")) {
+                            blocked.countDown();
+                            awaitQuietly(release);
+                        }
+                    });
+            blocked.await(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @AfterEach
+    void close() {
+        release.countDown();
+        scheduler.close();
+    }
+
+    @Test
+    void identicalPairSetsRunOnce() {
+        int[] p = {0x35};
+        int[] c = {SDesUtil.encryptByte(0x35, KEY)};
+        CrackJobScheduler.Job<int[]> first = scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.NORMAL, p, c);
+        // 顺序与重复不影响去重
+        CrackJobScheduler.Job<int[]> second = scheduler.submitCrack("other", CrackJobScheduler.Priority.NORMAL,
+                new int[]{p[0], p[0]}, new int[]{c[0], c[0]});
+        assertEquals(1, scheduler.getQueuedCount());
+        assertEquals(CrackJobScheduler.Status.QUEUED, first.getStatus());
+
+        release.countDown();
+        int[] expected = ReferenceSearch.keysMatching(p, c);
+        assertArrayEquals(expected, first.join());
+        assertArrayEquals(expected, second.join());
+        assertNotSame(first.join(), second.join(), "每个提交者应得到各自的结果副本");
+        assertEquals(CrackJobScheduler.Status.DONE, second.getStatus());
+    }
+
+    @Test
+    void higherPrioritySubmissionPromotesQueuedTask() {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CrackJobScheduler.Job<int[]> normal = scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.NORMAL,
+                new int[]{1}, new int[]{2});
+        normal.thenRun(() -> order.add("normal"));
+        CrackJobScheduler.Job<int[]> low = scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.LOW,
+                new int[]{3}, new int[]{4});
+        low.thenRun(() -> order.add("promoted"));
+        assertEquals(CrackJobScheduler.Priority.LOW, low.getPriority());
+
+        CrackJobScheduler.Job<int[]> high = scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.HIGH,
+                new int[]{3}, new int[]{4});
+        assertEquals(2, scheduler.getQueuedCount());
+        assertEquals(CrackJobScheduler.Priority.HIGH, low.getPriority());
+
+        release.countDown();
+        normal.join();
+        high.join();
+        assertEquals(List.of("promoted", "normal"), order);
+    }
+
+    @Test
+    void cancelRemovesQueuedTask() {
+        CrackJobScheduler.Job<int[]> job = scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.NORMAL,
+                new int[]{7}, new int[]{8});
+        assertEquals(1, scheduler.getQueuedCount());
+        assertTrue(scheduler.cancel(job.getId()));
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(CrackJobScheduler.Status.CANCELLED, job.getStatus());
+        assertNull(scheduler.getJob(job.getId()));
+        assertThrows(CancellationException.class, job::join);
+        assertTrue(!scheduler.cancel(job.getId()), "已结束的任务不能再取消");
+    }
+
+    @Test
+    void cancellingOneSubmitterKeepsSharedTask() {
+        int[] p = {0x81, 0x7E};
+        int[] c = {SDesUtil.encryptByte(p[0], KEY), SDesUtil.encryptByte(p[1], KEY)};
+        CrackJobScheduler.Job<int[]> cancelled = scheduler.submitCrack(TENANT, CrackJobScheduler.Priority.NORMAL,
+                p, c);
+        CrackJobScheduler.Job<int[]> kept = scheduler.submitCrack("other", CrackJobScheduler.Priority.NORMAL,
+                new int[]{p[1], p[0]}, new int[]{c[1], c[0]});
+        assertTrue(scheduler.cancel(cancelled.getId()));
+        assertEquals(1, scheduler.getQueuedCount());
+        assertEquals(CrackJobScheduler.Status.QUEUED, kept.getStatus());
+
+        release.countDown();
+        assertArrayEquals(ReferenceSearch.keysMatching(p, c), kept.join());
+        assertEquals(CrackJobScheduler.Status.CANCELLED, cancelled.getStatus());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.IntBinaryOperator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 密钥等价分析：直方图、等价密钥类与期望候选数均与逐个调用加密函数的直接统计一致
+ */
+class KeyEquivalenceAnalyzerTest {
+    private static final int KEY_COUNT = SDesCodebook.KEY_COUNT;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void standardMatchesReference() {
+        assertMatchesReference(KeyEquivalenceAnalyzer.analyze(), SDesUtil::encryptByte);
+    }
+
+    @Test
+    void variantMatchesReference() {
+        Properties properties = new Properties();
+        properties.setProperty("S1", "1 0 3 2 / 3 2 1 0 / 0 2 1 3 / 3 1 3 2");
+        properties.setProperty("SHIFTS", "2 1");
+        CipherSpec spec = CipherSpec.fromProperties("variant", properties);
+        assertMatchesReference(KeyEquivalenceAnalyzer.analyze(spec), spec::encrypt);
+    }
+
+    @Test
+    void reportsAreWritten() throws IOException {
+        KeyEquivalenceAnalyzer.Report report = KeyEquivalenceAnalyzer.analyze();
+        Path csv = dir.resolve("report.csv");
+        Path json = dir.resolve("report.json");
+        report.writeCsv(csv);
+        report.writeJson(json);
+
+        List<String> lines = Files.readAllLines(csv);
+        assertEquals("plaintext,class_size,class_count", lines.get(0));
+        long[] aggregate = report.aggregateHistogram();
+        long classes = lines.stream().filter(line -> line.startsWith("all,")).count();
+        assertEquals(Arrays.stream(aggregate).filter(count -> count != 0).count(), classes);
+        String text = Files.readString(json);
+        assertTrue(text.contains("\"equivalentKeyClasses\""));
+        assertTrue(text.trim().endsWith("}"));
+    }
+
+    /**
+     * @param encrypt (明文, 密钥) → 密文
+     */
+    private static void assertMatchesReference(KeyEquivalenceAnalyzer.Report report, IntBinaryOperator encrypt) {
+        int[][] codebook = new int[KEY_COUNT][256];
+        for (int key = 0; key < KEY_COUNT; key++) {
+            for (int p = 0; p < 256; p++) {
+                codebook[key][p] = encrypt.applyAsInt(p, key);
+            }
+        }
+
+        long[] aggregate = new long[KEY_COUNT + 1];
+        double weighted = 0;
+        for (int p = 0; p < 256; p++) {
+            int[] perCipher = new int[256];
+            for (int key = 0; key < KEY_COUNT; key++) {
+                perCipher[codebook[key][p]]++;
+            }
+            int[] histogram = new int[KEY_COUNT + 1];
+            for (int size : perCipher) {
+                if (size > 0) {
+                    histogram[size]++;
+                    aggregate[size]++;
+                    weighted += (double) size * size;
+                }
+            }
+            assertArrayEquals(histogram, padded(report.histogram(p)), "明文 " + p);
+        }
+        assertArrayEquals(aggregate, padded(report.aggregateHistogram()));
+        assertEquals(weighted / (KEY_COUNT * 256.0), report.expectedCandidates(), 1e-9);
+
+        // 码本行完全相同的密钥，按首次出现（即首个密钥）的顺序分类
+        Map<String, List<Integer>> rows = new LinkedHashMap<>();
+        for (int key = 0; key < KEY_COUNT; key++) {
+            rows.computeIfAbsent(Arrays.toString(codebook[key]), row -> new ArrayList<>()).add(key);
+        }
+        List<int[]> expected = new ArrayList<>();
+        for (List<Integer> keys : rows.values()) {
+            if (keys.size() > 1) {
+                expected.add(keys.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        assertArrayEquals(expected.toArray(new int[0][]), report.equivalentKeyClasses());
+    }
+
+    private static int[] padded(int[] histogram) {
+        return Arrays.copyOf(histogram, KEY_COUNT + 1);
+    }
+
+    private static long[] padded(long[] histogram) {
+        return Arrays.copyOf(histogram, KEY_COUNT + 1);
+    }
+}
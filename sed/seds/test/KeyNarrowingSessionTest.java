@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 增量缩小候选密钥：每接收一对后的候选集与状态都与逐个密钥调用{@link SDesUtil}筛选前缀明密文对的结果一致
+ */
+class KeyNarrowingSessionTest {
+    private static final int KEY = 0b1010000010;
+
+    @Test
+    void everyStepMatchesReference() {
+        Random random = new Random(22);
+        for (int s = 0; s < 60; s++) {
+            int[][] pairs = ReferenceSearch.randomPairs(random, 1 + random.nextInt(8));
+            KeyNarrowingSession session = new KeyNarrowingSession();
+            assertEquals(SDesCodebook.KEY_COUNT, session.getCandidateCount());
+            for (int i = 0; i < pairs[0].length; i++) {
+                KeyNarrowingSession.State state = session.accept(pairs[0][i], pairs[1][i]);
+                int[] expected = ReferenceSearch.keysMatching(Arrays.copyOf(pairs[0], i + 1),
+                        Arrays.copyOf(pairs[1], i + 1));
+                assertArrayEquals(expected, session.getCandidates(), "样本 " + s + " 第 " + (i + 1) + " 对");
+                assertEquals(expected.length, session.getCandidateCount());
+                assertEquals(i + 1, session.getPairsAccepted());
+                assertEquals(referenceState(expected), state, "样本 " + s + " 第 " + (i + 1) + " 对");
+                assertEquals(expected.length, Arrays.stream(session.getCandidateSet()).map(Long::bitCount).sum());
+            }
+        }
+    }
+
+    @Test
+    void acceptAllStopsAtFinalState() {
+        Random random = new Random(23);
+        int[] plaintexts = new int[256];
+        int[] ciphertexts = new int[256];
+        for (int i = 0; i < plaintexts.length; i++) {
+            plaintexts[i] = random.nextInt(256);
+            ciphertexts[i] = SDesUtil.encryptByte(plaintexts[i], KEY);
+        }
+        KeyNarrowingSession session = new KeyNarrowingSession();
+        KeyNarrowingSession.State state = session.acceptAll(plaintexts, ciphertexts);
+        int used = (int) session.getPairsAccepted();
+        int[] expected = ReferenceSearch.keysMatching(Arrays.copyOf(plaintexts, used), Arrays.copyOf(ciphertexts, used));
+        assertEquals(referenceState(expected), state);
+        assertArrayEquals(expected, session.getCandidates());
+        // 少用一对时还不能停止
+        int[] before = ReferenceSearch.keysMatching(Arrays.copyOf(plaintexts, used - 1),
+                Arrays.copyOf(ciphertexts, used - 1));
+        assertEquals(KeyNarrowingSession.State.NARROWING, referenceState(before));
+        assertThrows(IllegalArgumentException.class, () -> session.acceptAll(new int[1], new int[2]));
+    }
+
+    @Test
+    void consumersStopAtFinalState() throws IOException, InterruptedException {
+        byte[] stream = new byte[512];
+        BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(256);
+        for (int p = 0; p < 256; p++) {
+            int c = SDesUtil.encryptByte(p, KEY);
+            stream[2 * p] = (byte) p;
+            stream[2 * p + 1] = (byte) c;
+            queue.add((p << 8) | c);
+        }
+
+        KeyNarrowingSession fromStream = new KeyNarrowingSession();
+        ByteArrayInputStream in = new ByteArrayInputStream(stream);
+        KeyNarrowingSession.State state = fromStream.consume(in);
+        assertEquals(2 * fromStream.getPairsAccepted(), stream.length - in.available());
+
+        KeyNarrowingSession fromQueue = new KeyNarrowingSession();
+        assertEquals(state, fromQueue.consume(queue));
+        assertEquals(fromStream.getPairsAccepted(), fromQueue.getPairsAccepted());
+        assertEquals(256 - fromQueue.getPairsAccepted(), queue.size());
+        assertArrayEquals(fromStream.getCandidates(), fromQueue.getCandidates());
+        assertEquals(referenceState(fromStream.getCandidates()), state);
+
+        // 流在一对的中间结束
+        assertThrows(EOFException.class, () -> new KeyNarrowingSession().consume(new ByteArrayInputStream(new byte[3])));
+        // 流提前结束时停在缩小中
+        assertEquals(KeyNarrowingSession.State.NARROWING,
+                new KeyNarrowingSession().consume(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void rejectsInvalidPairs() {
+        KeyNarrowingSession session = new KeyNarrowingSession();
+        assertThrows(IllegalArgumentException.class, () -> session.accept(256, 0));
+        assertThrows(IllegalArgumentException.class, () -> session.accept(0, -1));
+        BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(1);
+        queue.add(1 << 16);
+        assertThrows(IllegalArgumentException.class, () -> session.consume(queue));
+        assertEquals(0, session.getPairsAccepted());
+    }
+
+    /**
+     * 按剩余密钥的码本（逐个调用{@link SDesUtil#encryptByte}）判断状态
+     */
+    private static KeyNarrowingSession.State referenceState(int[] keys) {
+        if (keys.length == 0) {
+            return KeyNarrowingSession.State.CONTRADICTION;
+        }
+        if (keys.length == 1) {
+            return KeyNarrowingSession.State.IDENTIFIED;
+        }
+        for (int key : keys) {
+            for (int p = 0; p < 256; p++) {
+                if (SDesUtil.encryptByte(p, key) != SDesUtil.encryptByte(p, keys[0])) {
+                    return KeyNarrowingSession.State.NARROWING;
+                }
+            }
+        }
+        return KeyNarrowingSession.State.EQUIVALENT;
+    }
+}
@@ -0,0 +1,137 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 对数-线性直方图：桶下标单调、桶上界覆盖取值且相对误差不超过1/8，分位数与排序后精确值的所在桶一致
+ */
+class LatencyHistogramTest {
+    @Test
+    void bucketBounds() {
+        for (int value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.upperBound(value));
+        }
+        // 逐值检查小范围：下标不减，上一个桶的上界小于当前值
+        int previous = 0;
+        for (long value = 1; value <= 1 << 16; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "取值 " + value);
+            assertBucket(value);
+            previous = index;
+        }
+        Random random = new Random(31);
+        for (int s = 0; s < 10_000; s++) {
+            assertBucket((random.nextLong() >>> 1) >>> random.nextInt(63));
+        }
+        for (int exponent = 3; exponent < 63; exponent++) {
+            assertBucket(1L << exponent);
+            assertBucket((1L << exponent) - 1);
+        }
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertTrue(last < LatencyHistogram.BUCKET_COUNT);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(last));
+        assertBucket(Long.MAX_VALUE);
+    }
+
+    @Test
+    void percentilesOfKnownDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(0.5));
+
+        Random random = new Random(32);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // 约1微秒到1秒之间的对数均匀分布
+            values[i] = (long) Math.pow(10, 3 + 6 * random.nextDouble());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.count());
+        for (double quantile : new double[]{0.0, 0.01, 0.25, 0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long exact = values[(int) Math.max(0, Math.ceil(quantile * values.length) - 1)];
+            long approximate = histogram.percentile(quantile);
+            assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(exact)), approximate, "分位 " + quantile);
+            assertTrue(approximate >= exact && approximate - exact <= exact / 8, "分位 " + quantile);
+        }
+
+        // 负数按0计，极大值落在最后一个桶
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0));
+    }
+
+    @Test
+    void concurrentRecordAndSnapshot() throws Exception {
+        int threads = 4;
+        int perThread = 200_000;
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long value = 100L << t;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        histogram.record(value);
+                    }
+                    return null;
+                }));
+            }
+            // 记录过程中读取的数量单调不减，分位数总是某个已记录值所在的桶
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                long last = 0;
+                while (last < (long) threads * perThread) {
+                    long count = histogram.count();
+                    assertTrue(count >= last && count <= (long) threads * perThread);
+                    long p50 = histogram.percentile(0.5);
+                    assertTrue(p50 == 0 || LatencyHistogram.indexOf(p50) >= LatencyHistogram.indexOf(100)
+                            && LatencyHistogram.indexOf(p50) <= LatencyHistogram.indexOf(100L << (threads - 1)));
+                    last = count;
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals((long) threads * perThread, histogram.count());
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(100L << 1)), histogram.percentile(0.5));
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(100L << 3)), histogram.percentile(1.0));
+    }
+
+    /**
+     * 值不超过所在桶的上界，大于上一个桶的上界，且上界的相对误差不超过1/8
+     */
+    private static void assertBucket(long value) {
+        int index = LatencyHistogram.indexOf(value);
+        long upper = LatencyHistogram.upperBound(index);
+        assertTrue(upper >= value, "取值 " + value);
+        assertTrue(upper - value <= value / 8, "取值 " + value);
+        if (index > 0) {
+            assertTrue(LatencyHistogram.upperBound(index - 1) < value, "取值 " + value);
+        }
+    }
+}
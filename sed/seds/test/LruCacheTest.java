@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 有界LRU缓存：热键命中返回同一实例，满容量时淘汰最久未使用项，并发获取同一个键得到同一实例
+ */
+class LruCacheTest {
+    @Test
+    void hotKeyReturnsSameInstance() {
+        AtomicInteger created = new AtomicInteger();
+        List<Boolean> lookups = new ArrayList<>();
+        LruCache<int[]> cache = new LruCache<int[]>(4, key -> {
+            created.incrementAndGet();
+            return new int[]{key};
+        }) {
+            @Override
+            void onLookup(boolean hit) {
+                lookups.add(hit);
+            }
+        };
+        int[] first = cache.get(7);
+        assertSame(first, cache.get(7));
+        assertSame(first, cache.get(7));
+        assertEquals(1, created.get());
+        assertEquals(List.of(false, true, true), lookups);
+        assertEquals(1, cache.size());
+        assertEquals(4, cache.getCapacity());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(first, cache.get(7));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        AtomicInteger created = new AtomicInteger();
+        LruCache<Integer> cache = new LruCache<>(3, key -> {
+            created.incrementAndGet();
+            return key;
+        });
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        // 访问1后最久未使用的是2
+        cache.get(1);
+        cache.get(4);
+        assertEquals(3, cache.size());
+        assertEquals(4, created.get());
+
+        cache.get(1);
+        cache.get(3);
+        cache.get(4);
+        assertEquals(4, created.get(), "1、3、4仍在缓存中");
+        cache.get(2);
+        assertEquals(5, created.get(), "2已被淘汰");
+        // 再放入2时淘汰的是1（3、4在其后被访问过）
+        cache.get(3);
+        cache.get(4);
+        assertEquals(5, created.get());
+        cache.get(1);
+        assertEquals(6, created.get());
+    }
+
+    @Test
+    void concurrentGetsShareOneInstance() throws Exception {
+        LruCache<Object> cache = new LruCache<>(64, key -> new Object());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Object[] values = new Object[32];
+                    for (int round = 0; round < 100; round++) {
+                        for (int key = 0; key < values.length; key++) {
+                            Object value = cache.get(key);
+                            if (values[key] == null) {
+                                values[key] = value;
+                            }
+                        }
+                    }
+                    return values;
+                }));
+            }
+            start.countDown();
+            Object[] expected = futures.get(0).get();
+            for (Future<Object[]> future : futures) {
+                Object[] values = future.get();
+                for (int key = 0; key < values.length; key++) {
+                    // 并发未命中时各线程可能各自创建，但只有先放入的那个会被返回和保留
+                    assertSame(cache.get(key), values[key], "键 " + key);
+                    assertSame(expected[key], values[key], "键 " + key);
+                }
+            }
+            assertEquals(32, cache.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyCacheMatchesReference() {
+        SDesKeyCache cache = new SDesKeyCache(2);
+        SDesKey key = cache.get(0b1010000010);
+        assertSame(key, cache.get(0b1010000010));
+        assertEquals(0b1010000010, key.getKey());
+        for (int block = 0; block < 256; block++) {
+            assertEquals(SDesUtil.encryptByte(block, 0b1010000010), key.encrypt(block));
+        }
+        cache.get(1);
+        cache.get(2);
+        assertEquals(2, cache.size());
+        assertNotSame(key, cache.get(0b1010000010));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SDesKeyCache(0));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
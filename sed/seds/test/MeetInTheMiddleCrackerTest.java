@@ -0,0 +1,97 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 双重S-DES与中间相遇攻击：加解密与逐层调用{@link SDesUtil}一致，候选密钥与穷举全部2^20个组合密钥的结果相同
+ */
+class MeetInTheMiddleCrackerTest {
+    @Test
+    void doubleSDesMatchesReference() {
+        Random random = new Random(31);
+        for (int s = 0; s < 2000; s++) {
+            int key20 = random.nextInt(DoubleSDes.KEY_COUNT);
+            int block = random.nextInt(256);
+            int expected = SDesUtil.encryptByte(SDesUtil.encryptByte(block, key20 >>> 10), key20 & 0x3FF);
+            DoubleSDes cipher = DoubleSDes.of(key20);
+            assertEquals(expected, DoubleSDes.encrypt(block, key20));
+            assertEquals(expected, cipher.encrypt(block));
+            assertEquals(block, DoubleSDes.decrypt(expected, key20));
+            assertEquals(block, cipher.decrypt(expected));
+        }
+
+        DoubleSDes cipher = DoubleSDes.of(SDesKey.of(0b1010000010), SDesKey.of(0b0111111101));
+        byte[] data = new byte[4096];
+        random.nextBytes(data);
+        byte[] out = new byte[data.length];
+        cipher.encrypt(data, 0, data.length, out, 0);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(cipher.encrypt(data[i] & 0xFF), out[i] & 0xFF);
+        }
+        cipher.decrypt(out, 0, out.length, out, 0);
+        assertArrayEquals(data, out);
+        assertThrows(IllegalArgumentException.class, () -> DoubleSDes.of(DoubleSDes.KEY_COUNT));
+    }
+
+    @Test
+    void crackMatchesExhaustiveSearch() {
+        int[][] table = encryptTable();
+        Random random = new Random(32);
+        for (int s = 0; s < 12; s++) {
+            int key20 = random.nextInt(DoubleSDes.KEY_COUNT);
+            int pairs = 1 + s % 3;
+            int[] plaintexts = new int[pairs];
+            int[] ciphertexts = new int[pairs];
+            for (int i = 0; i < pairs; i++) {
+                plaintexts[i] = random.nextInt(256);
+                ciphertexts[i] = DoubleSDes.encrypt(plaintexts[i], key20);
+            }
+            int[] expected = exhaustive(table, plaintexts, ciphertexts);
+            int[] actual = MeetInTheMiddleCracker.crack(plaintexts, ciphertexts);
+            assertArrayEquals(expected, actual, "样本 " + s);
+            assertTrue(Arrays.binarySearch(actual, key20) >= 0, "样本 " + s);
+        }
+    }
+
+    @Test
+    void rejectsInvalidPairs() {
+        assertThrows(IllegalArgumentException.class, () -> MeetInTheMiddleCracker.crack(new int[0], new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> MeetInTheMiddleCracker.crack(new int[]{1}, new int[]{256}));
+    }
+
+    /**
+     * table[key][明文] = {@link SDesUtil#encryptByte}
+     */
+    private static int[][] encryptTable() {
+        int[][] table = new int[SDesCodebook.KEY_COUNT][256];
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            for (int p = 0; p < 256; p++) {
+                table[key][p] = SDesUtil.encryptByte(p, key);
+            }
+        }
+        return table;
+    }
+
+    private static int[] exhaustive(int[][] table, int[] plaintexts, int[] ciphertexts) {
+        int[] keys = new int[DoubleSDes.KEY_COUNT];
+        int count = 0;
+        for (int key20 = 0; key20 < DoubleSDes.KEY_COUNT; key20++) {
+            int[] first = table[key20 >>> 10];
+            int[] second = table[key20 & 0x3FF];
+            boolean matches = true;
+            for (int i = 0; i < plaintexts.length && matches; i++) {
+                matches = second[first[plaintexts[i]]] == ciphertexts[i];
+            }
+            if (matches) {
+                keys[count++] = key20;
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 测试用的参考实现：逐个密钥调用{@link SDesUtil#encryptByte}比对
+ */
+final class ReferenceSearch {
+    private ReferenceSearch() {
+    }
+
+    /**
+     * 满足全部明密文对的密钥（升序）
+     */
+    static int[] keysMatching(int[] plaintexts, int[] ciphertexts) {
+        int[] keys = new int[SDesCodebook.KEY_COUNT];
+        int count = 0;
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            boolean matches = true;
+            for (int i = 0; i < plaintexts.length && matches; i++) {
+                matches = SDesUtil.encryptByte(plaintexts[i], key) == ciphertexts[i];
+            }
+            if (matches) {
+                keys[count++] = key;
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    /**
+     * 随机明密文对：大多数由同一个随机密钥加密得到，约八分之一的密文随机（通常无解）
+     * @return [0]为明文，[1]为密文
+     */
+    static int[][] randomPairs(Random random, int pairs) {
+        int key = random.nextInt(SDesCodebook.KEY_COUNT);
+        boolean noise = random.nextInt(8) == 0;
+        int[] plaintexts = new int[pairs];
+        int[] ciphertexts = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            plaintexts[i] = random.nextInt(256);
+            ciphertexts[i] = noise ? random.nextInt(256) : SDesUtil.encryptByte(plaintexts[i], key);
+        }
+        return new int[][]{plaintexts, ciphertexts};
+    }
+}
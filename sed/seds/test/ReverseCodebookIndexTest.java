@@ -0,0 +1,127 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 反向码本索引：内容与逐密钥加密完全一致，文件可往返保存，损坏的文件在打开时被拒绝
+ */
+class ReverseCodebookIndexTest {
+    private static ReverseCodebookIndex index;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void build() {
+        index = ReverseCodebookIndex.build();
+    }
+
+    @Test
+    void everyCellMatchesCodebook() {
+        assertMatchesCodebook(index);
+    }
+
+    @Test
+    void multiPairCandidatesMatchReference() {
+        Random random = new Random(4);
+        for (int s = 0; s < 500; s++) {
+            int[][] pairs = ReferenceSearch.randomPairs(random, 1 + random.nextInt(4));
+            assertArrayEquals(ReferenceSearch.keysMatching(pairs[0], pairs[1]),
+                    index.candidates(pairs[0], pairs[1]), "样本 " + s);
+        }
+    }
+
+    @Test
+    void saveAndOpenRoundTrip() throws IOException {
+        Path file = dir.resolve("sub").resolve("index.idx");
+        index.save(file);
+        assertEquals(ReverseCodebookIndex.FILE_BYTES, Files.size(file));
+        ReverseCodebookIndex opened = ReverseCodebookIndex.open(file);
+        assertMatchesCodebook(opened);
+
+        // 已打开（映射）的文件可以被替换，目录中不留临时文件
+        index.save(file);
+        assertArrayEquals(index.candidates(0x12, 0x34), opened.candidates(0x12, 0x34));
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        Path file = dir.resolve("index.idx");
+        index.save(file);
+        long keysStart = 8 + (256 * 256 + 1) * 4L;
+        long[] positions = {0, 4, 8 + 4 * 1000, 8 + 4 * 256 * 256, keysStart, keysStart + 123_457,
+                ReverseCodebookIndex.FILE_BYTES - 1};
+        for (long position : positions) {
+            Path corrupt = dir.resolve("corrupt-" + position + ".idx");
+            Files.copy(file, corrupt);
+            flipByte(corrupt, position);
+            assertThrows(IOException.class, () -> ReverseCodebookIndex.open(corrupt), "偏移 " + position);
+        }
+
+        Path truncated = dir.resolve("truncated.idx");
+        Files.copy(file, truncated);
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(ReverseCodebookIndex.FILE_BYTES - 8);
+        }
+        assertThrows(IOException.class, () -> ReverseCodebookIndex.open(truncated));
+        assertThrows(IOException.class, () -> ReverseCodebookIndex.open(dir.resolve("missing.idx")));
+    }
+
+    @Test
+    void openOrBuildReplacesCorruptFile() throws IOException {
+        Path file = dir.resolve("index.idx");
+        index.save(file);
+        flipByte(file, 8 + 4 * 5000);
+        assertMatchesCodebook(ReverseCodebookIndex.openOrBuild(file));
+        assertMatchesCodebook(ReverseCodebookIndex.open(file));
+    }
+
+    /**
+     * 按密钥升序遍历码本得到每个单元应有的密钥列表，与索引逐单元比较
+     */
+    private static void assertMatchesCodebook(ReverseCodebookIndex index) {
+        int[][] expected = new int[256 * 256][];
+        int[] sizes = new int[256 * 256];
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            for (int p = 0; p < 256; p++) {
+                int cell = (p << 8) | SDesUtil.encryptByte(p, key);
+                if (expected[cell] == null) {
+                    expected[cell] = new int[8];
+                } else if (sizes[cell] == expected[cell].length) {
+                    expected[cell] = Arrays.copyOf(expected[cell], sizes[cell] * 2);
+                }
+                expected[cell][sizes[cell]++] = key;
+            }
+        }
+        for (int cell = 0; cell < expected.length; cell++) {
+            int[] keys = sizes[cell] == 0 ? new int[0] : Arrays.copyOf(expected[cell], sizes[cell]);
+            assertEquals(keys.length, index.count(cell >>> 8, cell & 0xFF), "单元 " + cell);
+            assertArrayEquals(keys, index.candidates(cell >>> 8, cell & 0xFF), "单元 " + cell);
+        }
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0x41)).rewind();
+            channel.write(b, position);
+        }
+    }
+}
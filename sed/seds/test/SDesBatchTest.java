@@ -0,0 +1,106 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 多密钥批量加解密：按密钥分桶后的结果与逐条记录调用{@link SDesUtil}一致，顺序不变
+ */
+class SDesBatchTest {
+    /** 超过并行阈值的两倍，走分组并行路径 */
+    private static final int LARGE = 2 * SDesBatch.PARALLEL_THRESHOLD + 77;
+
+    @Test
+    void singleBlocksMatchReference() {
+        for (int records : new int[]{0, 1, 1000, LARGE}) {
+            Random random = new Random(records);
+            int[] keys = randomKeys(random, records);
+            byte[] blocks = randomBytes(random, records);
+
+            byte[] cipher = new byte[records];
+            SDesBatch.encrypt(keys, blocks, cipher);
+            byte[] expected = new byte[records];
+            for (int i = 0; i < records; i++) {
+                expected[i] = (byte) SDesUtil.encryptByte(blocks[i] & 0xFF, keys[i]);
+            }
+            assertArrayEquals(expected, cipher, "记录数 " + records);
+
+            byte[] plain = cipher.clone();
+            SDesBatch.decrypt(keys, plain, plain);
+            assertArrayEquals(blocks, plain, "记录数 " + records);
+        }
+    }
+
+    @Test
+    void recordBatchesMatchReference() {
+        Random random = new Random(11);
+        int records = 5000;
+        int[] keys = randomKeys(random, records);
+        int[] offsets = new int[records + 1];
+        // 边界从非零处开始，包含空记录
+        offsets[0] = 3;
+        for (int i = 0; i < records; i++) {
+            offsets[i + 1] = offsets[i] + random.nextInt(40);
+        }
+        byte[] data = randomBytes(random, offsets[records] + 5);
+
+        byte[] out = data.clone();
+        SDesBatch.encryptRecords(keys, offsets, data, out);
+        byte[] expected = data.clone();
+        for (int r = 0; r < records; r++) {
+            for (int i = offsets[r]; i < offsets[r + 1]; i++) {
+                expected[i] = (byte) SDesUtil.encryptByte(data[i] & 0xFF, keys[r]);
+            }
+        }
+        assertArrayEquals(expected, out);
+
+        SDesBatch.decryptRecords(keys, offsets, out, out);
+        assertArrayEquals(data, out);
+    }
+
+    @Test
+    void variantSpecMatchesSpec() {
+        Properties properties = new Properties();
+        properties.setProperty("S2", "0 1 2 3 / 2 0 1 3 / 3 0 1 0 / 2 1 0 3");
+        CipherSpec spec = CipherSpec.fromProperties("variant", properties);
+        Random random = new Random(12);
+        int[] keys = randomKeys(random, LARGE);
+        byte[] blocks = randomBytes(random, LARGE);
+
+        byte[] out = new byte[LARGE];
+        SDesBatch.transform(spec, true, keys, null, blocks, out);
+        byte[] expected = new byte[LARGE];
+        for (int i = 0; i < LARGE; i++) {
+            expected[i] = (byte) spec.encrypt(blocks[i] & 0xFF, keys[i]);
+        }
+        assertArrayEquals(expected, out);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> SDesBatch.encrypt(new int[]{1024}, new byte[1], new byte[1]));
+        assertThrows(IllegalArgumentException.class, () -> SDesBatch.encrypt(new int[]{1, 2}, new byte[1], new byte[2]));
+        assertThrows(IllegalArgumentException.class, () -> SDesBatch.encrypt(new int[]{1, 2}, new byte[2], new byte[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> SDesBatch.encryptRecords(new int[]{1, 2}, new int[]{0, 3, 2}, new byte[4], new byte[4]));
+        assertThrows(IllegalArgumentException.class,
+                () -> SDesBatch.encryptRecords(new int[]{1}, new int[]{0, 5}, new byte[4], new byte[4]));
+    }
+
+    private static int[] randomKeys(Random random, int count) {
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt(SDesCodebook.KEY_COUNT);
+        }
+        return keys;
+    }
+
+    private static byte[] randomBytes(Random random, int count) {
+        byte[] bytes = new byte[count];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,279 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 命令行：各子命令的标准输出与{@link SDesUtil}参考结果一致，--stats只写标准错误，参数错误与读写失败返回对应退出码
+ */
+class SDesCliTest {
+    private static final String KEY = "1010000010";
+    private static final int KEY_BITS = 0b1010000010;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void usageAndArgumentErrors() {
+        Result none = run(new byte[0]);
+        assertEquals(2, none.status);
+        assertTrue(none.err.contains("用法"));
+        assertEquals(0, run(new byte[0], "--help").status);
+
+        assertError(run(new byte[0], "shuffle"), "未知命令");
+        assertError(run(new byte[0], "--stats"), "缺少命令");
+        assertError(run(new byte[0], "encrypt"), "参数个数不正确");
+        assertError(run(new byte[0], "encrypt", "101"), "必须为10位二进制");
+        assertError(run(new byte[0], "encrypt", KEY, "--mode"), "选项缺少取值");
+        assertError(run(new byte[0], "encrypt", KEY, "--mode", "GCM"), "模式必须为");
+        assertError(run(new byte[0], "crack", "00000001", "0000001"), "必须为8位二进制");
+        assertError(run(new byte[0], "crack", "00000001", "00000010", "--repeat", "0"), "--repeat");
+        assertError(run(new byte[0], "crack-text", "--top", "x"), "--top");
+        assertError(run(new byte[0], "batch", "shuffle"), "batch操作");
+    }
+
+    @Test
+    void missingInputFileFails() {
+        Result result = run(new byte[0], "encrypt", KEY, "--input", dir.resolve("missing.bin").toString());
+        assertEquals(1, result.status);
+        assertTrue(result.err.contains("读写失败"), result.err);
+    }
+
+    @Test
+    void encryptMatchesReference() {
+        byte[] plain = randomBytes(3000, 15);
+        Result result = run(plain, "encrypt", KEY);
+        assertEquals(0, result.status, result.err);
+        assertArrayEquals(reference(plain), result.out);
+        assertEquals("", result.err);
+
+        Result hex = run(plain, "encrypt", KEY, "--out", "hex", "--stats");
+        assertEquals(0, hex.status, hex.err);
+        assertEquals(hex(reference(plain)), new String(hex.out, StandardCharsets.US_ASCII).trim());
+        assertTrue(hex.err.contains("MB/s"), hex.err);
+    }
+
+    @Test
+    void chainedModesRoundTrip() throws IOException {
+        byte[] plain = randomBytes(SDesCli.STREAM_BUFFER_SIZE + 777, 16);
+        Path input = dir.resolve("plain.bin");
+        Path output = dir.resolve("cipher.b64");
+        Files.write(input, plain);
+        for (SDesMode mode : SDesMode.values()) {
+            Result encrypted = run(new byte[0], "encrypt", KEY, "--mode", mode.name().toLowerCase(), "--iv", "10100101",
+                    "--input", input.toString(), "--output", output.toString(), "--out", "base64");
+            assertEquals(0, encrypted.status, encrypted.err);
+            assertEquals(0, encrypted.out.length);
+
+            byte[] expected = new byte[plain.length];
+            mode.encrypt(SDesKey.of(KEY_BITS), 0b10100101, plain, 0, plain.length, expected, 0);
+            Result decoded = run(Files.readAllBytes(output), "decrypt", KEY, "--mode", mode.name(),
+                    "--iv", "10100101", "--in", "base64");
+            assertEquals(0, decoded.status, decoded.err);
+            assertArrayEquals(plain, decoded.out, mode.name());
+
+            Result raw = run(plain, "encrypt", KEY, "--mode", mode.name(), "--iv", "10100101");
+            assertArrayEquals(expected, raw.out, mode.name());
+        }
+    }
+
+    @Test
+    void batchMatchesReference() {
+        Random random = new Random(17);
+        StringBuilder input = new StringBuilder("# 注释与空行跳过\n\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(SDesCodebook.KEY_COUNT);
+            int block = random.nextInt(256);
+            input.append(SDesUtil.toBinaryString(key, 10)).append(' ')
+                    .append(SDesUtil.toBinaryString(block, 8)).append('\n');
+            expected.add(SDesUtil.toBinaryString(SDesUtil.encryptByte(block, key), 8));
+        }
+        Result result = run(input.toString().getBytes(StandardCharsets.US_ASCII), "batch", "encrypt", "--stats");
+        assertEquals(0, result.status, result.err);
+        assertEquals(expected, lines(result));
+        assertTrue(result.err.contains("条/秒"), result.err);
+
+        // 出错行之前的记录照常输出
+        String bad = "0000000001 00000001\n0000000001 0000001x\n0000000001 00000010\n";
+        Result failed = run(bad.getBytes(StandardCharsets.US_ASCII), "batch", "decrypt");
+        assertEquals(2, failed.status);
+        assertEquals(List.of(SDesUtil.toBinaryString(SDesUtil.decryptByte(1, 1), 8)), lines(failed));
+        assertTrue(failed.err.contains("0000001x"), failed.err);
+    }
+
+    @Test
+    void crackMatchesReference() {
+        int[] plaintexts = {0x35, 0xC2};
+        int[] ciphertexts = {SDesUtil.encryptByte(0x35, KEY_BITS), SDesUtil.encryptByte(0xC2, KEY_BITS)};
+        for (int pairs = 1; pairs <= 2; pairs++) {
+            int[] p = Arrays.copyOf(plaintexts, pairs);
+            int[] c = Arrays.copyOf(ciphertexts, pairs);
+            Result result = run(new byte[0], "crack", blocks(p), blocks(c), "--stats", "--repeat", "3");
+            assertEquals(0, result.status, result.err);
+            List<String> expected = new ArrayList<>();
+            for (int key : ReferenceSearch.keysMatching(p, c)) {
+                expected.add(SDesUtil.toBinaryString(key, 10));
+            }
+            assertEquals(expected, lines(result));
+            assertTrue(result.err.contains("次/秒"), result.err);
+            assertFalse(result.err.contains("keys/s"), result.err);
+        }
+    }
+
+    @Test
+    void narrowStopsAtFinalState() {
+        Random random = new Random(18);
+        StringBuilder input = new StringBuilder("# 明文 密文\n");
+        List<int[]> pairs = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            int p = random.nextInt(256);
+            pairs.add(new int[]{p, SDesUtil.encryptByte(p, KEY_BITS)});
+            input.append(SDesUtil.toBinaryString(p, 8)).append(' ')
+                    .append(SDesUtil.toBinaryString(pairs.get(i)[1], 8)).append('\n');
+        }
+        // 最终状态之后的格式错误行不会被读取
+        input.append("garbage\n");
+        Result result = run(input.toString().getBytes(StandardCharsets.US_ASCII), "narrow", "--stats");
+        assertEquals(0, result.status, result.err);
+        List<String> lines = lines(result);
+
+        KeyNarrowingSession session = new KeyNarrowingSession();
+        for (int[] pair : pairs) {
+            if (session.accept(pair[0], pair[1]).isFinal()) {
+                break;
+            }
+        }
+        assertEquals(encoded(session.toString()), lines.get(0));
+        List<String> keys = new ArrayList<>();
+        int used = (int) session.getPairsAccepted();
+        int[] p = new int[used];
+        int[] c = new int[used];
+        for (int i = 0; i < used; i++) {
+            p[i] = pairs.get(i)[0];
+            c[i] = pairs.get(i)[1];
+        }
+        for (int key : ReferenceSearch.keysMatching(p, c)) {
+            keys.add(SDesUtil.toBinaryString(key, 10));
+        }
+        assertEquals(keys, lines.subList(1, lines.size()));
+        assertTrue(result.err.contains("剩余"), result.err);
+
+        assertError(run("00000001\n".getBytes(StandardCharsets.US_ASCII), "narrow"), "第1行");
+    }
+
+    @Test
+    void crackTextFindsKey() {
+        byte[] plain = ("It was a bright cold day in April, and the clocks were striking thirteen. "
+                + "Winston Smith, his chin nuzzled into his breast in an effort to escape the vile wind, "
+                + "slipped quickly through the glass doors of Victory Mansions.\n").repeat(8)
+                .getBytes(StandardCharsets.US_ASCII);
+        Result result = run(hex(reference(plain)).getBytes(StandardCharsets.US_ASCII),
+                "crack-text", "--in", "hex", "--top", "3", "--stats");
+        assertEquals(0, result.status, result.err);
+        List<String> lines = lines(result);
+        assertEquals(3, lines.size());
+        int found = Integer.parseInt(lines.get(0).substring(0, 10), 2);
+        for (int block = 0; block < 256; block++) {
+            assertEquals(SDesUtil.encryptByte(block, KEY_BITS), SDesUtil.encryptByte(block, found));
+        }
+        assertTrue(lines.get(0).endsWith("It was a bright cold day in April, and the clock"), lines.get(0));
+        assertTrue(result.err.contains("唯密文破解"), result.err);
+    }
+
+    @Test
+    void analyzeWritesReports() throws IOException {
+        Path csv = dir.resolve("report.csv");
+        Result result = run(new byte[0], "analyze", "--csv", csv.toString());
+        assertEquals(0, result.status, result.err);
+        KeyEquivalenceAnalyzer.Report report = KeyEquivalenceAnalyzer.analyze();
+        assertTrue(result.text().contains(encoded("全明文等价的密钥类: ") + report.equivalentKeyClasses().length), result.text());
+        assertTrue(result.text().contains(String.format("%.4f", report.expectedCandidates())), result.text());
+        assertEquals("plaintext,class_size,class_count", Files.readAllLines(csv).get(0));
+    }
+
+    // -------------------------- 工具方法 --------------------------
+    private static final class Result {
+        final int status;
+        final byte[] out;
+        final String err;
+
+        Result(int status, byte[] out, String err) {
+            this.status = status;
+            this.out = out;
+            this.err = err;
+        }
+
+        String text() {
+            return new String(out, Charset.defaultCharset());
+        }
+    }
+
+    private static Result run(byte[] stdin, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8);
+        int status = SDesCli.run(args, new ByteArrayInputStream(stdin), out, errStream);
+        return new Result(status, out.toByteArray(), err.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void assertError(Result result, String message) {
+        assertEquals(2, result.status, result.err);
+        assertTrue(result.err.contains(message), result.err);
+        assertTrue(result.err.contains("用法"), result.err);
+    }
+
+    private static List<String> lines(Result result) {
+        String text = result.text();
+        return text.isEmpty() ? List.of() : Arrays.asList(text.split("\n"));
+    }
+
+    private static String blocks(int[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int value : values) {
+            sb.append(sb.length() == 0 ? "" : ",").append(SDesUtil.toBinaryString(value, 8));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 文本输出使用平台默认字符集，预期的中文串按同一字符集往返一次再比较
+     */
+    private static String encoded(String text) {
+        return new String(text.getBytes(Charset.defaultCharset()), Charset.defaultCharset());
+    }
+
+    private static String hex(byte[] bytes) {
+        return TextCodec.toHex(bytes, 0, bytes.length);
+    }
+
+    private static byte[] reference(byte[] plain) {
+        byte[] cipher = new byte[plain.length];
+        for (int i = 0; i < plain.length; i++) {
+            cipher[i] = (byte) SDesUtil.encryptByte(plain[i] & 0xFF, KEY_BITS);
+        }
+        return cipher;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
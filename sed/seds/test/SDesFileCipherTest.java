@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 内存映射文件加解密：输出与逐字节参考实现一致，可往返，输出文件与输入文件相同时拒绝且不改动输入
+ */
+class SDesFileCipherTest {
+    /** 跨过多个工作块且不是块大小的整数倍 */
+    private static final int LENGTH = 3 * SDesFileCipher.CHUNK_SIZE + 321;
+    private static final int KEY = 0b1010000010;
+    private static final int IV = 0x3A;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void encryptMatchesReferenceAndRoundTrips(SDesMode mode) throws IOException {
+        byte[] plaintext = randomBytes(LENGTH, mode.ordinal());
+        Path input = dir.resolve("plain.bin");
+        Path cipher = dir.resolve("cipher.bin");
+        Path output = dir.resolve("decrypted.bin");
+        Files.write(input, plaintext);
+        // 已存在且更长的输出文件应被截断
+        Files.write(cipher, new byte[LENGTH + 100]);
+
+        SDesKey key = SDesKey.of(KEY);
+        assertEquals(LENGTH, SDesFileCipher.encryptFile(input, cipher, key, mode, IV));
+        assertArrayEquals(reference(mode, plaintext), Files.readAllBytes(cipher));
+
+        assertEquals(LENGTH, SDesFileCipher.decryptFile(cipher, output, key, mode, IV));
+        assertArrayEquals(plaintext, Files.readAllBytes(output));
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        Path input = Files.createFile(dir.resolve("empty.bin"));
+        Path output = dir.resolve("empty.sdes");
+        assertEquals(0, SDesFileCipher.encryptFile(input, output, SDesKey.of(KEY), SDesMode.CBC, IV));
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void sameFileIsRejected() throws IOException {
+        byte[] plaintext = randomBytes(16, 9);
+        Path file = dir.resolve("same.bin");
+        Files.write(file, plaintext);
+        SDesKey key = SDesKey.of(KEY);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SDesFileCipher.encryptFile(file, file, key, SDesMode.ECB, 0));
+        // 不同写法指向同一个文件
+        Path alias = dir.resolve(".").resolve("same.bin");
+        assertThrows(IllegalArgumentException.class,
+                () -> SDesFileCipher.decryptFile(file, alias, key, SDesMode.ECB, 0));
+        assertArrayEquals(plaintext, Files.readAllBytes(file));
+    }
+
+    /**
+     * 按模式定义逐字节用{@link SDesUtil#encryptByte}加密
+     */
+    private static byte[] reference(SDesMode mode, byte[] in) {
+        byte[] out = new byte[in.length];
+        int state = IV;
+        for (int i = 0; i < in.length; i++) {
+            int p = in[i] & 0xFF;
+            switch (mode) {
+                case ECB:
+                    out[i] = (byte) SDesUtil.encryptByte(p, KEY);
+                    break;
+                case CBC:
+                    state = SDesUtil.encryptByte(p ^ state, KEY);
+                    out[i] = (byte) state;
+                    break;
+                case OFB:
+                    state = SDesUtil.encryptByte(state, KEY);
+                    out[i] = (byte) (p ^ state);
+                    break;
+                case CTR:
+                    out[i] = (byte) (p ^ SDesUtil.encryptByte((IV + i) & 0xFF, KEY));
+                    break;
+                default:
+                    throw new AssertionError(mode);
+            }
+        }
+        return out;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
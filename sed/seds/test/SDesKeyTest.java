@@ -0,0 +1,167 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 预处理密钥：每个密钥的加解密表与{@link SDesUtil#encryptBlock}一致，数组与缓冲区各重载（偏移、原地、直接缓冲区）结果相同
+ */
+class SDesKeyTest {
+    private static final int KEY = 0b0111111101;
+    private static final byte[] DATA = randomBytes(5000, 4);
+    private static final byte[] EXPECTED = reference(DATA);
+    @Test
+    void tablesMatchReference() {
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            SDesKey sdesKey = SDesKey.of(key);
+            int subkeys = SDesUtil.generateSubkeysPacked(key);
+            assertEquals(subkeys >>> 8, sdesKey.getK1());
+            assertEquals(subkeys & 0xFF, sdesKey.getK2());
+            assertEquals(CipherSpec.STANDARD, sdesKey.getSpec());
+            for (int block = 0; block < 256; block++) {
+                int expected = SDesUtil.encryptBlock(block, sdesKey.getK1(), sdesKey.getK2());
+                assertEquals(expected, sdesKey.encrypt(block), "密钥 " + key + " 明文 " + block);
+                assertEquals(block, sdesKey.decrypt(expected), "密钥 " + key + " 密文 " + expected);
+            }
+        }
+    }
+
+    @Test
+    void variantKeyUsesSpec() {
+        Properties properties = new Properties();
+        properties.setProperty("SHIFTS", "2 1");
+        CipherSpec spec = CipherSpec.fromProperties("variant", properties);
+        SDesKey key = SDesKey.of(spec, 0x155);
+        for (int block = 0; block < 256; block++) {
+            assertEquals(spec.encrypt(block, 0x155), key.encrypt(block));
+            assertEquals(block, key.decrypt(key.encrypt(block)));
+        }
+        assertNotEquals(SDesKey.of(0x155), key);
+    }
+
+    @Test
+    void identityAndParsing() {
+        assertEquals(SDesKey.of(0b1010000010), SDesKey.fromBinary("1010000010"));
+        assertEquals(SDesKey.of(0b1010000010).hashCode(), SDesKey.fromBinary("1010000010").hashCode());
+        assertEquals("0000000101", SDesKey.of(5).toString());
+        assertThrows(IllegalArgumentException.class, () -> SDesKey.of(1024));
+        assertThrows(IllegalArgumentException.class, () -> SDesKey.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> SDesKey.fromBinary("101"));
+        assertThrows(IllegalArgumentException.class, () -> SDesKey.fromBinary("10100000x0"));
+    }
+
+    @Test
+    void wholeArrayRoundTrip() {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] cipher = key.encrypt(DATA);
+        assertArrayEquals(EXPECTED, cipher);
+        assertArrayEquals(DATA, key.decrypt(cipher));
+        assertArrayEquals(new byte[0], key.encrypt(new byte[0]));
+    }
+
+    @Test
+    void arraySlicesRoundTrip() {
+        SDesKey key = SDesKey.of(KEY);
+        // 输入与输出都从非零偏移开始，区间外的字节保持不变
+        byte[] in = new byte[DATA.length + 10];
+        System.arraycopy(DATA, 0, in, 7, DATA.length);
+        byte[] out = new byte[DATA.length + 20];
+        Arrays.fill(out, (byte) 0x5A);
+        key.encrypt(in, 7, DATA.length, out, 13);
+        assertArrayEquals(EXPECTED, Arrays.copyOfRange(out, 13, 13 + DATA.length));
+        assertEquals(0x5A, out[12]);
+        assertEquals(0x5A, out[13 + DATA.length]);
+        byte[] plain = new byte[DATA.length];
+        key.decrypt(out, 13, DATA.length, plain, 0);
+        assertArrayEquals(DATA, plain);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> key.encrypt(in, 11, DATA.length, out, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> key.decrypt(in, 0, DATA.length, plain, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> key.encrypt(in, -1, 1, out, 0));
+    }
+
+    @Test
+    void inPlaceAndOverlappingRoundTrip() {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] buffer = DATA.clone();
+        key.encrypt(buffer, 0, buffer.length, buffer, 0);
+        assertArrayEquals(EXPECTED, buffer);
+        key.decrypt(buffer, 0, buffer.length, buffer, 0);
+        assertArrayEquals(DATA, buffer);
+
+        // 同一数组内输出区间在后或在前（重叠）
+        for (int shift : new int[]{3, -3}) {
+            byte[] shared = new byte[DATA.length + 3];
+            int from = shift > 0 ? 0 : 3;
+            System.arraycopy(DATA, 0, shared, from, DATA.length);
+            key.encrypt(shared, from, DATA.length, shared, from + shift);
+            assertArrayEquals(EXPECTED, Arrays.copyOfRange(shared, from + shift, from + shift + DATA.length),
+                    "偏移 " + shift);
+        }
+    }
+
+    @Test
+    void heapAndDirectBuffersRoundTrip() {
+        SDesKey key = SDesKey.of(KEY);
+        for (boolean directSrc : new boolean[]{false, true}) {
+            for (boolean directDst : new boolean[]{false, true}) {
+                String label = (directSrc ? "直接" : "堆内") + "→" + (directDst ? "直接" : "堆内");
+                // src从position=5开始、limit在末尾之前；dst为带arrayOffset的切片
+                ByteBuffer src = allocate(directSrc, DATA.length + 9);
+                src.position(5);
+                src.put(DATA);
+                src.position(5).limit(5 + DATA.length);
+                ByteBuffer dst = allocate(directDst, DATA.length + 16).position(4).slice();
+                dst.position(2);
+
+                assertEquals(DATA.length, key.encrypt(src, dst), label);
+                assertEquals(5 + DATA.length, src.position(), label);
+                assertEquals(0, src.remaining(), label);
+                assertEquals(2 + DATA.length, dst.position(), label);
+                byte[] cipher = new byte[DATA.length];
+                dst.flip().position(2);
+                dst.get(cipher);
+                assertArrayEquals(EXPECTED, cipher, label);
+
+                dst.position(2);
+                ByteBuffer plain = allocate(!directDst, DATA.length);
+                assertEquals(DATA.length, key.decrypt(dst, plain), label);
+                byte[] decrypted = new byte[DATA.length];
+                plain.flip().get(decrypted);
+                assertArrayEquals(DATA, decrypted, label);
+            }
+        }
+        // 目标空间不足时不移动任何position
+        ByteBuffer src = ByteBuffer.wrap(DATA);
+        ByteBuffer small = ByteBuffer.allocateDirect(DATA.length - 1);
+        assertThrows(BufferOverflowException.class, () -> key.encrypt(src, small));
+        assertEquals(0, src.position());
+        assertEquals(0, small.position());
+    }
+
+    private static ByteBuffer allocate(boolean direct, int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static byte[] reference(byte[] data) {
+        byte[] out = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            out[i] = (byte) SDesUtil.encryptByte(data[i] & 0xFF, KEY);
+        }
+        return out;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
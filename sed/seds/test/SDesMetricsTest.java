@@ -0,0 +1,91 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 运行时统计：记录接口累加到JMX视图；未开启（默认）时加解密、破解与密钥缓存都不改动计数
+ */
+class SDesMetricsTest {
+    private static final int KEY = 0b1010000010;
+
+    @Test
+    void disabledByDefaultLeavesCountersUnchanged() {
+        assumeFalse(SDesMetrics.ENABLED, "需在未设置 -Dsdes.metrics=true 时运行");
+        SDesMetricsMXBean view = SDesMetrics.view();
+        assertFalse(view.isEnabled());
+        long[] before = counters(view);
+        Map<String, Long> sharesBefore = view.getSearchShares();
+
+        byte[] data = new byte[4096];
+        for (SDesMode mode : SDesMode.values()) {
+            mode.encrypt(SDesKey.of(KEY), 0x5A, data, 0, data.length, data, 0);
+            mode.decrypt(SDesKey.of(KEY), 0x5A, data, 0, data.length, data, 0);
+        }
+        TripleSDes.of(1, 2, 3).encrypt(data, 0, data.length, data, 0);
+        SDesKeyCache cache = new SDesKeyCache(4);
+        cache.get(KEY);
+        cache.get(KEY);
+        int[] p = {0x35, 0xC2};
+        int[] c = {SDesUtil.encryptByte(0x35, KEY), SDesUtil.encryptByte(0xC2, KEY)};
+        BruteForceEngine engine = BruteForceEngine.shared();
+        engine.search(new int[]{p[0]}, new int[]{c[0]}).join();
+        engine.search(p, c).join();
+        engine.searchChunked(p, c, null).join();
+
+        assertArrayEquals(before, counters(view));
+        assertEquals(sharesBefore, view.getSearchShares());
+    }
+
+    @Test
+    void recordingAccumulatesInView() {
+        SDesMetricsMXBean view = SDesMetrics.view();
+        view.reset();
+        SDesMetrics.recordCipher(true, 100, System.nanoTime());
+        SDesMetrics.recordCipher(true, 20, System.nanoTime());
+        SDesMetrics.recordCipher(false, 7, System.nanoTime());
+        SDesMetrics.recordKeysTested(1024);
+        SDesMetrics.recordKeysTested(64);
+        SDesMetrics.recordIndexLookup();
+        SDesMetrics.recordSearch(System.nanoTime());
+        SDesMetrics.recordKeyCache(true);
+        SDesMetrics.recordKeyCache(true);
+        SDesMetrics.recordKeyCache(true);
+        SDesMetrics.recordKeyCache(false);
+
+        assertEquals(120, view.getBytesEncrypted());
+        assertEquals(7, view.getBytesDecrypted());
+        assertEquals(3, view.getCipherCalls());
+        assertEquals(1088, view.getKeysTested());
+        assertEquals(Map.of(Thread.currentThread().getName(), 1088L), view.getSearchShares());
+        assertEquals(1, view.getIndexLookups());
+        assertEquals(1, view.getSearches());
+        assertEquals(3, view.getKeyCacheHits());
+        assertEquals(1, view.getKeyCacheMisses());
+        assertEquals(0.75, view.getKeyCacheHitRate());
+        assertFalse(view.getCipherLatencyP99Micros() < view.getCipherLatencyP50Micros());
+
+        view.reset();
+        assertArrayEquals(new long[8], counters(view));
+        assertEquals(Map.of(), view.getSearchShares());
+        assertEquals(0.0, view.getKeyCacheHitRate());
+        assertEquals(0.0, view.getCipherLatencyP99Micros());
+        assertEquals(0.0, view.getSearchLatencyP99Millis());
+    }
+
+    @Test
+    void rejectsInvalidReportPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> SDesMetrics.startReporter(0, System.err));
+    }
+
+    private static long[] counters(SDesMetricsMXBean view) {
+        return new long[]{view.getBytesEncrypted(), view.getBytesDecrypted(), view.getCipherCalls(),
+                view.getKeysTested(), view.getSearches(), view.getIndexLookups(), view.getKeyCacheHits(),
+                view.getKeyCacheMisses()};
+    }
+}
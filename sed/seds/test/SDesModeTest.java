@@ -0,0 +1,149 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 四种工作模式：数据跨过并行阈值时与逐字节参考实现一致，分段链接、原地处理和ByteBuffer路径结果相同
+ */
+class SDesModeTest {
+    /** 超过两个并行阈值且不是块大小的整数倍，覆盖并行拆分和末尾的零头 */
+    private static final int LENGTH = 2 * SDesMode.PARALLEL_THRESHOLD + 123;
+    private static final int KEY = 0b1010000010;
+    private static final int IV = 0x5C;
+
+    private static final byte[] PLAINTEXT = randomBytes(LENGTH, 7);
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void encryptMatchesReference(SDesMode mode) {
+        byte[] out = new byte[LENGTH];
+        int chain = mode.encrypt(SDesKey.of(KEY), IV, PLAINTEXT, 0, LENGTH, out, 0);
+        byte[] expected = new byte[LENGTH];
+        assertEquals(reference(mode, IV, PLAINTEXT, expected), chain);
+        assertArrayEquals(expected, out);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void roundTrip(SDesMode mode) {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] cipher = new byte[LENGTH];
+        int encryptChain = mode.encrypt(key, IV, PLAINTEXT, 0, LENGTH, cipher, 0);
+        byte[] plain = new byte[LENGTH];
+        int decryptChain = mode.decrypt(key, IV, cipher, 0, LENGTH, plain, 0);
+        assertArrayEquals(PLAINTEXT, plain);
+        assertEquals(encryptChain, decryptChain);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void chunkedChainingMatchesOneShot(SDesMode mode) {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] oneShot = new byte[LENGTH];
+        int oneShotChain = mode.encrypt(key, IV, PLAINTEXT, 0, LENGTH, oneShot, 0);
+
+        Random random = new Random(mode.ordinal());
+        byte[] chunked = new byte[LENGTH];
+        int chain = IV;
+        for (int off = 0; off < LENGTH; ) {
+            // 分段长度既有小于也有大于并行阈值的
+            int len = Math.min(LENGTH - off, 1 + random.nextInt(SDesMode.PARALLEL_THRESHOLD * 3 / 2));
+            chain = mode.encrypt(key, chain, PLAINTEXT, off, len, chunked, off);
+            off += len;
+        }
+        assertArrayEquals(oneShot, chunked);
+        assertEquals(oneShotChain, chain);
+
+        byte[] plain = new byte[LENGTH];
+        chain = IV;
+        for (int off = 0; off < LENGTH; ) {
+            int len = Math.min(LENGTH - off, 1 + random.nextInt(SDesMode.PARALLEL_THRESHOLD * 3 / 2));
+            chain = mode.decrypt(key, chain, chunked, off, len, plain, off);
+            off += len;
+        }
+        assertArrayEquals(PLAINTEXT, plain);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void inPlaceMatchesSeparateBuffers(SDesMode mode) {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] expected = new byte[LENGTH];
+        mode.encrypt(key, IV, PLAINTEXT, 0, LENGTH, expected, 0);
+
+        byte[] data = PLAINTEXT.clone();
+        mode.encrypt(key, IV, data, 0, LENGTH, data, 0);
+        assertArrayEquals(expected, data);
+        mode.decrypt(key, IV, data, 0, LENGTH, data, 0);
+        assertArrayEquals(PLAINTEXT, data);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void directBufferMatchesArray(SDesMode mode) {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] expected = new byte[LENGTH];
+        int expectedChain = mode.encrypt(key, IV, PLAINTEXT, 0, LENGTH, expected, 0);
+
+        ByteBuffer src = ByteBuffer.allocateDirect(LENGTH).put(PLAINTEXT).flip();
+        ByteBuffer dst = ByteBuffer.allocateDirect(LENGTH);
+        assertEquals(expectedChain, mode.encrypt(key, IV, src, dst));
+        assertEquals(0, src.remaining());
+        byte[] actual = new byte[LENGTH];
+        dst.flip().get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void offsetsAreHonoured() {
+        SDesKey key = SDesKey.of(KEY);
+        byte[] out = new byte[LENGTH + 20];
+        SDesMode.CBC.encrypt(key, IV, PLAINTEXT, 10, LENGTH - 10, out, 20);
+        byte[] expected = new byte[LENGTH - 10];
+        reference(SDesMode.CBC, IV, Arrays.copyOfRange(PLAINTEXT, 10, LENGTH), expected);
+        assertArrayEquals(expected, Arrays.copyOfRange(out, 20, LENGTH + 10));
+    }
+
+    /**
+     * 按模式定义逐字节加密
+     * @return 链接值
+     */
+    private static int reference(SDesMode mode, int iv, byte[] in, byte[] out) {
+        int state = iv & 0xFF;
+        for (int i = 0; i < in.length; i++) {
+            int p = in[i] & 0xFF;
+            switch (mode) {
+                case ECB:
+                    out[i] = (byte) SDesUtil.encryptByte(p, KEY);
+                    break;
+                case CBC:
+                    state = SDesUtil.encryptByte(p ^ state, KEY);
+                    out[i] = (byte) state;
+                    break;
+                case OFB:
+                    state = SDesUtil.encryptByte(state, KEY);
+                    out[i] = (byte) (p ^ state);
+                    break;
+                case CTR:
+                    out[i] = (byte) (p ^ SDesUtil.encryptByte((iv + i) & 0xFF, KEY));
+                    break;
+                default:
+                    throw new AssertionError(mode);
+            }
+        }
+        return mode == SDesMode.CTR ? (iv + in.length) & 0xFF : state;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
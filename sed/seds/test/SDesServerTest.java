@@ -0,0 +1,182 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 服务端到端往返：流水线发送的加解密与破解请求，响应按请求ID与{@link SDesUtil}参考结果一致
+ */
+class SDesServerTest {
+    private static final int KEY = 0b0111111101;
+    private static final int IV = 0x5A;
+
+    private CrackJobScheduler scheduler;
+    private SDesServer server;
+    private Thread loop;
+
+    @BeforeEach
+    void start() throws IOException {
+        scheduler = new CrackJobScheduler(2, 64, 64);
+        server = new SDesServer(new InetSocketAddress("127.0.0.1", 0), scheduler);
+        loop = new Thread(server::run, "sdes-server-test");
+        loop.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException, InterruptedException {
+        server.close();
+        loop.join(5000);
+        scheduler.close();
+    }
+
+    @Test
+    void pipelinedRequestsMatchReference() throws IOException {
+        Random random = new Random(16);
+        // 小负载在事件线程上处理，大负载移出事件线程，完成顺序可能不同
+        byte[] small = new byte[1000];
+        byte[] large = new byte[SDesServer.OFFLOAD_BYTES + 333];
+        random.nextBytes(small);
+        random.nextBytes(large);
+        int[] plaintexts = {0x12, 0xA7, 0x3C};
+        int[] ciphertexts = new int[plaintexts.length];
+        for (int i = 0; i < plaintexts.length; i++) {
+            ciphertexts[i] = SDesUtil.encryptByte(plaintexts[i], KEY);
+        }
+
+        Map<Integer, byte[]> expected = new HashMap<>();
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(10_000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            int id = 0;
+            for (SDesMode mode : SDesMode.values()) {
+                for (byte[] data : new byte[][]{small, large}) {
+                    writeCipher(out, SDesServer.OP_ENCRYPT, id, mode, data);
+                    expected.put(id++, encryptOneShot(mode, data));
+                    writeCipher(out, SDesServer.OP_DECRYPT, id, mode, encryptOneShot(mode, data));
+                    expected.put(id++, data);
+                }
+            }
+            int ecbId = id++;
+            writeCipher(out, SDesServer.OP_ENCRYPT, ecbId, SDesMode.ECB, small);
+            int crackId = id++;
+            writeCrack(out, crackId, plaintexts, ciphertexts);
+            out.flush();
+
+            Map<Integer, byte[]> responses = readResponses(new DataInputStream(socket.getInputStream()), id);
+            for (Map.Entry<Integer, byte[]> entry : expected.entrySet()) {
+                assertArrayEquals(entry.getValue(), ok(responses.get(entry.getKey())), "请求 " + entry.getKey());
+            }
+            byte[] ecb = new byte[small.length];
+            for (int i = 0; i < small.length; i++) {
+                ecb[i] = (byte) SDesUtil.encryptByte(small[i] & 0xFF, KEY);
+            }
+            assertArrayEquals(ecb, ok(responses.get(ecbId)));
+
+            ByteBuffer keys = ByteBuffer.wrap(ok(responses.get(crackId)));
+            int[] found = new int[keys.remaining() / 2];
+            for (int i = 0; i < found.length; i++) {
+                found[i] = keys.getShort() & 0xFFFF;
+            }
+            assertArrayEquals(ReferenceSearch.keysMatching(plaintexts, ciphertexts), found);
+        }
+    }
+
+    @Test
+    void invalidRequestsGetErrors() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(10_000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            // 未知操作
+            out.writeInt(SDesServer.REQUEST_HEADER_BYTES - 4);
+            out.writeByte(9);
+            out.writeInt(1);
+            // 未知模式
+            out.writeInt(SDesServer.REQUEST_HEADER_BYTES - 4 + SDesServer.CIPHER_PARAMS_BYTES);
+            out.writeByte(SDesServer.OP_ENCRYPT);
+            out.writeInt(2);
+            out.writeShort(KEY);
+            out.writeByte(SDesMode.values().length);
+            out.writeByte(IV);
+            // 缺少明密文对
+            writeCrack(out, 3, new int[0], new int[0]);
+            // 错误之后同一连接仍可继续使用
+            writeCipher(out, SDesServer.OP_ENCRYPT, 4, SDesMode.ECB, new byte[]{7});
+            out.flush();
+
+            Map<Integer, byte[]> responses = readResponses(new DataInputStream(socket.getInputStream()), 4);
+            for (int id = 1; id <= 3; id++) {
+                assertEquals(SDesServer.STATUS_ERROR, responses.get(id)[0], "请求 " + id);
+                assertTrue(responses.get(id).length > 1, "请求 " + id);
+            }
+            assertArrayEquals(new byte[]{(byte) SDesUtil.encryptByte(7, KEY)}, ok(responses.get(4)));
+        }
+    }
+
+    private static void writeCipher(DataOutputStream out, byte op, int id, SDesMode mode, byte[] data)
+            throws IOException {
+        out.writeInt(SDesServer.REQUEST_HEADER_BYTES - 4 + SDesServer.CIPHER_PARAMS_BYTES + data.length);
+        out.writeByte(op);
+        out.writeInt(id);
+        out.writeShort(KEY);
+        out.writeByte(mode.ordinal());
+        out.writeByte(IV);
+        out.write(data);
+    }
+
+    private static void writeCrack(DataOutputStream out, int id, int[] plaintexts, int[] ciphertexts)
+            throws IOException {
+        out.writeInt(SDesServer.REQUEST_HEADER_BYTES - 4 + 2 * plaintexts.length);
+        out.writeByte(SDesServer.OP_CRACK);
+        out.writeInt(id);
+        for (int i = 0; i < plaintexts.length; i++) {
+            out.writeByte(plaintexts[i]);
+            out.writeByte(ciphertexts[i]);
+        }
+    }
+
+    /**
+     * @return 请求ID → 状态字节 + 负载
+     */
+    private static Map<Integer, byte[]> readResponses(DataInputStream in, int count) throws IOException {
+        Map<Integer, byte[]> responses = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int length = in.readInt();
+            int id = in.readInt();
+            byte[] body = new byte[length - 4];
+            in.readFully(body);
+            assertNull(responses.put(id, body), "重复的请求ID " + id);
+        }
+        return responses;
+    }
+
+    private static byte[] ok(byte[] response) {
+        assertEquals(SDesServer.STATUS_OK, response[0],
+                () -> new String(response, 1, response.length - 1, StandardCharsets.UTF_8));
+        return Arrays.copyOfRange(response, 1, response.length);
+    }
+
+    /**
+     * 一次性加密整段数据（与逐字节参考实现的一致性见{@link SDesModeTest}）
+     */
+    private static byte[] encryptOneShot(SDesMode mode, byte[] in) {
+        byte[] out = new byte[in.length];
+        mode.encrypt(SDesKey.of(KEY), IV, in, 0, in.length, out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 流与通道适配器：任意的读写分段方式都与一次性处理整段数据的结果相同（链接值跨调用连续）
+ */
+class SDesStreamTest {
+    /** 跨过内部缓冲区大小且不是其整数倍 */
+    private static final int LENGTH = 3 * SDesOutputStream.DEFAULT_BUFFER_SIZE + 1234;
+    private static final int KEY = 0b0111111101;
+    private static final int IV = 0xA5;
+
+    private static final byte[] PLAINTEXT = randomBytes(LENGTH, 21);
+
+    @Test
+    void ecbMatchesReference() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = new SDesOutputStream(sink, SDesKey.of(KEY), true)) {
+            out.write(PLAINTEXT);
+        }
+        byte[] expected = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            expected[i] = (byte) SDesUtil.encryptByte(PLAINTEXT[i] & 0xFF, KEY);
+        }
+        assertArrayEquals(expected, sink.toByteArray());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void outputStreamMatchesOneShot(SDesMode mode) throws IOException {
+        Random random = new Random(mode.ordinal());
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = new SDesOutputStream(sink, SDesKey.of(KEY), mode, IV, true)) {
+            for (int off = 0; off < LENGTH; ) {
+                if (random.nextInt(4) == 0) {
+                    out.write(PLAINTEXT[off++]);
+                } else {
+                    int len = Math.min(LENGTH - off, random.nextInt(SDesOutputStream.DEFAULT_BUFFER_SIZE * 2));
+                    out.write(PLAINTEXT, off, len);
+                    off += len;
+                }
+            }
+        }
+        assertArrayEquals(encryptOneShot(mode, PLAINTEXT), sink.toByteArray());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void inputStreamMatchesOneShot(SDesMode mode) throws IOException {
+        byte[] cipher = encryptOneShot(mode, PLAINTEXT);
+        Random random = new Random(mode.ordinal() + 10);
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (InputStream in = new SDesInputStream(new ByteArrayInputStream(cipher), SDesKey.of(KEY), mode, IV, false)) {
+            byte[] buffer = new byte[SDesOutputStream.DEFAULT_BUFFER_SIZE * 2];
+            while (true) {
+                int choice = random.nextInt(4);
+                if (choice == 0) {
+                    int b = in.read();
+                    if (b < 0) {
+                        break;
+                    }
+                    plain.write(b);
+                } else if (choice == 1) {
+                    // 跳过的数据也要参与链接：用参考结果补上被跳过的明文
+                    int skipped = (int) in.skip(random.nextInt(100));
+                    plain.write(PLAINTEXT, plain.size(), skipped);
+                } else {
+                    int n = in.read(buffer, 0, 1 + random.nextInt(buffer.length));
+                    if (n < 0) {
+                        break;
+                    }
+                    plain.write(buffer, 0, n);
+                }
+            }
+        }
+        assertArrayEquals(PLAINTEXT, plain.toByteArray());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SDesMode.class)
+    void channelMatchesOneShot(SDesMode mode) throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        WritableByteChannel channel = new SDesWritableChannel(Channels.newChannel(sink), SDesKey.of(KEY), mode, IV, true);
+        ByteBuffer direct = ByteBuffer.allocateDirect(LENGTH).put(PLAINTEXT).flip();
+        int half = LENGTH / 2;
+        assertEquals(half, channel.write(direct.slice().limit(half)));
+        assertEquals(LENGTH - half, channel.write(ByteBuffer.wrap(PLAINTEXT, half, LENGTH - half)));
+        channel.close();
+        assertArrayEquals(encryptOneShot(mode, PLAINTEXT), sink.toByteArray());
+        assertThrows(ClosedChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+    }
+
+    /**
+     * 一次性加密整段数据（与逐字节参考实现的一致性见{@link SDesModeTest}）
+     */
+    private static byte[] encryptOneShot(SDesMode mode, byte[] in) {
+        byte[] out = new byte[in.length];
+        mode.encrypt(SDesKey.of(KEY), IV, in, 0, in.length, out, 0);
+        return out;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
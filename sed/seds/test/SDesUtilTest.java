@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 查表实现的S-DES核心：每个密钥×分组的加解密、子密钥与轮函数都与按位数组逐步计算的教科书实现一致
+ */
+class SDesUtilTest {
+    private static final int[] P10 = {3, 5, 2, 7, 4, 10, 1, 9, 8, 6};
+    private static final int[] P8 = {6, 3, 7, 4, 8, 5, 10, 9};
+    private static final int[] IP = {2, 6, 3, 1, 4, 8, 5, 7};
+    private static final int[] IP_INVERSE = {4, 1, 3, 5, 7, 2, 8, 6};
+    private static final int[] EP = {4, 1, 2, 3, 2, 3, 4, 1};
+    private static final int[][] S1 = {{1, 0, 3, 2}, {3, 2, 1, 0}, {0, 2, 1, 3}, {3, 1, 0, 2}};
+    private static final int[][] S2 = {{0, 1, 2, 3}, {2, 3, 1, 0}, {3, 0, 1, 2}, {2, 1, 0, 3}};
+    private static final int[] SP = {2, 4, 3, 1};
+
+    @Test
+    void everyKeyAndBlockMatchesTextbook() {
+        for (int key = 0; key < SDesCodebook.KEY_COUNT; key++) {
+            int[][] subkeys = textbookSubkeys(key);
+            int k1 = bitsToInt(subkeys[0]);
+            int k2 = bitsToInt(subkeys[1]);
+            assertEquals((k1 << 8) | k2, SDesUtil.generateSubkeysPacked(key), "密钥 " + key);
+            int[] key10 = SDesUtil.intToBits(key, 10);
+            assertArrayEquals(subkeys, SDesUtil.generateSubkeys(key10), "密钥 " + key);
+            for (int block = 0; block < 256; block++) {
+                int expected = textbookCipher(block, subkeys[0], subkeys[1]);
+                assertEquals(expected, SDesUtil.encryptByte(block, key), "密钥 " + key + " 明文 " + block);
+                assertEquals(expected, SDesUtil.encryptBlock(block, k1, k2));
+                assertEquals(block, textbookCipher(expected, subkeys[1], subkeys[0]));
+                assertEquals(block, SDesUtil.decryptByte(expected, key), "密钥 " + key + " 密文 " + expected);
+                assertEquals(block, SDesUtil.decryptBlock(expected, k1, k2));
+            }
+            // int[]接口抽查（每个密钥一个分组）
+            int[] plain = SDesUtil.intToBits(key & 0xFF, 8);
+            int[] cipher = SDesUtil.encrypt(plain, key10);
+            assertEquals(textbookCipher(key & 0xFF, subkeys[0], subkeys[1]), bitsToInt(cipher));
+            assertArrayEquals(plain, SDesUtil.decrypt(cipher, key10));
+        }
+    }
+
+    @Test
+    void roundFunctionMatchesTextbook() {
+        for (int subkey = 0; subkey < 256; subkey++) {
+            int[] subkey8 = SDesUtil.intToBits(subkey, 8);
+            for (int right = 0; right < 16; right++) {
+                int[] expected = textbookF(SDesUtil.intToBits(right, 4), subkey8);
+                assertEquals(bitsToInt(expected), SDesUtil.functionF(right, subkey), "子密钥 " + subkey + " 输入 " + right);
+                assertArrayEquals(expected, SDesUtil.functionF(SDesUtil.intToBits(right, 4), subkey8));
+            }
+        }
+    }
+
+    @Test
+    void asciiConversions() {
+        assertEquals("0100000111111111", SDesUtil.asciiToBinary("Aÿ"));
+        assertEquals("Aÿ", SDesUtil.binaryToAscii("0100000111111111"));
+        assertEquals("", SDesUtil.asciiToBinary(""));
+        assertEquals("", SDesUtil.binaryToAscii(""));
+        StringBuilder all = new StringBuilder();
+        for (char c = 0; c < 256; c++) {
+            all.append(c);
+        }
+        assertEquals(all.toString(), SDesUtil.binaryToAscii(SDesUtil.asciiToBinary(all.toString())));
+
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.asciiToBinary("中"));
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.asciiToBinary("abĀ"));
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.binaryToAscii("0100000"));
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.binaryToAscii("0100000201000001"));
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.binaryToAscii("0100 001"));
+    }
+
+    @Test
+    void bitConversions() {
+        assertArrayEquals(new int[]{1, 0, 1, 0}, SDesUtil.binaryStrToIntArray("1010"));
+        assertEquals("1010", SDesUtil.intArrayToBinaryStr(new int[]{1, 0, 1, 0}));
+        assertEquals("0101", SDesUtil.toBinaryString(5, 4));
+        assertEquals(0b1010, SDesUtil.bitsToInt(new int[]{1, 0, 1, 0}));
+        assertArrayEquals(new int[]{0, 1, 0, 1}, SDesUtil.intToBits(5, 4));
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.binaryStrToIntArray("10a0"));
+        assertThrows(IllegalArgumentException.class, () -> SDesUtil.binaryStrToIntArray(""));
+    }
+
+    // -------------------------- 教科书实现（按位数组，表取自本测试） --------------------------
+    private static int[][] textbookSubkeys(int key) {
+        int[] p10 = permute(SDesUtil.intToBits(key, 10), P10);
+        int[] left = rotate(Arrays.copyOfRange(p10, 0, 5), 1);
+        int[] right = rotate(Arrays.copyOfRange(p10, 5, 10), 1);
+        int[] k1 = permute(concat(left, right), P8);
+        left = rotate(left, 1);
+        right = rotate(right, 1);
+        int[] k2 = permute(concat(left, right), P8);
+        return new int[][]{k1, k2};
+    }
+
+    /**
+     * 加密时依次传入k1、k2，解密时依次传入k2、k1
+     */
+    private static int textbookCipher(int block, int[] first, int[] second) {
+        int[] bits = permute(SDesUtil.intToBits(block, 8), IP);
+        int[] l = Arrays.copyOfRange(bits, 0, 4);
+        int[] r = Arrays.copyOfRange(bits, 4, 8);
+        int[] afterFirst = xor(l, textbookF(r, first));
+        int[] afterSecond = xor(r, textbookF(afterFirst, second));
+        return bitsToInt(permute(concat(afterSecond, afterFirst), IP_INVERSE));
+    }
+
+    private static int[] textbookF(int[] right4, int[] subkey8) {
+        int[] x = xor(permute(right4, EP), subkey8);
+        int s1 = S1[x[0] * 2 + x[3]][x[1] * 2 + x[2]];
+        int s2 = S2[x[4] * 2 + x[7]][x[5] * 2 + x[6]];
+        return permute(new int[]{s1 >>> 1, s1 & 1, s2 >>> 1, s2 & 1}, SP);
+    }
+
+    private static int[] permute(int[] input, int[] table) {
+        int[] result = new int[table.length];
+        for (int i = 0; i < table.length; i++) {
+            result[i] = input[table[i] - 1];
+        }
+        return result;
+    }
+
+    private static int[] rotate(int[] input, int shifts) {
+        int[] result = new int[input.length];
+        for (int i = 0; i < input.length; i++) {
+            result[i] = input[(i + shifts) % input.length];
+        }
+        return result;
+    }
+
+    private static int[] xor(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] ^ b[i];
+        }
+        return result;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static int bitsToInt(int[] bits) {
+        int value = 0;
+        for (int bit : bits) {
+            value = (value << 1) | bit;
+        }
+        return value;
+    }
+}
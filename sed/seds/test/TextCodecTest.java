@@ -0,0 +1,132 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 文本编解码：UTF-8、十六进制、Base64与JDK实现一致，RAW格式与原二进制字符串管线一致，流式编解码可往返
+ */
+class TextCodecTest {
+    private static final String[] TEXTS = {
+            "", "Hello, S-DES!", "信息安全导论", "ünïcödé ß", "emoji 😀 𝄞 mixed 中文",
+            // 不完整的代理对
+            "lone \uD800 high", "lone \uDC00 low", "end \uD83D"
+    };
+
+    private static final byte[] DATA = randomBytes(70_001, 3);
+
+    @Test
+    void utf8MatchesJdk() {
+        for (String text : TEXTS) {
+            byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, TextCodec.utf8Length(text), text);
+            assertArrayEquals(expected, TextCodec.encodeUtf8(text), text);
+
+            byte[] dst = new byte[expected.length + 5];
+            assertEquals(expected.length, TextCodec.encodeUtf8(text, dst, 5), text);
+            assertEquals(new String(expected, StandardCharsets.UTF_8),
+                    TextCodec.decodeUtf8(dst, 5, expected.length), text);
+        }
+    }
+
+    @Test
+    void hexMatchesJdk() {
+        assertEquals(HexFormat.of().formatHex(DATA), TextCodec.toHex(DATA, 0, DATA.length));
+        assertEquals(HexFormat.of().formatHex(DATA, 10, 30), TextCodec.toHex(DATA, 10, 20));
+        assertArrayEquals(DATA, TextCodec.fromHex(HexFormat.of().formatHex(DATA)));
+        assertArrayEquals(new byte[]{(byte) 0xAB, 0x01, (byte) 0xFF}, TextCodec.fromHex(" Ab 0\n1\tfF "));
+        assertThrows(IllegalArgumentException.class, () -> TextCodec.fromHex("abc"));
+        assertThrows(IllegalArgumentException.class, () -> TextCodec.fromHex("zz"));
+    }
+
+    @Test
+    void base64MatchesJdk() {
+        assertEquals(Base64.getEncoder().encodeToString(DATA), TextCodec.Format.BASE64.encode(DATA, 0, DATA.length));
+        assertArrayEquals(DATA, TextCodec.Format.BASE64.decode(Base64.getMimeEncoder().encodeToString(DATA)));
+    }
+
+    @Test
+    void rawMatchesBinaryStringPipeline() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        StringBuilder bits = new StringBuilder();
+        for (byte b : bytes) {
+            bits.append(SDesUtil.toBinaryString(b & 0xFF, 8));
+        }
+        String raw = TextCodec.Format.RAW.encode(bytes, 0, bytes.length);
+        assertEquals(SDesUtil.binaryToAscii(bits.toString()), raw);
+        assertEquals(bits.toString(), SDesUtil.asciiToBinary(raw));
+        assertArrayEquals(bytes, TextCodec.Format.RAW.decode(raw));
+        assertThrows(IllegalArgumentException.class, () -> TextCodec.Format.RAW.decode("中"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(TextCodec.Format.class)
+    void streamsMatchOneShot(TextCodec.Format format) throws IOException {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (OutputStream out = format.encodingStream(text)) {
+            // 混合单字节与数组写入
+            out.write(DATA, 0, 1000);
+            for (int i = 1000; i < 1100; i++) {
+                out.write(DATA[i]);
+            }
+            out.write(DATA, 1100, DATA.length - 1100);
+        }
+        String encoded = text.toString(StandardCharsets.ISO_8859_1);
+        assertEquals(format.encode(DATA, 0, DATA.length), encoded);
+
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (InputStream in = format.decodingStream(new ByteArrayInputStream(text.toByteArray()))) {
+            for (int i = 0; i < 100; i++) {
+                decoded.write(in.read());
+            }
+            byte[] buffer = new byte[777];
+            for (int n; (n = in.read(buffer, 0, buffer.length)) >= 0; ) {
+                decoded.write(buffer, 0, n);
+            }
+            assertEquals(-1, in.read());
+        }
+        assertArrayEquals(DATA, decoded.toByteArray());
+    }
+
+    @Test
+    void hexStreamRejectsBadInput() {
+        byte[] target = new byte[4];
+        assertThrows(IOException.class, () -> drain(TextCodec.Format.HEX.decodingStream(ascii("abc"))));
+        assertThrows(IOException.class, () -> drain(TextCodec.Format.HEX.decodingStream(ascii("ag"))));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> TextCodec.Format.HEX.decodingStream(ascii("abcd")).read(target, 3, 2));
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[16];
+        while (in.read(buffer, 0, buffer.length) >= 0) {
+            // 读到末尾或抛出异常
+        }
+    }
+
+    private static InputStream ascii(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,106 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 三重S-DES：融合表的结果与逐层调用{@link SDesUtil}的E(k3, D(k2, E(k1, P)))一致，双密钥形式取k3 = k1
+ */
+class TripleSDesTest {
+    @Test
+    void fusedTableMatchesReference() {
+        Random random = new Random(25);
+        for (int s = 0; s < 40; s++) {
+            int k1 = random.nextInt(SDesCodebook.KEY_COUNT);
+            int k2 = random.nextInt(SDesCodebook.KEY_COUNT);
+            int k3 = random.nextInt(SDesCodebook.KEY_COUNT);
+            int key30 = (k1 << 20) | (k2 << 10) | k3;
+            TripleSDes cipher = TripleSDes.of(k1, k2, k3);
+            assertEquals(key30, cipher.getKey());
+            for (int block = 0; block < 256; block++) {
+                int expected = SDesUtil.encryptByte(SDesUtil.decryptByte(SDesUtil.encryptByte(block, k1), k2), k3);
+                assertEquals(expected, cipher.encrypt(block), "样本 " + s + " 明文 " + block);
+                assertEquals(expected, TripleSDes.encrypt(block, key30));
+                assertEquals(block, cipher.decrypt(expected));
+                assertEquals(block, TripleSDes.decrypt(expected, key30));
+            }
+        }
+    }
+
+    @Test
+    void bitArrayFormMatchesReference() {
+        Random random = new Random(26);
+        for (int s = 0; s < 200; s++) {
+            int key30 = random.nextInt(TripleSDes.KEY_COUNT);
+            int block = random.nextInt(256);
+            int[] plain = SDesUtil.intToBits(block, 8);
+            int[] key1 = SDesUtil.intToBits(key30 >>> 20, 10);
+            int[] key2 = SDesUtil.intToBits((key30 >>> 10) & 0x3FF, 10);
+            int[] key3 = SDesUtil.intToBits(key30 & 0x3FF, 10);
+            int[] cipher = TripleSDes.encrypt(plain, key1, key2, key3);
+            assertEquals(TripleSDes.encrypt(block, key30), SDesUtil.bitsToInt(cipher), "样本 " + s);
+            assertArrayEquals(plain, TripleSDes.decrypt(cipher, key1, key2, key3), "样本 " + s);
+        }
+    }
+
+    @Test
+    void twoKeyFormUsesFirstKeyTwice() {
+        int k1 = 0b1010000010;
+        int k2 = 0b0111111101;
+        TripleSDes cipher = TripleSDes.of(k1, k2);
+        assertEquals((k1 << 20) | (k2 << 10) | k1, cipher.getKey());
+        for (int block = 0; block < 256; block++) {
+            int expected = SDesUtil.encryptByte(SDesUtil.decryptByte(SDesUtil.encryptByte(block, k1), k2), k1);
+            assertEquals(expected, cipher.encrypt(block), "明文 " + block);
+        }
+        // k1 = k2 时退化为单重S-DES
+        TripleSDes single = TripleSDes.of(k2, k2);
+        for (int block = 0; block < 256; block++) {
+            assertEquals(SDesUtil.encryptByte(block, k2), single.encrypt(block), "明文 " + block);
+        }
+    }
+
+    @Test
+    void bulkMatchesPerBlock() {
+        TripleSDes cipher = TripleSDes.of(0x155, 0x2AA, 0x0F0);
+        byte[] data = new byte[10_000];
+        new Random(27).nextBytes(data);
+        byte[] out = new byte[data.length + 3];
+        cipher.encrypt(data, 0, data.length, out, 3);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(cipher.encrypt(data[i] & 0xFF), out[i + 3] & 0xFF);
+        }
+        cipher.decrypt(out, 3, data.length, out, 3);
+        byte[] plain = new byte[data.length];
+        System.arraycopy(out, 3, plain, 0, data.length);
+        assertArrayEquals(data, plain);
+        assertThrows(IndexOutOfBoundsException.class, () -> cipher.encrypt(data, 1, data.length, out, 0));
+    }
+
+    @Test
+    void variantKeysAreNotCached() {
+        Properties properties = new Properties();
+        properties.setProperty("SHIFTS", "2 1");
+        CipherSpec spec = CipherSpec.fromProperties("variant", properties);
+        TripleSDes cipher = TripleSDes.of(SDesKey.of(spec, 1), SDesKey.of(spec, 2), SDesKey.of(spec, 3));
+        for (int block = 0; block < 256; block++) {
+            assertEquals(spec.encrypt(spec.decrypt(spec.encrypt(block, 1), 2), 3), cipher.encrypt(block));
+        }
+        // 整数密钥创建的实例复用缓存
+        assertSame(TripleSDes.of(1, 2, 3), TripleSDes.of((1 << 20) | (2 << 10) | 3));
+        assertTrue(TripleSDes.cachedCount() <= TripleSDes.CACHE_CAPACITY);
+    }
+
+    @Test
+    void rejectsInvalidKeys() {
+        assertThrows(IllegalArgumentException.class, () -> TripleSDes.of(1024, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> TripleSDes.of(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> TripleSDes.of(TripleSDes.KEY_COUNT));
+    }
+}